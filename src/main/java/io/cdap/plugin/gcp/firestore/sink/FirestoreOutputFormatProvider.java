@@ -45,18 +45,20 @@ public class FirestoreOutputFormatProvider implements OutputFormatProvider {
    * @param collection Firestore collection name
    * @param shouldUseAutoGeneratedId should use auto generated document id
    * @param batchSize batch size
+   * @param referenceFields comma-separated list of the fields written as document references
    */
   public FirestoreOutputFormatProvider(String project, String databaseName, @Nullable String serviceAccountFilePath,
                                       @Nullable String serviceAccountJson, String serviceAccountType,
                                       String collection, String shouldUseAutoGeneratedId,
-                                      String batchSize) {
+                                      String batchSize, String referenceFields) {
     ImmutableMap.Builder<String, String> builder = new ImmutableMap.Builder<String, String>()
       .put(FirestoreConfig.NAME_PROJECT, project)
       .put(FirestoreConfig.NAME_DATABASE, databaseName)
       .put(FirestoreConfig.NAME_SERVICE_ACCOUNT_TYPE, serviceAccountType)
       .put(FirestoreConstants.PROPERTY_COLLECTION, Strings.isNullOrEmpty(collection) ? "" : collection)
       .put(FirestoreSinkConstants.PROPERTY_ID_TYPE, shouldUseAutoGeneratedId)
-      .put(FirestoreSinkConstants.PROPERTY_BATCH_SIZE, batchSize);
+      .put(FirestoreSinkConstants.PROPERTY_BATCH_SIZE, batchSize)
+      .put(FirestoreSinkConstants.PROPERTY_REFERENCE_FIELDS, referenceFields);
 
     if (!Strings.isNullOrEmpty(serviceAccountFilePath)) {
       builder.put(FirestoreConfig.NAME_SERVICE_ACCOUNT_FILE_PATH, serviceAccountFilePath);
@@ -22,6 +22,7 @@ import com.google.cloud.firestore.DocumentReference;
 import com.google.cloud.firestore.Firestore;
 import com.google.cloud.firestore.WriteBatch;
 import com.google.cloud.firestore.WriteResult;
+import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
 import io.cdap.plugin.gcp.firestore.common.FirestoreConfig;
 import io.cdap.plugin.gcp.firestore.exception.FirestoreInitializationException;
@@ -52,6 +53,8 @@ public class FirestoreRecordWriter extends RecordWriter<NullWritable, Map<String
   private int totalCount;
   private int numberOfRecordsInBatch;
   private CollectionReference collectionRef;
+  // Fields holding document paths that are written as document references.
+  private final List<String> referenceFields;
 
   /**
    * Constructor for FirestoreRecordWriter object.
@@ -84,6 +87,8 @@ public class FirestoreRecordWriter extends RecordWriter<NullWritable, Map<String
     String collection = Strings.nullToEmpty(config.get(FirestoreConstants.PROPERTY_COLLECTION)).trim();
     this.batchSize = config.getInt(FirestoreSinkConstants.PROPERTY_BATCH_SIZE, 25);
     this.useAutogeneratedId = config.getBoolean(FirestoreSinkConstants.PROPERTY_ID_TYPE, false);
+    this.referenceFields = Splitter.on(',').trimResults().omitEmptyStrings()
+      .splitToList(config.get(FirestoreSinkConstants.PROPERTY_REFERENCE_FIELDS, ""));
 
     LOG.debug("Initialize RecordWriter(projectId={}, databaseId={}, collection={}, " +
      "isServiceAccountFilePath={}, serviceFilePath={}, " +
@@ -108,6 +113,12 @@ public class FirestoreRecordWriter extends RecordWriter<NullWritable, Map<String
     } else {
       docRef = collectionRef.document();
     }
+    for (String referenceField : referenceFields) {
+      Object path = entity.get(referenceField);
+      if (path instanceof String) {
+        entity.put(referenceField, db.document((String) path));
+      }
+    }
 
     batch.set(docRef, entity);
 
@@ -82,10 +82,11 @@ public class FirestoreSink extends BatchSink<StructuredRecord, NullWritable, Map
     String collection = config.getCollection();
     String shouldAutoGenerateId = Boolean.toString(config.shouldUseAutoGeneratedId());
     String batchSize = Integer.toString(config.getBatchSize());
+    String referenceFields = String.join(",", config.getReferenceFields());
 
     batchSinkContext.addOutput(Output.of(config.getReferenceName(),
       new FirestoreOutputFormatProvider(project, databaseName, serviceAccountFilePath, serviceAccountJson,
-       serviceAccountType, collection, shouldAutoGenerateId, batchSize)));
+       serviceAccountType, collection, shouldAutoGenerateId, batchSize, referenceFields)));
 
     LineageRecorder lineageRecorder = new LineageRecorder(batchSinkContext, config.getReferenceName());
     lineageRecorder.createExternalDataset(inputSchema);
@@ -18,6 +18,7 @@ package io.cdap.plugin.gcp.firestore.sink;
 
 import com.google.cloud.firestore.Firestore;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
 import io.cdap.cdap.api.annotation.Description;
 import io.cdap.cdap.api.annotation.Macro;
@@ -66,6 +67,13 @@ public class FirestoreSinkConfig extends FirestoreConfig {
     + "The minimum value is 1 and maximum value is 500")
   private int batchSize;
 
+  @Name(FirestoreSinkConstants.PROPERTY_REFERENCE_FIELDS)
+  @Macro
+  @Nullable
+  @Description("Comma-separated list of string fields holding document paths, such as 'users/alice', that are "
+    + "written as Firestore document references instead of strings.")
+  private String referenceFields;
+
   public FirestoreSinkConfig() {
     // needed for initialization
   }
@@ -141,6 +149,15 @@ public class FirestoreSinkConfig extends FirestoreConfig {
     return batchSize;
   }
 
+  /**
+   * Returns the fields written as document references.
+   *
+   * @return the names of the fields, in the order they are listed
+   */
+  public List<String> getReferenceFields() {
+    return Splitter.on(',').trimResults().omitEmptyStrings().splitToList(Strings.nullToEmpty(referenceFields));
+  }
+
   public boolean shouldUseAutoGeneratedId() {
     return getIdType() == SinkIdType.AUTO_GENERATED_ID;
   }
@@ -156,6 +173,7 @@ public class FirestoreSinkConfig extends FirestoreConfig {
     if (schema != null) {
       validateSchema(schema, collector);
       validateIdType(schema, collector);
+      validateReferenceFields(schema, collector);
     }
   }
 
@@ -226,6 +244,14 @@ public class FirestoreSinkConfig extends FirestoreConfig {
         fieldSchema.getUnionSchemas().forEach(unionSchema ->
           validateSinkFieldSchema(fieldName, unionSchema, collector));
         return;
+      case RECORD:
+        if (!RecordToEntityTransformer.isGeoPoint(fieldSchema)) {
+          collector.addFailure(String.format("Field '%s' is a record that is not a geo point", fieldName),
+            String.format("Records are written as geo points and must have double fields '%s' and '%s' only.",
+              FirestoreConstants.GEO_POINT_LATITUDE, FirestoreConstants.GEO_POINT_LONGITUDE))
+            .withInputSchemaField(fieldName);
+        }
+        return;
       default:
         collector.addFailure(String.format("Field '%s' is of unsupported type '%s'",
           fieldName, fieldSchema.getDisplayName()),
@@ -265,6 +291,35 @@ public class FirestoreSinkConfig extends FirestoreConfig {
     }
   }
 
+  /**
+   * Validates that every reference field is present in the schema and of type string.
+   *
+   * @param schema CDAP schema
+   * @param collector failure collector
+   */
+  private void validateReferenceFields(Schema schema, FailureCollector collector) {
+    if (containsMacro(FirestoreSinkConstants.PROPERTY_REFERENCE_FIELDS)) {
+      return;
+    }
+
+    for (String referenceField : getReferenceFields()) {
+      Schema.Field field = schema.getField(referenceField);
+      if (field == null) {
+        collector.addFailure(String.format("Reference field '%s' does not exist in the schema", referenceField),
+          "Change the reference field to be one of the schema fields.")
+          .withConfigElement(FirestoreSinkConstants.PROPERTY_REFERENCE_FIELDS, referenceField);
+        continue;
+      }
+      Schema fieldSchema = field.getSchema().isNullable() ? field.getSchema().getNonNullable() : field.getSchema();
+      if (Schema.Type.STRING != fieldSchema.getType()) {
+        collector.addFailure(String.format("Reference field '%s' is of unsupported type '%s'", referenceField,
+          fieldSchema.getDisplayName()), "Ensure the type is string.")
+          .withConfigElement(FirestoreSinkConstants.PROPERTY_REFERENCE_FIELDS, referenceField)
+          .withInputSchemaField(referenceField);
+      }
+    }
+  }
+
   private void validateBatchSize(FailureCollector collector) {
     if (containsMacro(FirestoreSinkConstants.PROPERTY_BATCH_SIZE)) {
       return;
@@ -17,7 +17,10 @@
 package io.cdap.plugin.gcp.firestore.sink;
 
 import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.Blob;
+import com.google.cloud.firestore.GeoPoint;
 import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.protobuf.UnsafeByteOperations;
 import io.cdap.cdap.api.data.format.StructuredRecord;
 import io.cdap.cdap.api.data.format.UnexpectedFormatException;
 import io.cdap.cdap.api.data.schema.Schema;
@@ -26,6 +29,7 @@ import io.cdap.plugin.gcp.firestore.util.FirestoreConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
 import java.time.ZonedDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -108,6 +112,27 @@ public class RecordToEntityTransformer {
       case BOOLEAN:
         Boolean booleanValue = getValue(record::get, fieldName, fieldType.toString(), Boolean.class);
         return booleanValue;
+      case BYTES:
+        // the bytes of the record are wrapped, not copied
+        Object bytesValue = record.get(fieldName);
+        if (bytesValue instanceof ByteBuffer) {
+          return Blob.fromByteString(UnsafeByteOperations.unsafeWrap(((ByteBuffer) bytesValue).duplicate()));
+        }
+        byte[] byteArrayValue = getValue(record::get, fieldName, fieldType.toString(), byte[].class);
+        return Blob.fromByteString(UnsafeByteOperations.unsafeWrap(byteArrayValue));
+      case RECORD:
+        if (isGeoPoint(fieldSchema)) {
+          StructuredRecord point = getValue(record::get, fieldName, fieldType.toString(), StructuredRecord.class);
+          Double latitude = point.get(FirestoreConstants.GEO_POINT_LATITUDE);
+          Double longitude = point.get(FirestoreConstants.GEO_POINT_LONGITUDE);
+          if (latitude == null || longitude == null) {
+            throw new UnexpectedFormatException(
+              String.format("Field '%s' is a geo point without latitude or longitude", fieldName));
+          }
+          return new GeoPoint(latitude, longitude);
+        }
+        throw new IllegalStateException(
+          String.format("Record type '%s' is not supported for field '%s'", fieldType.name(), fieldName));
       case UNION:
         if (fieldSchema.isNullable()) {
           return convertToValue(fieldName, fieldSchema.getNonNullable(), record);
@@ -121,6 +146,27 @@ public class RecordToEntityTransformer {
     }
   }
 
+  /**
+   * Returns whether the given record schema is the one of a geo point, with double latitude and longitude fields only.
+   *
+   * @param schema the record schema
+   * @return true if the records are written as geo points
+   */
+  static boolean isGeoPoint(Schema schema) {
+    List<Schema.Field> fields = schema.getFields();
+    return fields != null && fields.size() == 2
+      && isDoubleField(schema.getField(FirestoreConstants.GEO_POINT_LATITUDE))
+      && isDoubleField(schema.getField(FirestoreConstants.GEO_POINT_LONGITUDE));
+  }
+
+  private static boolean isDoubleField(@Nullable Schema.Field field) {
+    if (field == null) {
+      return false;
+    }
+    Schema schema = field.getSchema().isNullable() ? field.getSchema().getNonNullable() : field.getSchema();
+    return schema.getType() == Schema.Type.DOUBLE;
+  }
+
   private <T> T getValue(Function<String, T> valueExtractor, String fieldName, String fieldType, Class<T> clazz) {
     T value = valueExtractor.apply(fieldName);
     if (clazz.isAssignableFrom(value.getClass())) {
@@ -36,6 +36,11 @@ public interface FirestoreSinkConstants {
    */
   String PROPERTY_BATCH_SIZE = "batchSize";
 
+  /**
+   * Configuration property name used to specify the fields written as document references.
+   */
+  String PROPERTY_REFERENCE_FIELDS = "referenceFields";
+
   /**
    * Maximum number of entities that can be passed to a Commit operation in the Cloud Firestore API
    */
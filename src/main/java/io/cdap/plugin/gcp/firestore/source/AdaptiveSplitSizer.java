@@ -0,0 +1,230 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.AggregateQuerySnapshot;
+import com.google.cloud.firestore.Firestore;
+import io.cdap.plugin.gcp.firestore.source.util.FilterInfo;
+import io.cdap.plugin.gcp.firestore.source.util.FirestoreQueryBuilder;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Sizes splits by the number of documents they hold, counted with count aggregations. Candidate ranges are counted
+ * concurrently, a bounded number at a time, field ranges holding more documents than the target are divided, and
+ * neighbouring ranges are merged while they stay below the target, so that every task reads about the same number
+ * of documents.
+ */
+class AdaptiveSplitSizer {
+  // Number of candidate ranges requested for every split of the target size, so that they can be merged evenly.
+  static final int OVERSAMPLING = 4;
+  // Maximum number of candidate ranges of a collection, which bounds the number of count queries.
+  static final int MAX_CANDIDATES = 10000;
+  // Number of times ranges holding too many documents are divided, for heavily skewed fields.
+  private static final int MAX_SUBDIVISION_ROUNDS = 3;
+  // Maximum number of count queries in flight at once, so that the driver does not exhaust the request quota.
+  private static final int MAX_PENDING_COUNTS = 100;
+
+  private final Firestore db;
+  private final boolean collectionGroup;
+  private final List<FilterInfo> filters;
+  private final long targetDocuments;
+
+  /**
+   * Constructor for AdaptiveSplitSizer object.
+   *
+   * @param db the Firestore service
+   * @param collectionGroup whether the collections are read as collection groups
+   * @param filters the filters of the query
+   * @param targetDocuments the number of documents a split should hold
+   */
+  AdaptiveSplitSizer(Firestore db, boolean collectionGroup, List<FilterInfo> filters, long targetDocuments) {
+    this.db = db;
+    this.collectionGroup = collectionGroup;
+    this.filters = filters;
+    this.targetDocuments = targetDocuments;
+  }
+
+  /**
+   * Returns the number of splits of the target size the given number of documents fill.
+   */
+  int getSplitCount(long documents) {
+    return (int) Math.min(MAX_CANDIDATES, Math.max(1, (documents + targetDocuments - 1) / targetDocuments));
+  }
+
+  /**
+   * Counts the documents of every given collection that match the filters.
+   *
+   * @param collections the collections to count
+   * @return the number of documents of every collection, in the same order
+   */
+  List<Long> countCollections(List<String> collections) throws IOException, InterruptedException {
+    List<FirestoreInputSplit> splits = new ArrayList<>(collections.size());
+    for (String collection : collections) {
+      splits.add(new FirestoreInputSplit(collection, null, null));
+    }
+    return count(splits);
+  }
+
+  /**
+   * Counts the documents of the given cursor ranges and merges neighbouring ranges of a collection while they hold
+   * fewer documents than the target.
+   *
+   * @param candidates the ranges of a collection, in order
+   * @return the sized splits, with their estimated number of documents
+   */
+  List<FirestoreInputSplit> sizeCursorRanges(List<FirestoreInputSplit> candidates)
+    throws IOException, InterruptedException {
+    countEstimates(candidates);
+    return merge(candidates);
+  }
+
+  /**
+   * Counts the documents of the given field ranges, divides the ranges that hold more documents than the target
+   * and merges neighbouring ranges while they hold fewer documents than the target.
+   *
+   * @param collection the collection of the ranges
+   * @param field the field the ranges are on
+   * @param lower the lowest value of the field
+   * @param upper the highest value of the field
+   * @param ranges the filters of the ranges, in order
+   * @return the sized splits, with their estimated number of documents
+   */
+  List<FirestoreInputSplit> sizeFieldRanges(String collection, String field, Object lower, Object upper,
+                                            List<List<FilterInfo>> ranges) throws IOException, InterruptedException {
+    List<FirestoreInputSplit> splits = new ArrayList<>(ranges.size());
+    for (List<FilterInfo> range : ranges) {
+      splits.add(new FirestoreInputSplit(collection, range));
+    }
+    countEstimates(splits);
+
+    for (int round = 0; round < MAX_SUBDIVISION_ROUNDS; round++) {
+      List<FirestoreInputSplit> divided = new ArrayList<>(splits.size());
+      List<FirestoreInputSplit> uncounted = new ArrayList<>();
+      for (FirestoreInputSplit split : splits) {
+        if (split.getEstimatedDocuments() <= targetDocuments) {
+          divided.add(split);
+          continue;
+        }
+        List<List<FilterInfo>> parts = FieldRangePartitioner.subdivide(
+          field, split.getRangeFilters(), lower, upper, getSplitCount(split.getEstimatedDocuments()));
+        if (parts.size() == 1) {
+          // the range holds a single value of the field
+          divided.add(split);
+          continue;
+        }
+        for (List<FilterInfo> part : parts) {
+          FirestoreInputSplit partSplit = new FirestoreInputSplit(collection, part);
+          divided.add(partSplit);
+          uncounted.add(partSplit);
+        }
+      }
+      if (uncounted.isEmpty()) {
+        break;
+      }
+      countEstimates(uncounted);
+      splits = divided;
+    }
+    return merge(splits);
+  }
+
+  /**
+   * Merges neighbouring splits while the merged split holds no more documents than the target.
+   */
+  private List<FirestoreInputSplit> merge(List<FirestoreInputSplit> splits) {
+    List<FirestoreInputSplit> merged = new ArrayList<>();
+    FirestoreInputSplit first = null;
+    FirestoreInputSplit last = null;
+    long documents = 0;
+    for (FirestoreInputSplit split : splits) {
+      if (first != null && documents + split.getEstimatedDocuments() > targetDocuments) {
+        merged.add(span(first, last, documents));
+        first = null;
+        documents = 0;
+      }
+      if (first == null) {
+        first = split;
+      }
+      last = split;
+      documents += split.getEstimatedDocuments();
+    }
+    if (first != null) {
+      merged.add(span(first, last, documents));
+    }
+    return merged;
+  }
+
+  private static FirestoreInputSplit span(FirestoreInputSplit first, FirestoreInputSplit last, long documents) {
+    FirestoreInputSplit split;
+    if (first == last) {
+      split = first;
+    } else if (first.getRangeFilters().isEmpty() && last.getRangeFilters().isEmpty()) {
+      split = new FirestoreInputSplit(first.getCollection(), first.getStartAt(), last.getEndBefore());
+    } else {
+      split = new FirestoreInputSplit(first.getCollection(),
+                                      FieldRangePartitioner.span(first.getRangeFilters(), last.getRangeFilters()));
+    }
+    split.setEstimatedDocuments(documents);
+    return split;
+  }
+
+  private void countEstimates(List<FirestoreInputSplit> splits) throws IOException, InterruptedException {
+    List<Long> counts = count(splits);
+    for (int i = 0; i < splits.size(); i++) {
+      splits.get(i).setEstimatedDocuments(counts.get(i));
+    }
+  }
+
+  /**
+   * Counts the documents of the given splits, with at most {@link #MAX_PENDING_COUNTS} count queries in flight.
+   */
+  private List<Long> count(List<FirestoreInputSplit> splits) throws IOException, InterruptedException {
+    Deque<ApiFuture<AggregateQuerySnapshot>> pendingCounts = new ArrayDeque<>();
+    List<Long> counts = new ArrayList<>(splits.size());
+    try {
+      for (FirestoreInputSplit split : splits) {
+        if (pendingCounts.size() >= MAX_PENDING_COUNTS) {
+          // counts are collected in the order of the splits, so the window moves on with the oldest query
+          counts.add(pendingCounts.poll().get().getCount());
+        }
+        List<FilterInfo> splitFilters = filters;
+        if (!split.getRangeFilters().isEmpty()) {
+          splitFilters = new ArrayList<>(filters);
+          splitFilters.addAll(split.getRangeFilters());
+        }
+        pendingCounts.add(FirestoreQueryBuilder.buildQuery(db, split.getCollection(), collectionGroup,
+                                                           Collections.emptyList(), split, splitFilters,
+                                                           Collections.emptyList()).count().get());
+      }
+      while (!pendingCounts.isEmpty()) {
+        counts.add(pendingCounts.poll().get().getCount());
+      }
+    } catch (ExecutionException e) {
+      throw new IOException("Failed to count the documents of the splits: " + e.getMessage(), e);
+    } finally {
+      pendingCounts.forEach(pendingCount -> pendingCount.cancel(true));
+    }
+    return counts;
+  }
+}
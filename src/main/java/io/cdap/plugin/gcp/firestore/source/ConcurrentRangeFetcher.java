@@ -0,0 +1,66 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import com.google.cloud.firestore.DocumentSnapshot;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * Fetches the documents of several ranges of a split at the same time. Every range is fetched by its own
+ * {@link PagedDocumentFetcher}, and the ranges take turns, so that all of them keep fetching in the background.
+ * Documents are returned in no particular order across ranges.
+ */
+class ConcurrentRangeFetcher implements FirestoreDocumentFetcher {
+  private final Deque<PagedDocumentFetcher> fetchers;
+
+  /**
+   * Constructor for ConcurrentRangeFetcher object, which starts fetching every range right away.
+   *
+   * @param fetchers the fetchers of the ranges
+   */
+  ConcurrentRangeFetcher(List<PagedDocumentFetcher> fetchers) {
+    this.fetchers = new ArrayDeque<>(fetchers);
+    fetchers.forEach(PagedDocumentFetcher::start);
+  }
+
+  @Nullable
+  @Override
+  public List<? extends DocumentSnapshot> nextPage() throws IOException, InterruptedException {
+    PagedDocumentFetcher fetcher;
+    while ((fetcher = fetchers.poll()) != null) {
+      List<? extends DocumentSnapshot> page = fetcher.nextPage();
+      if (page == null) {
+        fetcher.close();
+        continue;
+      }
+      fetchers.add(fetcher);
+      return page;
+    }
+    return null;
+  }
+
+  @Override
+  public void close() {
+    fetchers.forEach(PagedDocumentFetcher::close);
+    fetchers.clear();
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldMask;
+import com.google.cloud.firestore.Firestore;
+import com.google.common.collect.Lists;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+
+/**
+ * Fetches documents by id with {@link Firestore#getAll(DocumentReference[], FieldMask)}. The ids are looked up in
+ * chunks, and several chunks are requested concurrently. Ids of documents that do not exist are skipped.
+ */
+class DocumentLookupFetcher implements FirestoreDocumentFetcher {
+  private final FirestoreReadExecutor executor;
+  private final List<List<String>> chunks;
+  private final CollectionReference collection;
+  private final FieldMask fieldMask;
+  private final int concurrency;
+  private final Deque<ApiFuture<List<DocumentSnapshot>>> pendingChunks = new ArrayDeque<>();
+  private int nextChunk;
+
+  /**
+   * Constructor for DocumentLookupFetcher object.
+   *
+   * @param executor the executor of the lookups
+   * @param db the Firestore service
+   * @param collection the collection the documents belong to
+   * @param documentIds the ids of the documents to fetch
+   * @param fields the fields to fetch, all fields are fetched if empty
+   * @param chunkSize the number of documents fetched in one request
+   * @param concurrency the number of requests in flight
+   */
+  DocumentLookupFetcher(FirestoreReadExecutor executor, Firestore db, String collection, List<String> documentIds,
+                        List<String> fields, int chunkSize, int concurrency) {
+    this.executor = executor;
+    this.collection = db.collection(collection);
+    this.chunks = Lists.partition(documentIds, chunkSize);
+    this.fieldMask = fields.isEmpty() ? null : FieldMask.of(fields.toArray(new String[0]));
+    this.concurrency = concurrency;
+  }
+
+  @Nullable
+  @Override
+  public List<? extends DocumentSnapshot> nextPage() throws IOException, InterruptedException {
+    requestChunks();
+    ApiFuture<List<DocumentSnapshot>> chunk = pendingChunks.poll();
+    if (chunk == null) {
+      return null;
+    }
+
+    List<DocumentSnapshot> documents;
+    try {
+      documents = chunk.get();
+    } catch (ExecutionException e) {
+      throw new IOException("Failed to fetch documents from Firestore: " + e.getMessage(), e);
+    }
+    requestChunks();
+    return documents.stream().filter(DocumentSnapshot::exists).collect(Collectors.toList());
+  }
+
+  @Override
+  public void close() {
+    pendingChunks.forEach(chunk -> chunk.cancel(true));
+    pendingChunks.clear();
+  }
+
+  private void requestChunks() {
+    while (pendingChunks.size() < concurrency && nextChunk < chunks.size()) {
+      DocumentReference[] references = chunks.get(nextChunk++).stream()
+        .map(collection::document)
+        .toArray(DocumentReference[]::new);
+      pendingChunks.add(executor.getAll(references, fieldMask));
+    }
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import com.google.cloud.Timestamp;
+import com.google.firestore.v1.Document;
+import com.google.firestore.v1.Value;
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transforms the {@link Document} messages received from Firestore to {@link StructuredRecord}, reading the
+ * {@link Value} messages of the fields directly through the same {@link RecordConversionPlan} as
+ * {@link QueryDocumentSnapshotToRecordTransformer}, so both convert documents the same way.
+ */
+public class DocumentToRecordTransformer {
+  // Separates the name of the database from the path of a document in document and reference names.
+  private static final String DOCUMENTS_SEGMENT = "/documents/";
+  private static final MessageValueReader VALUE_READER = new MessageValueReader();
+
+  private final RecordConversionPlan<Value> plan;
+  private final RecordConversionPlan.DocumentReader<Document, Value> documentReader;
+
+  /**
+   * Constructor for DocumentToRecordTransformer object.
+   * @param schema the schema
+   * @param includeDocumentId the include document id
+   * @param idAlias the id alias
+   */
+  public DocumentToRecordTransformer(Schema schema, Boolean includeDocumentId, String idAlias) {
+    this.plan = new RecordConversionPlan<>(schema, includeDocumentId, idAlias, VALUE_READER);
+    String[] names = plan.getFieldNames().toArray(new String[0]);
+    this.documentReader = new RecordConversionPlan.DocumentReader<Document, Value>() {
+      @Override
+      public String getId(Document document) {
+        String name = document.getName();
+        return name.substring(name.lastIndexOf('/') + 1);
+      }
+
+      @Override
+      public Value getField(Document document, int index) {
+        return document.getFieldsOrDefault(names[index], null);
+      }
+    };
+  }
+
+  /**
+   * Transforms given {@link Document} to {@link StructuredRecord}.
+   *
+   * @param document document message to be transformed.
+   * @return {@link StructuredRecord} that corresponds to the given {@link Document}.
+   */
+  public StructuredRecord transform(Document document) {
+    return plan.convert(document, documentReader, Collections.emptyMap());
+  }
+
+  /**
+   * Transforms given {@link Document} to {@link StructuredRecord}, with the values of some fields given instead of
+   * taken from the document.
+   *
+   * @param document document message to be transformed.
+   * @param values values of the top level fields that are not taken from the document.
+   * @return {@link StructuredRecord} that corresponds to the given {@link Document}.
+   */
+  public StructuredRecord transform(Document document, Map<String, Object> values) {
+    return plan.convert(document, documentReader, values);
+  }
+
+  /**
+   * Returns the path of a document or of a reference to it, relative to the root of its database.
+   *
+   * @param name the full name of the document, 'projects/{project}/databases/{database}/documents/{path}'
+   * @return the path of the document
+   */
+  public static String getDocumentPath(String name) {
+    int index = name.indexOf(DOCUMENTS_SEGMENT);
+    return index < 0 ? name : name.substring(index + DOCUMENTS_SEGMENT.length());
+  }
+
+  /**
+   * Reads {@link Value} messages without converting them into Java objects first.
+   */
+  private static final class MessageValueReader implements RecordConversionPlan.ValueReader<Value> {
+
+    @Override
+    public boolean isNull(Value value) {
+      return value.getValueTypeCase() == Value.ValueTypeCase.NULL_VALUE;
+    }
+
+    @Override
+    public Timestamp toTimestamp(String fieldName, Value value) {
+      ensureTypeValid(fieldName, value, Value.ValueTypeCase.TIMESTAMP_VALUE);
+      return Timestamp.fromProto(value.getTimestampValue());
+    }
+
+    @Override
+    public ByteBuffer toBytes(String fieldName, Value value) {
+      ensureTypeValid(fieldName, value, Value.ValueTypeCase.BYTES_VALUE);
+      // the bytes of the message are shared, not copied
+      return value.getBytesValue().asReadOnlyByteBuffer();
+    }
+
+    @Override
+    public boolean toBoolean(String fieldName, Value value) {
+      ensureTypeValid(fieldName, value, Value.ValueTypeCase.BOOLEAN_VALUE);
+      return value.getBooleanValue();
+    }
+
+    @Override
+    public long toLong(String fieldName, Value value) {
+      ensureTypeValid(fieldName, value, Value.ValueTypeCase.INTEGER_VALUE);
+      return value.getIntegerValue();
+    }
+
+    @Override
+    public double toDouble(String fieldName, Value value) {
+      ensureTypeValid(fieldName, value, Value.ValueTypeCase.DOUBLE_VALUE);
+      return value.getDoubleValue();
+    }
+
+    @Override
+    public String toString(String fieldName, Value value) {
+      if (value.getValueTypeCase() == Value.ValueTypeCase.REFERENCE_VALUE) {
+        return getDocumentPath(value.getReferenceValue());
+      }
+      ensureTypeValid(fieldName, value, Value.ValueTypeCase.STRING_VALUE);
+      return value.getStringValue();
+    }
+
+    @Override
+    public boolean isGeoPoint(Value value) {
+      return value.getValueTypeCase() == Value.ValueTypeCase.GEO_POINT_VALUE;
+    }
+
+    @Override
+    public double getLatitude(Value value) {
+      return value.getGeoPointValue().getLatitude();
+    }
+
+    @Override
+    public double getLongitude(Value value) {
+      return value.getGeoPointValue().getLongitude();
+    }
+
+    @Override
+    public List<Value> toList(String fieldName, Value value) {
+      ensureTypeValid(fieldName, value, Value.ValueTypeCase.ARRAY_VALUE);
+      return value.getArrayValue().getValuesList();
+    }
+
+    @Override
+    public Map<String, Value> toMap(String fieldName, Value value) {
+      ensureTypeValid(fieldName, value, Value.ValueTypeCase.MAP_VALUE);
+      return value.getMapValue().getFieldsMap();
+    }
+
+    private static void ensureTypeValid(String fieldName, Value value, Value.ValueTypeCase expectedType) {
+      if (value.getValueTypeCase() != expectedType) {
+        throw RecordConversionPlan.typeMismatch(fieldName, expectedType.name().toLowerCase(),
+                                                value.getValueTypeCase().name().toLowerCase());
+      }
+    }
+  }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Query;
+import com.google.common.base.Strings;
+import io.cdap.plugin.gcp.firestore.source.util.FilterInfo;
+import io.cdap.plugin.gcp.firestore.source.util.FilterInfoParser;
+import io.cdap.plugin.gcp.firestore.source.util.FilterOperator;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+
+/**
+ * Divides the values of a numeric or timestamp field into ranges of equal width, like the split-by column of
+ * database sources. Every range is turned into filters on the field. The first and the last range are open, so
+ * that documents with values outside the bounds are still read.
+ */
+final class FieldRangePartitioner {
+
+  private FieldRangePartitioner() {
+  }
+
+  /**
+   * Parses a bound of the split field. Values can be typed explicitly as type(value), otherwise they are read as
+   * long, double or timestamp, whichever matches first.
+   *
+   * @param value the bound to parse
+   * @return the bound as a Long, Double or Timestamp, null if no value is given
+   * @throws IllegalArgumentException if the value is not a number or a timestamp
+   */
+  @Nullable
+  static Object parseBound(@Nullable String value) throws IllegalArgumentException {
+    if (Strings.isNullOrEmpty(value)) {
+      return null;
+    }
+    List<Object> values = FilterInfoParser.parseValues(value.trim());
+    if (values.size() != 1) {
+      throw new IllegalArgumentException(String.format("Bound '%s' must be a single value.", value));
+    }
+    Object bound = values.get(0);
+    if (bound instanceof String) {
+      bound = parseUntypedBound((String) bound);
+    }
+    if (!(bound instanceof Long || bound instanceof Double || bound instanceof Timestamp)) {
+      throw new IllegalArgumentException(String.format("Bound '%s' must be a number or a timestamp.", value));
+    }
+    return bound;
+  }
+
+  /**
+   * Returns the lowest or highest value of the field among the documents of the query, null if no document
+   * has the field.
+   *
+   * @param query the query of the documents to split
+   * @param field the field to split by
+   * @param direction ascending for the lowest value, descending for the highest
+   * @return the value of the field
+   * @throws IOException if the query failed
+   */
+  @Nullable
+  static Object discoverBound(Query query, String field, Query.Direction direction)
+    throws IOException, InterruptedException {
+    List<? extends DocumentSnapshot> documents;
+    try {
+      documents = query.orderBy(field, direction).limit(1).get().get().getDocuments();
+    } catch (ExecutionException e) {
+      throw new IOException(String.format("Failed to find the bounds of split field '%s'.", field), e);
+    }
+    return documents.isEmpty() ? null : documents.get(0).get(field);
+  }
+
+  /**
+   * Divides the range between the bounds into the given number of ranges of equal width.
+   *
+   * @param field the field to split by
+   * @param lower the lower bound, a Long, Double or Timestamp
+   * @param upper the upper bound, of the same kind as the lower bound
+   * @param count the number of ranges
+   * @return the filters of every range, a single empty list if the range can't be divided
+   */
+  static List<List<FilterInfo>> partition(String field, Object lower, Object upper, int count) {
+    List<Object> boundaries = getBoundaries(lower, upper, count);
+    if (boundaries.isEmpty()) {
+      return Collections.<List<FilterInfo>>singletonList(Collections.emptyList());
+    }
+
+    List<List<FilterInfo>> ranges = new ArrayList<>(boundaries.size() + 1);
+    Object start = null;
+    for (Object boundary : boundaries) {
+      List<FilterInfo> range = new ArrayList<>(2);
+      if (start != null) {
+        range.add(new FilterInfo(field, FilterOperator.GREATER_THAN_OR_EQUAL_TO, start));
+      }
+      range.add(new FilterInfo(field, FilterOperator.LESS_THAN, boundary));
+      ranges.add(range);
+      start = boundary;
+    }
+    List<FilterInfo> last = new ArrayList<>(1);
+    last.add(new FilterInfo(field, FilterOperator.GREATER_THAN_OR_EQUAL_TO, start));
+    ranges.add(last);
+    return ranges;
+  }
+
+  /**
+   * Divides a range returned by {@link #partition} into the given number of ranges of equal width. The open side
+   * of the first or last range is bounded by the lowest or highest value of the field.
+   *
+   * @param field the field to split by
+   * @param range the filters of the range to divide
+   * @param lower the lowest value of the field
+   * @param upper the highest value of the field
+   * @param count the number of ranges
+   * @return the filters of every range, the given range alone if it can't be divided
+   */
+  static List<List<FilterInfo>> subdivide(String field, List<FilterInfo> range, Object lower, Object upper,
+                                          int count) {
+    Object start = getBound(range, FilterOperator.GREATER_THAN_OR_EQUAL_TO);
+    Object end = getBound(range, FilterOperator.LESS_THAN);
+    List<List<FilterInfo>> ranges = partition(field, start == null ? lower : start, end == null ? upper : end, count);
+    if (ranges.size() <= 1) {
+      return Collections.singletonList(range);
+    }
+    // the outer ranges take the bounds of the divided range, which are open if it was open
+    ranges.set(0, span(range, ranges.get(0)));
+    ranges.set(ranges.size() - 1, span(ranges.get(ranges.size() - 1), range));
+    return ranges;
+  }
+
+  /**
+   * Returns the range from the start of the first range to the end of the last range.
+   *
+   * @param first the filters of the first range
+   * @param last the filters of the last range
+   * @return the filters of the range that covers both ranges and the ones in between
+   */
+  static List<FilterInfo> span(List<FilterInfo> first, List<FilterInfo> last) {
+    List<FilterInfo> range = new ArrayList<>(2);
+    first.stream().filter(f -> f.getOperator() == FilterOperator.GREATER_THAN_OR_EQUAL_TO).forEach(range::add);
+    last.stream().filter(f -> f.getOperator() == FilterOperator.LESS_THAN).forEach(range::add);
+    return range;
+  }
+
+  /**
+   * Returns the value of the filter of the range with the given operator, null if that side of the range is open.
+   */
+  @Nullable
+  static Object getBound(List<FilterInfo> range, FilterOperator operator) {
+    return range.stream().filter(f -> f.getOperator() == operator).map(FilterInfo::getValue).findFirst()
+      .orElse(null);
+  }
+
+  /**
+   * Returns the distinct values that divide the range between the bounds, in increasing order.
+   */
+  private static List<Object> getBoundaries(Object lower, Object upper, int count) {
+    List<Object> boundaries = new ArrayList<>();
+    if (lower instanceof Timestamp && upper instanceof Timestamp) {
+      long start = toMicros((Timestamp) lower);
+      long end = toMicros((Timestamp) upper);
+      for (long boundary : getLongBoundaries(start, end, count)) {
+        boundaries.add(Timestamp.ofTimeMicroseconds(boundary));
+      }
+    } else if (lower instanceof Long && upper instanceof Long) {
+      boundaries.addAll(getLongBoundaries((Long) lower, (Long) upper, count));
+    } else if (lower instanceof Number && upper instanceof Number) {
+      // Firestore orders integers and doubles together, mixed bounds are divided as doubles
+      double start = ((Number) lower).doubleValue();
+      double end = ((Number) upper).doubleValue();
+      double previous = start;
+      for (int i = 1; i < count && start < end; i++) {
+        double boundary = start + (end - start) * i / count;
+        if (boundary > previous && boundary < end) {
+          boundaries.add(boundary);
+          previous = boundary;
+        }
+      }
+    }
+    return boundaries;
+  }
+
+  private static List<Long> getLongBoundaries(long start, long end, int count) {
+    List<Long> boundaries = new ArrayList<>();
+    long previous = start;
+    for (int i = 1; i < count && start < end; i++) {
+      long boundary = getLongBoundary(start, end, i, count);
+      if (boundary > previous && boundary < end) {
+        boundaries.add(boundary);
+        previous = boundary;
+      }
+    }
+    return boundaries;
+  }
+
+  /**
+   * Returns the start of the given range of the ones of equal width between the bounds, which are ordered.
+   */
+  private static long getLongBoundary(long start, long end, int index, int count) {
+    long width;
+    try {
+      width = Math.subtractExact(end, start);
+    } catch (ArithmeticException e) {
+      // bounds of opposite signs can be more than Long.MAX_VALUE apart
+      return BigInteger.valueOf(end).subtract(BigInteger.valueOf(start)).multiply(BigInteger.valueOf(index))
+        .divide(BigInteger.valueOf(count)).add(BigInteger.valueOf(start)).longValueExact();
+    }
+    // the width is divided first so that multiplying it by the index doesn't overflow, the remainder is below count
+    return start + width / count * index + width % count * index / count;
+  }
+
+  private static long toMicros(Timestamp timestamp) {
+    return TimeUnit.SECONDS.toMicros(timestamp.getSeconds()) + TimeUnit.NANOSECONDS.toMicros(timestamp.getNanos());
+  }
+
+  private static Object parseUntypedBound(String value) {
+    try {
+      return Long.parseLong(value);
+    } catch (NumberFormatException e) {
+      // not a long
+    }
+    try {
+      return Double.parseDouble(value);
+    } catch (NumberFormatException e) {
+      // not a double
+    }
+    try {
+      return Timestamp.parseTimestamp(value);
+    } catch (DateTimeParseException e) {
+      return value;
+    }
+  }
+}
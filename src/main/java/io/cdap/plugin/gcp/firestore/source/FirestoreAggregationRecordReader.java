@@ -0,0 +1,206 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.AggregateField;
+import com.google.cloud.firestore.AggregateQuerySnapshot;
+import com.google.cloud.firestore.Filter;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.common.base.Strings;
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.plugin.gcp.firestore.source.util.AggregationInfo;
+import io.cdap.plugin.gcp.firestore.source.util.AggregationInfoParser;
+import io.cdap.plugin.gcp.firestore.source.util.FilterInfoParser;
+import io.cdap.plugin.gcp.firestore.source.util.FirestoreQueryBuilder;
+import io.cdap.plugin.gcp.firestore.source.util.FirestoreSourceConstants;
+import io.cdap.plugin.gcp.firestore.util.FirestoreConstants;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * {@link FirestoreAggregationRecordReader} computes aggregations of the documents matching the query with Firestore
+ * aggregation queries, which are answered from the indexes without reading the documents. One record is produced
+ * for the whole query, or for each value of the group by field. The queries of all groups are sent at once.
+ */
+public class FirestoreAggregationRecordReader extends RecordReader<Object, StructuredRecord> {
+  private static final Logger LOG = LoggerFactory.getLogger(FirestoreAggregationRecordReader.class);
+  private Firestore db;
+  private FirestoreReadExecutor executor;
+  private Schema schema;
+  private List<AggregationInfo> aggregations;
+  private List<AggregateField> aggregateFields;
+  private String groupField;
+  private List<Object> groupValues;
+  private List<ApiFuture<AggregateQuerySnapshot>> results;
+  private LongWritable key;
+  private StructuredRecord value;
+  private int resultIdx;
+
+  @Override
+  public void initialize(InputSplit inputSplit, TaskAttemptContext taskAttemptContext)
+    throws IOException, InterruptedException {
+    Configuration config = taskAttemptContext.getConfiguration();
+    String collection = Strings.nullToEmpty(config.get(FirestoreConstants.PROPERTY_COLLECTION)).trim();
+    schema = Schema.parseJson(config.get(FirestoreSourceConstants.PROPERTY_OUTPUT_SCHEMA));
+    groupField = Strings.emptyToNull(config.get(FirestoreSourceConstants.PROPERTY_GROUP_BY_FIELD));
+    try {
+      aggregations = AggregationInfoParser.parseAggregationString(
+        config.get(FirestoreSourceConstants.PROPERTY_AGGREGATIONS));
+      groupValues = FilterInfoParser.parseValues(config.get(FirestoreSourceConstants.PROPERTY_GROUP_BY_VALUES));
+    } catch (IllegalArgumentException e) {
+      throw new IOException("Failed to read the aggregations to compute.", e);
+    }
+
+    aggregateFields = new ArrayList<>();
+    for (AggregationInfo aggregation : aggregations) {
+      aggregateFields.add(toAggregateField(aggregation));
+    }
+
+    db = FirestoreInputFormat.getFirestore(config);
+    executor = FirestoreRecordReader.getReadExecutor(db, config);
+    Query query = FirestoreQueryBuilder.buildQuery(
+      db, collection, config.getBoolean(FirestoreSourceConstants.PROPERTY_COLLECTION_GROUP, false),
+      Collections.emptyList(), inputSplit, FirestoreRecordReader.getFilters(config), Collections.emptyList());
+    query = FirestoreQueryBuilder.applyOrdering(query, FirestoreRecordReader.getOrderBy(config),
+                                                FirestoreRecordReader.getStartAt(config),
+                                                config.getLong(FirestoreSourceConstants.PROPERTY_LIMIT, 0));
+
+    LOG.debug("Initialize AggregationRecordReader(collection={}, aggregations={}, groupField={}, groups={})",
+      collection, aggregations.size(), groupField, groupValues.size());
+
+    AggregateField first = aggregateFields.get(0);
+    AggregateField[] rest = aggregateFields.subList(1, aggregateFields.size()).toArray(new AggregateField[0]);
+    results = new ArrayList<>();
+    if (groupField == null) {
+      results.add(executor.get(query.aggregate(first, rest)));
+    } else {
+      for (Object groupValue : groupValues) {
+        results.add(executor.get(query.where(Filter.equalTo(groupField, groupValue)).aggregate(first, rest)));
+      }
+    }
+    resultIdx = 0;
+  }
+
+  @Override
+  public boolean nextKeyValue() throws IOException, InterruptedException {
+    if (resultIdx >= results.size()) {
+      return false;
+    }
+
+    AggregateQuerySnapshot snapshot;
+    try {
+      snapshot = results.get(resultIdx).get();
+    } catch (ExecutionException e) {
+      throw new IOException("Failed to compute aggregations in Firestore: " + e.getCause().getMessage(), e.getCause());
+    }
+
+    StructuredRecord.Builder builder = StructuredRecord.builder(schema);
+    if (groupField != null) {
+      setGroupValue(builder, groupValues.get(resultIdx));
+    }
+    for (int i = 0; i < aggregations.size(); i++) {
+      AggregationInfo aggregation = aggregations.get(i);
+      Number result = (Number) snapshot.get(aggregateFields.get(i));
+      switch (aggregation.getFunction()) {
+        case COUNT:
+          builder.set(aggregation.getAlias(), result == null ? 0L : result.longValue());
+          break;
+        default:
+          // integer sums are returned as longs, the output field is a double, exact up to 2^53
+          builder.set(aggregation.getAlias(), result == null ? null : result.doubleValue());
+          break;
+      }
+    }
+
+    key = new LongWritable(resultIdx);
+    value = builder.build();
+    resultIdx++;
+    return true;
+  }
+
+  @Override
+  public LongWritable getCurrentKey() {
+    return key;
+  }
+
+  @Override
+  public StructuredRecord getCurrentValue() {
+    return value;
+  }
+
+  @Override
+  public float getProgress() {
+    return results == null || results.isEmpty() ? 0 : (float) resultIdx / results.size();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (results != null) {
+      results.forEach(result -> result.cancel(true));
+    }
+    if (executor != null) {
+      executor.close();
+    }
+    if (db == null) {
+      return;
+    }
+    try {
+      db.close();
+    } catch (Exception e) {
+      throw new IOException(e.getMessage(), e);
+    }
+  }
+
+  private void setGroupValue(StructuredRecord.Builder builder, Object groupValue) {
+    if (groupValue instanceof Timestamp) {
+      Timestamp timestamp = (Timestamp) groupValue;
+      builder.setTimestamp(groupField, ZonedDateTime.ofInstant(
+        Instant.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos()), ZoneOffset.UTC));
+    } else {
+      builder.set(groupField, groupValue);
+    }
+  }
+
+  private static AggregateField toAggregateField(AggregationInfo aggregation) {
+    switch (aggregation.getFunction()) {
+      case SUM:
+        return AggregateField.sum(aggregation.getField());
+      case AVG:
+        return AggregateField.average(aggregation.getField());
+      default:
+        return AggregateField.count();
+    }
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import com.google.cloud.firestore.DocumentSnapshot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * Fetches the documents of a split in pages for {@link FirestoreRecordReader}.
+ */
+interface FirestoreDocumentFetcher extends Closeable {
+
+  /**
+   * Returns the next page of documents, blocking until it is available.
+   *
+   * @return the next page of documents, or null if all documents have been fetched
+   * @throws IOException if documents could not be fetched from Firestore
+   * @throws InterruptedException if interrupted while waiting for the page
+   */
+  @Nullable
+  List<? extends DocumentSnapshot> nextPage() throws IOException, InterruptedException;
+
+  /**
+   * Returns the documents fetched ahead that were not returned yet, in the order of the query. The fetcher keeps
+   * fetching, so more documents may follow them.
+   *
+   * @return the documents fetched ahead, empty if none are buffered
+   */
+  default List<? extends DocumentSnapshot> getBufferedDocuments() {
+    return Collections.emptyList();
+  }
+}
@@ -16,31 +16,348 @@
 
 package io.cdap.plugin.gcp.firestore.source;
 
-import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryPartition;
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import io.cdap.plugin.gcp.firestore.common.FirestoreConfig;
+import io.cdap.plugin.gcp.firestore.exception.FirestoreInitializationException;
+import io.cdap.plugin.gcp.firestore.source.util.FilterInfo;
+import io.cdap.plugin.gcp.firestore.source.util.FirestoreQueryBuilder;
+import io.cdap.plugin.gcp.firestore.source.util.FirestoreSourceConstants;
+import io.cdap.plugin.gcp.firestore.util.FirestoreConstants;
+import io.cdap.plugin.gcp.firestore.util.FirestoreUtil;
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.mapreduce.InputFormat;
 import org.apache.hadoop.mapreduce.InputSplit;
 import org.apache.hadoop.mapreduce.JobContext;
 import org.apache.hadoop.mapreduce.RecordReader;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import javax.annotation.Nullable;
 
 /**
  * Firestore input format.
  */
-public class FirestoreInputFormat extends InputFormat<Object, QueryDocumentSnapshot> {
+public class FirestoreInputFormat extends InputFormat<Object, DocumentSnapshot> {
+  private static final Logger LOG = LoggerFactory.getLogger(FirestoreInputFormat.class);
+  // Maximum number of document ids looked up by a single split.
+  private static final int MAX_LOOKUP_SPLIT_SIZE = 10000;
+
   @Override
   public List<InputSplit> getSplits(JobContext jobContext) throws IOException, InterruptedException {
-    return Collections.singletonList(new FirestoreInputSplit());
+    Configuration config = jobContext.getConfiguration();
+    int numSplits = config.getInt(FirestoreSourceConstants.PROPERTY_NUM_SPLITS,
+      FirestoreSourceConstants.DEFAULT_NUM_SPLITS);
+    Set<String> pullDocuments = parseDocumentIds(config.get(FirestoreSourceConstants.PROPERTY_PULL_DOCUMENTS));
+    if (!pullDocuments.isEmpty()) {
+      Set<String> skipDocuments = parseDocumentIds(config.get(FirestoreSourceConstants.PROPERTY_SKIP_DOCUMENTS));
+      return getLookupSplits(Sets.difference(pullDocuments, skipDocuments), numSplits);
+    }
+
+    // a global ordering or limit can only be honored by reading the whole result with a single query
+    boolean ordered = !Strings.isNullOrEmpty(config.get(FirestoreSourceConstants.PROPERTY_ORDER_BY))
+      || !Strings.isNullOrEmpty(config.get(FirestoreSourceConstants.PROPERTY_START_AT))
+      || config.getLong(FirestoreSourceConstants.PROPERTY_LIMIT, 0) > 0;
+    List<String> collections = parseCollections(config.get(FirestoreConstants.PROPERTY_COLLECTION));
+    boolean prefixed = collections.stream().anyMatch(c -> c.endsWith(FirestoreSourceConstants.COLLECTION_WILDCARD));
+    // sizing splits by their number of documents may split a collection even if a single split is requested
+    long targetDocuments = config.getLong(FirestoreSourceConstants.PROPERTY_TARGET_DOCUMENTS_PER_SPLIT, 0);
+    boolean single = (numSplits <= 1 && targetDocuments <= 0) || ordered;
+    if (single && !prefixed) {
+      return getCollectionSplits(collections);
+    }
+
+    boolean collectionGroup = config.getBoolean(FirestoreSourceConstants.PROPERTY_COLLECTION_GROUP, false);
+    Firestore db = getFirestore(config);
+    try {
+      collections = resolveCollections(db, collections);
+      if (single) {
+        return getCollectionSplits(collections);
+      }
+      List<FilterInfo> filters = FirestoreRecordReader.getFilters(config);
+      AdaptiveSplitSizer sizer = targetDocuments > 0
+        ? new AdaptiveSplitSizer(db, collectionGroup, filters, targetDocuments) : null;
+      List<Integer> candidateCounts = getCandidateCounts(sizer, collections, numSplits);
+      String splitField = Strings.emptyToNull(config.get(FirestoreSourceConstants.PROPERTY_SPLIT_FIELD));
+      List<InputSplit> splits = splitField == null
+        ? getPartitionSplits(db, collections, collectionGroup, candidateCounts, sizer)
+        : getFieldRangeSplits(db, collections, collectionGroup, splitField, config, filters, candidateCounts, sizer);
+      LOG.debug("Collections {} are split into {} splits, {} splits requested for each", collections, splits.size(),
+        numSplits);
+      return splits;
+    } finally {
+      try {
+        db.close();
+      } catch (Exception e) {
+        LOG.warn("Failed to close Firestore client", e);
+      }
+    }
   }
 
   @Override
-  public RecordReader<Object, QueryDocumentSnapshot> createRecordReader(InputSplit inputSplit,
-                                                                        TaskAttemptContext taskAttemptContext)
+  public RecordReader<Object, DocumentSnapshot> createRecordReader(InputSplit inputSplit,
+                                                                   TaskAttemptContext taskAttemptContext)
     throws IOException, InterruptedException {
     return new FirestoreRecordReader();
   }
 
+  /**
+   * Spreads the document ids to pull across splits, so that they are looked up directly instead of scanning the
+   * collection. The list is divided into at least the requested number of splits, each with a bounded number of ids.
+   */
+  private List<InputSplit> getLookupSplits(Set<String> pullDocuments, int numSplits) {
+    if (pullDocuments.isEmpty()) {
+      // every document to pull is skipped
+      return Collections.emptyList();
+    }
+    List<String> documentIds = new ArrayList<>(pullDocuments);
+    int minSplits = (documentIds.size() + MAX_LOOKUP_SPLIT_SIZE - 1) / MAX_LOOKUP_SPLIT_SIZE;
+    int splitCount = Math.min(documentIds.size(), Math.max(numSplits, minSplits));
+    int splitSize = (documentIds.size() + splitCount - 1) / splitCount;
+
+    List<InputSplit> splits = new ArrayList<>(splitCount);
+    for (int start = 0; start < documentIds.size(); start += splitSize) {
+      int end = Math.min(start + splitSize, documentIds.size());
+      splits.add(new FirestoreInputSplit(new ArrayList<>(documentIds.subList(start, end))));
+    }
+    LOG.debug("{} documents to pull are split into {} splits", documentIds.size(), splits.size());
+    return splits;
+  }
+
+  /**
+   * Returns a split that reads the whole collection for every given collection.
+   */
+  private List<InputSplit> getCollectionSplits(List<String> collections) {
+    List<InputSplit> splits = new ArrayList<>(collections.size());
+    for (String collection : collections) {
+      splits.add(new FirestoreInputSplit(collection, null, null));
+    }
+    return splits;
+  }
+
+  /**
+   * Returns the number of candidate ranges every collection is divided into. Without a target number of documents
+   * per split, this is the requested number of splits. Otherwise the collections are counted and divided into
+   * enough ranges to be sized evenly, but never fewer than requested.
+   */
+  private List<Integer> getCandidateCounts(@Nullable AdaptiveSplitSizer sizer, List<String> collections,
+                                           int numSplits) throws IOException, InterruptedException {
+    if (sizer == null) {
+      return Collections.nCopies(collections.size(), numSplits);
+    }
+    List<Long> documents = sizer.countCollections(collections);
+    List<Integer> candidateCounts = new ArrayList<>(collections.size());
+    for (int i = 0; i < collections.size(); i++) {
+      int candidates = sizer.getSplitCount(documents.get(i)) * AdaptiveSplitSizer.OVERSAMPLING;
+      candidateCounts.add(Math.min(AdaptiveSplitSizer.MAX_CANDIDATES, Math.max(numSplits, candidates)));
+      LOG.debug("Collection '{}' holds {} documents, dividing it into {} candidate ranges", collections.get(i),
+                documents.get(i), candidateCounts.get(i));
+    }
+    return candidateCounts;
+  }
+
+  /**
+   * Asks Firestore for partition cursors of the given collections and turns every cursor range into a split.
+   * The partitions of all collections are requested at once, so that many collections are split in the time
+   * it takes to split the largest one. With a sizer, neighbouring ranges are merged by their number of documents.
+   */
+  private List<InputSplit> getPartitionSplits(Firestore db, List<String> collections, boolean collectionGroup,
+                                              List<Integer> partitionCounts, @Nullable AdaptiveSplitSizer sizer)
+    throws IOException, InterruptedException {
+    List<ApiFuture<List<QueryPartition>>> pendingPartitions = new ArrayList<>(collections.size());
+    for (int i = 0; i < collections.size(); i++) {
+      pendingPartitions.add(PartitionBoundaries.request(db, collections.get(i), partitionCounts.get(i)));
+    }
+
+    List<InputSplit> splits = new ArrayList<>();
+    try {
+      for (int i = 0; i < collections.size(); i++) {
+        String collection = collections.get(i);
+        int partitionCount = partitionCounts.get(i);
+        // the partitions of a collection group span all parents, so they are never dropped
+        List<String> boundaries = PartitionBoundaries.get(
+          db, collection, pendingPartitions.get(i), partitionCount, partitionCount - 1,
+          boundary -> collectionGroup || collection.equals(boundary.getParent().getPath()));
+        if (boundaries.size() < (partitionCount - 1) / 2) {
+          LOG.warn("Collection '{}' could only be divided into {} of the {} splits requested, as most documents "
+                     + "with its collection id belong to other collections. Set a Split Field to divide it evenly.",
+                   collection, boundaries.size() + 1, partitionCount);
+        }
+        List<FirestoreInputSplit> collectionSplits = getPartitionSplits(collection, boundaries);
+        splits.addAll(sizer == null ? collectionSplits : sizer.sizeCursorRanges(collectionSplits));
+      }
+    } finally {
+      pendingPartitions.forEach(partition -> partition.cancel(true));
+    }
+    return splits;
+  }
+
+  /**
+   * Divides the values of the split field of every collection into ranges of equal width and turns every range
+   * into a split. Bounds that are not configured are discovered by querying the lowest and highest value of the
+   * field among the documents matching the filters. With a sizer, ranges are divided and merged by their number
+   * of documents.
+   */
+  private List<InputSplit> getFieldRangeSplits(Firestore db, List<String> collections, boolean collectionGroup,
+                                               String splitField, Configuration config, List<FilterInfo> filters,
+                                               List<Integer> rangeCounts, @Nullable AdaptiveSplitSizer sizer)
+    throws IOException, InterruptedException {
+    Object configuredLower;
+    Object configuredUpper;
+    try {
+      configuredLower = FieldRangePartitioner.parseBound(
+        config.get(FirestoreSourceConstants.PROPERTY_SPLIT_LOWER_BOUND));
+      configuredUpper = FieldRangePartitioner.parseBound(
+        config.get(FirestoreSourceConstants.PROPERTY_SPLIT_UPPER_BOUND));
+    } catch (IllegalArgumentException e) {
+      throw new IOException("Failed to read the bounds of the split field.", e);
+    }
+
+    List<InputSplit> splits = new ArrayList<>();
+    for (int i = 0; i < collections.size(); i++) {
+      String collection = collections.get(i);
+      Object lower = configuredLower;
+      Object upper = configuredUpper;
+      if (lower == null || upper == null) {
+        Query query = FirestoreQueryBuilder.buildQuery(db, collection, collectionGroup,
+                                                       Collections.singletonList(splitField), null, filters,
+                                                       Collections.emptyList());
+        if (lower == null) {
+          lower = FieldRangePartitioner.discoverBound(query, splitField, Query.Direction.ASCENDING);
+        }
+        if (upper == null) {
+          upper = FieldRangePartitioner.discoverBound(query, splitField, Query.Direction.DESCENDING);
+        }
+      }
+      if (lower == null || upper == null) {
+        LOG.debug("No document of collection '{}' has split field '{}', reading it as a single split", collection,
+                  splitField);
+        splits.add(new FirestoreInputSplit(collection, Collections.emptyList()));
+        continue;
+      }
+
+      List<List<FilterInfo>> ranges = FieldRangePartitioner.partition(splitField, lower, upper, rangeCounts.get(i));
+      LOG.debug("Collection '{}' is split by '{}' in [{}, {}] into {} ranges", collection, splitField, lower, upper,
+                ranges.size());
+      if (sizer != null) {
+        splits.addAll(sizer.sizeFieldRanges(collection, splitField, lower, upper, ranges));
+        continue;
+      }
+      for (List<FilterInfo> range : ranges) {
+        splits.add(new FirestoreInputSplit(collection, range));
+      }
+    }
+    return splits;
+  }
+
+  /**
+   * Turns the partition cursors of a collection into splits.
+   */
+  private List<FirestoreInputSplit> getPartitionSplits(String collection, List<String> boundaries) {
+    List<FirestoreInputSplit> splits = new ArrayList<>(boundaries.size() + 1);
+    String startAt = null;
+    for (String boundary : boundaries) {
+      splits.add(new FirestoreInputSplit(collection, startAt, boundary));
+      startAt = boundary;
+    }
+    splits.add(new FirestoreInputSplit(collection, startAt, null));
+    return splits;
+  }
+
+  /**
+   * Parses a comma-separated list of collections, where a collection ending with
+   * {@link FirestoreSourceConstants#COLLECTION_WILDCARD} stands for all collections starting with it.
+   *
+   * @param collections the comma-separated list of collections
+   * @return the list of collections in the order they are listed
+   */
+  static List<String> parseCollections(@Nullable String collections) {
+    return ImmutableSet.copyOf(Splitter.on(',').trimResults().omitEmptyStrings()
+                                 .split(Strings.nullToEmpty(collections))).asList();
+  }
+
+  /**
+   * Replaces every collection prefix with the collections that start with it. Collections of a prefix are listed
+   * under the document the prefix is nested in, or at the root of the database.
+   *
+   * @param db the Firestore service
+   * @param collections the collections and collection prefixes
+   * @return the collections, without duplicates
+   */
+  static List<String> resolveCollections(Firestore db, List<String> collections) {
+    Set<String> resolved = new LinkedHashSet<>();
+    for (String collection : collections) {
+      if (!collection.endsWith(FirestoreSourceConstants.COLLECTION_WILDCARD)) {
+        resolved.add(collection);
+        continue;
+      }
+      String prefix = collection.substring(0, collection.length() - 1);
+      int parentEnd = prefix.lastIndexOf('/');
+      Iterable<CollectionReference> candidates = parentEnd < 0
+        ? db.listCollections() : db.document(prefix.substring(0, parentEnd)).listCollections();
+      List<String> matches = new ArrayList<>();
+      for (CollectionReference candidate : candidates) {
+        if (candidate.getPath().startsWith(prefix)) {
+          matches.add(candidate.getPath());
+        }
+      }
+      LOG.debug("Collection prefix '{}' matches collections {}", collection, matches);
+      resolved.addAll(matches);
+    }
+    return new ArrayList<>(resolved);
+  }
+
+  /**
+   * Parses a comma-separated list of document ids.
+   *
+   * @param documentIds the comma-separated list of document ids
+   * @return the set of document ids in the order they are listed
+   */
+  static Set<String> parseDocumentIds(@Nullable String documentIds) {
+    return ImmutableSet.copyOf(Splitter.on(',').trimResults().omitEmptyStrings()
+                                 .split(Strings.nullToEmpty(documentIds)));
+  }
+
+  /**
+   * Connects to Firestore using the connection properties stored in the job configuration.
+   *
+   * @param config the job configuration
+   * @return Firestore service
+   */
+  static Firestore getFirestore(Configuration config) {
+    String projectId = config.get(FirestoreConfig.NAME_PROJECT);
+    String databaseId = config.get(FirestoreConfig.NAME_DATABASE);
+
+    // Get Service Account whether JSON or FilePath
+    String serviceAccountType = config.get(FirestoreConfig.NAME_SERVICE_ACCOUNT_TYPE);
+
+    String serviceAccount;
+    boolean isServiceAccountFilePath;
+    if (serviceAccountType.equalsIgnoreCase(FirestoreConfig.SERVICE_ACCOUNT_FILE_PATH)) {
+      serviceAccount = config.get(FirestoreConfig.NAME_SERVICE_ACCOUNT_FILE_PATH);
+      isServiceAccountFilePath = true;
+    } else if (serviceAccountType.equalsIgnoreCase(FirestoreConfig.SERVICE_ACCOUNT_JSON)) {
+      serviceAccount = config.get(FirestoreConfig.NAME_SERVICE_ACCOUNT_JSON);
+      isServiceAccountFilePath = false;
+    } else {
+      throw new FirestoreInitializationException("Service account type can only be either a File Path or JSON.");
+    }
+
+    return FirestoreUtil.getFirestore(serviceAccount, isServiceAccountFilePath, projectId, databaseId);
+  }
 }
@@ -16,12 +16,18 @@
 
 package io.cdap.plugin.gcp.firestore.source;
 
+import com.google.cloud.Timestamp;
 import com.google.common.base.Joiner;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableMap;
 import io.cdap.cdap.api.data.batch.InputFormatProvider;
+import io.cdap.cdap.api.data.schema.Schema;
 import io.cdap.plugin.gcp.firestore.common.FirestoreConfig;
+import io.cdap.plugin.gcp.firestore.source.util.FilterInfo;
+import io.cdap.plugin.gcp.firestore.source.util.FilterInfoCodec;
 import io.cdap.plugin.gcp.firestore.source.util.FirestoreSourceConstants;
+import io.cdap.plugin.gcp.firestore.source.util.SourceQueryMode;
+import io.cdap.plugin.gcp.firestore.source.util.SourceReadMode;
 import io.cdap.plugin.gcp.firestore.util.FirestoreConstants;
 
 import java.util.List;
@@ -34,48 +40,91 @@ import javax.annotation.Nullable;
  */
 public class FirestoreInputFormatProvider implements InputFormatProvider {
 
+  private final String inputFormatClassName;
   private final Map<String, String> configMap;
 
   /**
    * Constructor for FirestoreInputFormatProvider object.
-   * @param project the project of Firestore DB
-   * @param databaseName Name of the Firestore database
-   * @param serviceAccountFilePath the service account path of Firestore DB
-   * @param serviceAccountJson JSON content of the service account credentials
-   * @param serviceAccountType The type of the Service account if it is stored in a filePath or JSON
-   * @param collection the collection
-   * @param mode there are two modes (basic and advanced)
-   * @param pullDocuments the list of documents to pull
-   * @param skipDocuments the list of documents to skip
-   * @param filters the filter for given field as well as value
+   * @param config the source configuration, with macros evaluated
+   * @param schema the schema of the records output by the source
    * @param fields the fields of collection
+   * @param filters the filters parsed from the source configuration
+   * @param readTime the time all readers read the documents at, null to read the latest documents
    */
-  public FirestoreInputFormatProvider(
-      String project, String databaseName, @Nullable String serviceAccountFilePath, @Nullable String serviceAccountJson,
-      String serviceAccountType, String collection, String mode,
-      String pullDocuments, String skipDocuments, String filters, List<String> fields) {
+  public FirestoreInputFormatProvider(FirestoreSourceConfig config, Schema schema, List<String> fields,
+                                      List<FilterInfo> filters, @Nullable Timestamp readTime) {
+    String serviceAccountFilePath = config.getServiceAccountFilePath();
+    String serviceAccountJson = config.getServiceAccountJson();
+    String collection = config.getCollection();
+    String pullDocuments = config.getPullDocuments();
+    String skipDocuments = config.getSkipDocuments();
+    String orderBy = config.getOrderBy();
+    String startAt = config.getStartAt();
+    String aggregations = config.getAggregations();
+    String groupByField = config.getGroupByField();
+    String groupByValues = config.getGroupByValues();
+    String splitField = config.getSplitField();
+    String splitLowerBound = config.getSplitLowerBound();
+    String splitUpperBound = config.getSplitUpperBound();
+
     ImmutableMap.Builder<String, String> builder = new ImmutableMap.Builder<String, String>()
-      .put(FirestoreConfig.NAME_PROJECT, project)
-      .put(FirestoreConfig.NAME_DATABASE, databaseName)
-      .put(FirestoreConfig.NAME_SERVICE_ACCOUNT_TYPE, serviceAccountType)
+      .put(FirestoreConfig.NAME_PROJECT, config.getProject())
+      .put(FirestoreConfig.NAME_DATABASE, config.getDatabaseName())
+      .put(FirestoreConfig.NAME_SERVICE_ACCOUNT_TYPE, config.getServiceAccountType())
       .put(FirestoreConstants.PROPERTY_COLLECTION, Strings.isNullOrEmpty(collection) ? "" : collection)
-      .put(FirestoreSourceConstants.PROPERTY_QUERY_MODE, mode)
+      .put(FirestoreSourceConstants.PROPERTY_COLLECTION_GROUP, Boolean.toString(config.isCollectionGroup()))
+      .put(FirestoreSourceConstants.PROPERTY_QUERY_MODE, config.getQueryMode().getValue())
       .put(FirestoreSourceConstants.PROPERTY_PULL_DOCUMENTS, Strings.isNullOrEmpty(pullDocuments) ? "" : pullDocuments)
       .put(FirestoreSourceConstants.PROPERTY_SKIP_DOCUMENTS, Strings.isNullOrEmpty(skipDocuments) ? "" : skipDocuments)
-      .put(FirestoreSourceConstants.PROPERTY_CUSTOM_QUERY, Strings.isNullOrEmpty(filters) ? "" : filters)
-      .put(FirestoreSourceConstants.PROPERTY_SCHEMA, Joiner.on(",").join(fields));
+      .put(FirestoreSourceConstants.PROPERTY_FILTER_PLAN, FilterInfoCodec.encode(filters))
+      .put(FirestoreSourceConstants.PROPERTY_ORDER_BY, Strings.isNullOrEmpty(orderBy) ? "" : orderBy)
+      .put(FirestoreSourceConstants.PROPERTY_START_AT, Strings.isNullOrEmpty(startAt) ? "" : startAt)
+      .put(FirestoreSourceConstants.PROPERTY_LIMIT, Long.toString(config.getLimit()))
+      .put(FirestoreSourceConstants.PROPERTY_AGGREGATIONS, Strings.isNullOrEmpty(aggregations) ? "" : aggregations)
+      .put(FirestoreSourceConstants.PROPERTY_GROUP_BY_FIELD, Strings.isNullOrEmpty(groupByField) ? "" : groupByField)
+      .put(FirestoreSourceConstants.PROPERTY_GROUP_BY_VALUES,
+           Strings.isNullOrEmpty(groupByValues) ? "" : groupByValues)
+      .put(FirestoreSourceConstants.PROPERTY_OUTPUT_SCHEMA, schema.toString())
+      .put(FirestoreSourceConstants.PROPERTY_SCHEMA, Joiner.on(",").join(fields))
+      .put(FirestoreSourceConstants.PROPERTY_NUM_SPLITS, Integer.toString(config.getNumSplits()))
+      .put(FirestoreSourceConstants.PROPERTY_SPLIT_FIELD, Strings.isNullOrEmpty(splitField) ? "" : splitField)
+      .put(FirestoreSourceConstants.PROPERTY_SPLIT_LOWER_BOUND,
+           Strings.isNullOrEmpty(splitLowerBound) ? "" : splitLowerBound)
+      .put(FirestoreSourceConstants.PROPERTY_SPLIT_UPPER_BOUND,
+           Strings.isNullOrEmpty(splitUpperBound) ? "" : splitUpperBound)
+      .put(FirestoreSourceConstants.PROPERTY_TARGET_DOCUMENTS_PER_SPLIT,
+           Long.toString(config.getTargetDocumentsPerSplit()))
+      .put(FirestoreSourceConstants.PROPERTY_STRAGGLER_PARALLELISM, Integer.toString(config.getStragglerParallelism()))
+      .put(FirestoreSourceConstants.PROPERTY_STRAGGLER_TIMEOUT, Integer.toString(config.getStragglerTimeout()))
+      .put(FirestoreSourceConstants.PROPERTY_PAGE_SIZE, Integer.toString(config.getPageSize()))
+      .put(FirestoreSourceConstants.PROPERTY_READ_MODE, config.getReadMode().getValue())
+      .put(FirestoreSourceConstants.PROPERTY_PREFETCH_DEPTH, Integer.toString(config.getPrefetchDepth()))
+      .put(FirestoreSourceConstants.PROPERTY_PREFETCH_BUFFER_SIZE, Integer.toString(config.getPrefetchBufferSize()))
+      .put(FirestoreSourceConstants.PROPERTY_TRAVERSAL_DEPTH, Integer.toString(config.getTraversalDepth()))
+      .put(FirestoreSourceConstants.PROPERTY_TRAVERSAL_CONCURRENCY,
+           Integer.toString(config.getTraversalConcurrency()));
     if (Objects.nonNull(serviceAccountFilePath)) {
       builder.put(FirestoreConfig.NAME_SERVICE_ACCOUNT_FILE_PATH, serviceAccountFilePath);
     }
+    if (Objects.nonNull(readTime)) {
+      builder.put(FirestoreSourceConstants.PROPERTY_READ_TIME, readTime.toString());
+    }
     if (Objects.nonNull(serviceAccountJson)) {
       builder.put(FirestoreConfig.NAME_SERVICE_ACCOUNT_JSON, serviceAccountJson);
     }
     this.configMap = builder.build();
+    if (config.getQueryMode() == SourceQueryMode.AGGREGATION) {
+      this.inputFormatClassName = FirestoreAggregationInputFormat.class.getName();
+    } else if (config.getReadMode() == SourceReadMode.RAW) {
+      this.inputFormatClassName = FirestoreRawInputFormat.class.getName();
+    } else {
+      this.inputFormatClassName = FirestoreInputFormat.class.getName();
+    }
   }
 
   @Override
   public String getInputFormatClassName() {
-    return FirestoreInputFormat.class.getName();
+    return inputFormatClassName;
   }
 
   @Override
@@ -16,55 +16,169 @@
 
 package io.cdap.plugin.gcp.firestore.source;
 
+import io.cdap.plugin.gcp.firestore.source.util.FilterInfo;
+import io.cdap.plugin.gcp.firestore.source.util.FilterInfoCodec;
 import org.apache.hadoop.io.Writable;
 import org.apache.hadoop.mapreduce.InputSplit;
 
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nullable;
 
 /**
- * Firestore input split.
+ * Firestore input split that covers a range of documents ordered by document name. The range is bounded by
+ * document name cursors, so a reader seeks directly to the start of its range instead of skipping documents.
+ * Alternatively, a split covers an explicit list of document ids that are looked up directly.
+ * A split may name the collection it reads, when the source reads several collections, and may be bounded by
+ * filters on a field instead of document names.
  */
 public class FirestoreInputSplit extends InputSplit implements Writable {
-  private long start = 0L;
-  private long end = 0L;
+  // Collection the split reads, null means the collection of the source configuration.
+  private String collection;
+  // Paths of the documents that bound the split, null means the range is unbounded on that side.
+  private String startAt;
+  private String endBefore;
+  // Ids of the documents to look up, empty if the split covers a range of documents.
+  private List<String> documentIds = Collections.emptyList();
+  // Filters on the split field that bound the split, empty if the split is not bounded by a field range.
+  private List<FilterInfo> rangeFilters = Collections.emptyList();
+  // Estimated number of documents in the split, negative if unknown.
+  private long estimatedDocuments = -1;
 
   public FirestoreInputSplit() {
   }
 
-  public FirestoreInputSplit(long start, long end) {
-    this.start = start;
-    this.end = end;
+  /**
+   * Constructor for a split that covers the documents in range [startAt, endBefore) ordered by document name.
+   *
+   * @param startAt path of the first document in the split, null to read from the beginning of the collection
+   * @param endBefore path of the document that starts the next split, null to read to the end of the collection
+   */
+  public FirestoreInputSplit(@Nullable String startAt, @Nullable String endBefore) {
+    this(null, startAt, endBefore);
   }
 
-  public long getStart() {
-    return start;
+  /**
+   * Constructor for a split that covers the documents of the given collection in range [startAt, endBefore)
+   * ordered by document name.
+   *
+   * @param collection the collection to read, null to read the collection of the source configuration
+   * @param startAt path of the first document in the split, null to read from the beginning of the collection
+   * @param endBefore path of the document that starts the next split, null to read to the end of the collection
+   */
+  public FirestoreInputSplit(@Nullable String collection, @Nullable String startAt, @Nullable String endBefore) {
+    this.collection = collection;
+    this.startAt = startAt;
+    this.endBefore = endBefore;
   }
 
-  public long getEnd() {
-    return end;
+  /**
+   * Constructor for a split that covers the documents of the given collection that match the given filters.
+   *
+   * @param collection the collection to read, null to read the collection of the source configuration
+   * @param rangeFilters the filters on the split field that bound the split
+   */
+  public FirestoreInputSplit(@Nullable String collection, List<FilterInfo> rangeFilters) {
+    this.collection = collection;
+    this.rangeFilters = rangeFilters;
+  }
+
+  /**
+   * Constructor for a split that covers the documents with the given ids.
+   *
+   * @param documentIds ids of the documents to look up
+   */
+  public FirestoreInputSplit(List<String> documentIds) {
+    this.documentIds = documentIds;
+  }
+
+  @Nullable
+  public String getCollection() {
+    return collection;
+  }
+
+  @Nullable
+  public String getStartAt() {
+    return startAt;
+  }
+
+  @Nullable
+  public String getEndBefore() {
+    return endBefore;
+  }
+
+  public List<String> getDocumentIds() {
+    return documentIds;
+  }
+
+  public List<FilterInfo> getRangeFilters() {
+    return rangeFilters;
+  }
+
+  public long getEstimatedDocuments() {
+    return estimatedDocuments;
+  }
+
+  void setEstimatedDocuments(long estimatedDocuments) {
+    this.estimatedDocuments = estimatedDocuments;
   }
 
   @Override
   public void write(DataOutput dataOutput) throws IOException {
-    dataOutput.writeLong(this.start);
-    dataOutput.writeLong(this.end);
+    writeNullableString(dataOutput, collection);
+    writeNullableString(dataOutput, startAt);
+    writeNullableString(dataOutput, endBefore);
+    dataOutput.writeInt(documentIds.size());
+    for (String documentId : documentIds) {
+      dataOutput.writeUTF(documentId);
+    }
+    writeNullableString(dataOutput, rangeFilters.isEmpty() ? null : FilterInfoCodec.encode(rangeFilters));
+    dataOutput.writeLong(estimatedDocuments);
   }
 
   @Override
   public void readFields(DataInput dataInput) throws IOException {
-    this.start = dataInput.readLong();
-    this.end = dataInput.readLong();
+    this.collection = readNullableString(dataInput);
+    this.startAt = readNullableString(dataInput);
+    this.endBefore = readNullableString(dataInput);
+    int documentCount = dataInput.readInt();
+    List<String> ids = new ArrayList<>(documentCount);
+    for (int i = 0; i < documentCount; i++) {
+      ids.add(dataInput.readUTF());
+    }
+    this.documentIds = ids;
+    try {
+      this.rangeFilters = FilterInfoCodec.decode(readNullableString(dataInput));
+    } catch (IllegalArgumentException e) {
+      throw new IOException("Failed to read the range of the split.", e);
+    }
+    this.estimatedDocuments = dataInput.readLong();
   }
 
   @Override
   public long getLength() throws IOException, InterruptedException {
-    return this.end - this.start;
+    // the number of documents in a range is only known if it was counted when the splits were computed
+    return estimatedDocuments >= 0 ? estimatedDocuments : documentIds.size();
   }
 
   @Override
   public String[] getLocations() throws IOException, InterruptedException {
     return new String[0];
   }
+
+  private static void writeNullableString(DataOutput dataOutput, @Nullable String value) throws IOException {
+    dataOutput.writeBoolean(value != null);
+    if (value != null) {
+      dataOutput.writeUTF(value);
+    }
+  }
+
+  @Nullable
+  private static String readNullableString(DataInput dataInput) throws IOException {
+    return dataInput.readBoolean() ? dataInput.readUTF() : null;
+  }
 }
@@ -0,0 +1,45 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import com.google.firestore.v1.Document;
+import org.apache.hadoop.mapreduce.InputFormat;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.JobContext;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Firestore input format for the raw read mode. The collections are split the same way as by
+ * {@link FirestoreInputFormat}, but documents are read as the protocol buffer messages received from Firestore.
+ */
+public class FirestoreRawInputFormat extends InputFormat<Object, Document> {
+
+  @Override
+  public List<InputSplit> getSplits(JobContext jobContext) throws IOException, InterruptedException {
+    return new FirestoreInputFormat().getSplits(jobContext);
+  }
+
+  @Override
+  public RecordReader<Object, Document> createRecordReader(InputSplit inputSplit,
+                                                           TaskAttemptContext taskAttemptContext) {
+    return new FirestoreRawRecordReader();
+  }
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.gax.rpc.FixedHeaderProvider;
+import com.google.api.gax.rpc.ServerStream;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.FirestoreOptions;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.v1.FirestoreClient;
+import com.google.cloud.firestore.v1.FirestoreSettings;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.google.firestore.v1.Document;
+import com.google.firestore.v1.RunAggregationQueryRequest;
+import com.google.firestore.v1.RunAggregationQueryResponse;
+import com.google.firestore.v1.RunQueryRequest;
+import com.google.firestore.v1.RunQueryResponse;
+import io.cdap.plugin.gcp.firestore.source.util.FilterInfo;
+import io.cdap.plugin.gcp.firestore.source.util.FirestoreQueryBuilder;
+import io.cdap.plugin.gcp.firestore.source.util.FirestoreSourceConstants;
+import io.cdap.plugin.gcp.firestore.source.util.OrderByInfo;
+import io.cdap.plugin.gcp.firestore.util.FirestoreConstants;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.mapreduce.Counter;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+
+/**
+ * {@link FirestoreRawRecordReader} reads the data from Firestore in the raw read mode. The query of the split is sent
+ * with the low-level Firestore client and documents are handed over as the {@link Document} messages of the
+ * responses, so that they are converted into records by {@link DocumentToRecordTransformer} without building
+ * document snapshots and their maps of values first. Responses are streamed with flow control, so the server is
+ * paused until the task catches up. The query, and the count of its documents used for progress, run at the read
+ * time of the run if one is set, without a transaction held open.
+ * Unlike {@link FirestoreRecordReader}, the tail of a slow split is never divided.
+ */
+public class FirestoreRawRecordReader extends RecordReader<Object, Document> {
+  private static final Logger LOG = LoggerFactory.getLogger(FirestoreRawRecordReader.class);
+  // Header the regular client sends to route requests to the database.
+  private static final String RESOURCE_PREFIX_HEADER = "google-cloud-resource-prefix";
+  private static final int DEFAULT_PORT = 443;
+  private Firestore db;
+  private FirestoreClient client;
+  private ServerStream<RunQueryResponse> stream;
+  private Iterator<RunQueryResponse> responses;
+  // Skipped documents that are not already excluded by the query.
+  private Set<String> skipDocuments;
+  // Map key that represents the item index.
+  private LongWritable key;
+  // Map value that represents an item.
+  private Document value;
+  private long itemIdx;
+  // Documents fetched from Firestore, including the skipped ones.
+  private long fetchedDocuments;
+  // Expected number of documents of the split, negative until known.
+  private long expectedDocuments;
+  // Count of the documents of the split, null if the split is not counted or the count is done.
+  private ApiFuture<RunAggregationQueryResponse> pendingCount;
+  private boolean finished;
+  private Counter documentsRead;
+  private Counter documentsSkipped;
+
+  @Override
+  public void initialize(InputSplit inputSplit, TaskAttemptContext taskAttemptContext)
+    throws IOException, InterruptedException {
+    Configuration config = taskAttemptContext.getConfiguration();
+    String collection = inputSplit instanceof FirestoreInputSplit
+      && ((FirestoreInputSplit) inputSplit).getCollection() != null
+      ? ((FirestoreInputSplit) inputSplit).getCollection()
+      : Strings.nullToEmpty(config.get(FirestoreConstants.PROPERTY_COLLECTION)).trim();
+    boolean collectionGroup = config.getBoolean(FirestoreSourceConstants.PROPERTY_COLLECTION_GROUP, false);
+    List<String> fields = Splitter.on(',').trimResults().omitEmptyStrings()
+      .splitToList(config.get(FirestoreSourceConstants.PROPERTY_SCHEMA, ""));
+    skipDocuments = FirestoreInputFormat.parseDocumentIds(
+      config.get(FirestoreSourceConstants.PROPERTY_SKIP_DOCUMENTS));
+
+    db = FirestoreInputFormat.getFirestore(config);
+    documentsRead = taskAttemptContext.getCounter(FirestoreSourceCounter.DOCUMENTS_READ);
+    documentsSkipped = taskAttemptContext.getCounter(FirestoreSourceCounter.DOCUMENTS_SKIPPED);
+    expectedDocuments = -1;
+
+    List<FilterInfo> filters = new ArrayList<>(FirestoreRecordReader.getFilters(config));
+    if (inputSplit instanceof FirestoreInputSplit) {
+      // documents of a field range split are bounded by filters on the split field
+      filters.addAll(((FirestoreInputSplit) inputSplit).getRangeFilters());
+    }
+    List<OrderByInfo> orderBy = FirestoreRecordReader.getOrderBy(config);
+    long limit = config.getLong(FirestoreSourceConstants.PROPERTY_LIMIT, 0);
+    List<String> excludedDocuments = Collections.emptyList();
+    if (orderBy.isEmpty() && !collectionGroup && FirestoreRecordReader.canExcludeOnServer(filters)) {
+      // the server accepts a limited number of values in a 'not-in' filter, the rest is skipped client side
+      excludedDocuments = skipDocuments.stream()
+        .limit(FirestoreSourceConstants.MAX_NOT_IN_VALUES)
+        .collect(Collectors.toList());
+      skipDocuments = ImmutableSet.copyOf(Sets.difference(skipDocuments, ImmutableSet.copyOf(excludedDocuments)));
+    }
+    // the whole result is read by a single query, so no cursors are built and the projection is the schema alone
+    Query query = FirestoreQueryBuilder.buildQuery(db, collection, collectionGroup, fields, inputSplit, filters,
+                                                   excludedDocuments);
+    query = FirestoreQueryBuilder.applyOrdering(query, orderBy, FirestoreRecordReader.getStartAt(config), limit);
+    com.google.protobuf.Timestamp readTime = getReadTime(config);
+    LOG.debug("Initialize RawRecordReader(collection={}, fields={}, readTime={})", collection, fields.size(),
+              config.get(FirestoreSourceConstants.PROPERTY_READ_TIME));
+    client = createClient(db);
+
+    long estimatedDocuments = inputSplit instanceof FirestoreInputSplit
+      ? ((FirestoreInputSplit) inputSplit).getEstimatedDocuments() : -1;
+    if (estimatedDocuments >= 0) {
+      expectedDocuments = estimatedDocuments;
+    } else {
+      // the count runs at the same read time as the query, no transaction is held open for it
+      RunAggregationQueryRequest.Builder count = query.count().toProto().toBuilder();
+      if (readTime != null) {
+        count.setReadTime(readTime);
+      }
+      pendingCount = client.runAggregationQueryCallable().first().futureCall(count.build());
+    }
+
+    RunQueryRequest.Builder request = query.toProto().toBuilder();
+    if (readTime != null) {
+      request.setReadTime(readTime);
+    }
+    stream = client.runQueryCallable().call(request.build());
+    responses = stream.iterator();
+    itemIdx = 0;
+    fetchedDocuments = 0;
+    finished = false;
+  }
+
+  @Override
+  public boolean nextKeyValue() throws IOException, InterruptedException {
+    try {
+      while (responses.hasNext()) {
+        RunQueryResponse response = responses.next();
+        // responses without a document only report the progress of the query
+        if (!response.hasDocument()) {
+          continue;
+        }
+        Document document = response.getDocument();
+        fetchedDocuments++;
+        if (!skipDocuments.isEmpty() && skipDocuments.contains(getDocumentId(document))) {
+          documentsSkipped.increment(1);
+          continue;
+        }
+        documentsRead.increment(1);
+        key = new LongWritable(itemIdx);
+        itemIdx++;
+        value = document;
+        return true;
+      }
+    } catch (RuntimeException e) {
+      throw new IOException("Failed to stream documents from Firestore: " + e.getMessage(), e);
+    }
+    finished = true;
+    return false;
+  }
+
+  @Override
+  public LongWritable getCurrentKey() throws IOException, InterruptedException {
+    return key;
+  }
+
+  @Override
+  public Document getCurrentValue() throws IOException, InterruptedException {
+    return value;
+  }
+
+  @Override
+  public float getProgress() throws IOException, InterruptedException {
+    if (finished) {
+      return 1;
+    }
+    long expected = getExpectedDocuments();
+    return expected <= 0 ? 0 : Math.min(1f, (float) fetchedDocuments / expected);
+  }
+
+  /**
+   * Returns the expected number of documents of the split, or a negative number while it is being counted or if
+   * it could not be counted.
+   */
+  private long getExpectedDocuments() throws InterruptedException {
+    if (pendingCount != null && pendingCount.isDone()) {
+      try {
+        // the count is the only aggregation of the query
+        expectedDocuments = pendingCount.get().getResult().getAggregateFieldsMap().values().iterator().next()
+          .getIntegerValue();
+      } catch (ExecutionException | CancellationException e) {
+        LOG.debug("Failed to count the documents of the split, its progress is unknown.", e);
+      }
+      pendingCount = null;
+    }
+    return expectedDocuments;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (pendingCount != null) {
+      pendingCount.cancel(true);
+      pendingCount = null;
+    }
+    if (stream != null && !finished) {
+      stream.cancel();
+    }
+    if (client != null) {
+      client.close();
+    }
+    if (db == null) {
+      return;
+    }
+    try {
+      db.close();
+    } catch (Exception e) {
+      throw new IOException(e.getMessage(), e);
+    }
+    LOG.debug("Total number of documents read from Cloud Firestore: {}, {} fetched of {} expected", itemIdx,
+              fetchedDocuments, expectedDocuments);
+  }
+
+  /**
+   * Returns the id of a document, the last segment of its name.
+   */
+  private static String getDocumentId(Document document) {
+    String name = document.getName();
+    return name.substring(name.lastIndexOf('/') + 1);
+  }
+
+  /**
+   * Returns the read time of the run, null to read the latest documents.
+   */
+  @Nullable
+  private static com.google.protobuf.Timestamp getReadTime(Configuration config) throws IOException {
+    String readTime = config.get(FirestoreSourceConstants.PROPERTY_READ_TIME);
+    if (Strings.isNullOrEmpty(readTime)) {
+      return null;
+    }
+    try {
+      return Timestamp.parseTimestamp(readTime).toProto();
+    } catch (DateTimeParseException e) {
+      throw new IOException(String.format("Invalid read time '%s'.", readTime), e);
+    }
+  }
+
+  /**
+   * Creates a low-level client with the options of the given Firestore service, so that it talks to the same
+   * endpoint or emulator, with the same credentials and transport, and addresses the same database.
+   */
+  @VisibleForTesting
+  static FirestoreClient createClient(Firestore db) throws IOException {
+    FirestoreOptions options = db.getOptions();
+    String host = Strings.isNullOrEmpty(options.getEmulatorHost()) ? options.getHost() : options.getEmulatorHost();
+    FirestoreSettings settings = FirestoreSettings.newBuilder()
+      .setEndpoint(getEndpoint(host))
+      .setCredentialsProvider(options.getCredentialsProvider())
+      .setTransportChannelProvider(options.getTransportChannelProvider())
+      .setHeaderProvider(FixedHeaderProvider.create(
+        RESOURCE_PREFIX_HEADER, String.format("projects/%s/databases/%s", options.getProjectId(),
+                                              options.getDatabaseId())))
+      .build();
+    return FirestoreClient.create(settings);
+  }
+
+  /**
+   * Returns the gRPC endpoint of a host, which may be given as a URL and without a port.
+   */
+  @VisibleForTesting
+  static String getEndpoint(String host) {
+    String endpoint = host;
+    int scheme = endpoint.indexOf("://");
+    if (scheme >= 0) {
+      endpoint = endpoint.substring(scheme + 3);
+    }
+    if (endpoint.endsWith("/")) {
+      endpoint = endpoint.substring(0, endpoint.length() - 1);
+    }
+    return endpoint.contains(":") ? endpoint : endpoint + ":" + DEFAULT_PORT;
+  }
+}
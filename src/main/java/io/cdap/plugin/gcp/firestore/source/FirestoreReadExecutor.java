@@ -0,0 +1,135 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.api.core.SettableApiFuture;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.AggregateQuery;
+import com.google.cloud.firestore.AggregateQuerySnapshot;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldMask;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.Transaction;
+import com.google.cloud.firestore.TransactionOptions;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import javax.annotation.Nullable;
+
+/**
+ * Executes the reads of a task, either directly or at a fixed read time. Reads at a read time are executed in a
+ * read-only transaction, which stays open until the executor is closed, so that all tasks of a run see the same
+ * consistent snapshot of the database.
+ */
+class FirestoreReadExecutor implements Closeable {
+  private final Firestore db;
+  @Nullable
+  private final Transaction transaction;
+  @Nullable
+  private final SettableApiFuture<Void> finished;
+
+  private FirestoreReadExecutor(Firestore db, @Nullable Transaction transaction,
+                                @Nullable SettableApiFuture<Void> finished) {
+    this.db = db;
+    this.transaction = transaction;
+    this.finished = finished;
+  }
+
+  /**
+   * Creates an executor that reads the latest version of the documents.
+   *
+   * @param db the Firestore service
+   * @return the executor
+   */
+  static FirestoreReadExecutor create(Firestore db) {
+    return new FirestoreReadExecutor(db, null, null);
+  }
+
+  /**
+   * Creates an executor that reads the documents as they were at the given read time.
+   *
+   * @param db the Firestore service
+   * @param readTime the time to read the documents at
+   * @return the executor
+   * @throws IOException if the read-only transaction can't be started
+   */
+  static FirestoreReadExecutor create(Firestore db, Timestamp readTime) throws IOException, InterruptedException {
+    TransactionOptions options = TransactionOptions.createReadOnlyOptionsBuilder()
+      .setReadTime(readTime.toProto())
+      .build();
+    SettableApiFuture<Transaction> started = SettableApiFuture.create();
+    SettableApiFuture<Void> finished = SettableApiFuture.create();
+    // the transaction stays usable until the future returned by the transaction function completes
+    ApiFuture<Void> result = db.runAsyncTransaction(transaction -> {
+      started.set(transaction);
+      return finished;
+    }, options);
+    ApiFutures.addCallback(result, new ApiFutureCallback<Void>() {
+      @Override
+      public void onSuccess(Void ignored) {
+        started.cancel(false);
+      }
+
+      @Override
+      public void onFailure(Throwable t) {
+        started.setException(t);
+      }
+    }, MoreExecutors.directExecutor());
+
+    try {
+      return new FirestoreReadExecutor(db, started.get(), finished);
+    } catch (ExecutionException e) {
+      throw new IOException(String.format("Failed to start a read-only transaction at %s: %s", readTime,
+                                          e.getCause().getMessage()), e.getCause());
+    }
+  }
+
+  ApiFuture<QuerySnapshot> get(Query query) {
+    return transaction == null ? query.get() : transaction.get(query);
+  }
+
+  ApiFuture<AggregateQuerySnapshot> get(AggregateQuery query) {
+    return transaction == null ? query.get() : transaction.get(query);
+  }
+
+  ApiFuture<List<DocumentSnapshot>> getAll(DocumentReference[] references, @Nullable FieldMask fieldMask) {
+    return transaction == null ? db.getAll(references, fieldMask) : transaction.getAll(references, fieldMask);
+  }
+
+  /**
+   * Returns whether documents are streamed as they are, read-only transactions can't stream queries.
+   */
+  boolean supportsStreaming() {
+    return transaction == null;
+  }
+
+  @Override
+  public void close() {
+    if (finished != null) {
+      finished.set(null);
+    }
+  }
+}
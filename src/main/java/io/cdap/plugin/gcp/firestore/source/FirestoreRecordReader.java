@@ -17,22 +17,29 @@
 package io.cdap.plugin.gcp.firestore.source;
 
 import com.google.api.core.ApiFuture;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.AggregateQuerySnapshot;
+import com.google.cloud.firestore.DocumentSnapshot;
 import com.google.cloud.firestore.Firestore;
 import com.google.cloud.firestore.Query;
-import com.google.cloud.firestore.QueryDocumentSnapshot;
-import com.google.cloud.firestore.QuerySnapshot;
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import io.cdap.plugin.gcp.firestore.common.FirestoreConfig;
-import io.cdap.plugin.gcp.firestore.exception.FirestoreInitializationException;
 import io.cdap.plugin.gcp.firestore.source.util.FilterInfo;
+import io.cdap.plugin.gcp.firestore.source.util.FilterInfoCodec;
 import io.cdap.plugin.gcp.firestore.source.util.FilterInfoParser;
+import io.cdap.plugin.gcp.firestore.source.util.FilterOperator;
 import io.cdap.plugin.gcp.firestore.source.util.FirestoreQueryBuilder;
 import io.cdap.plugin.gcp.firestore.source.util.FirestoreSourceConstants;
+import io.cdap.plugin.gcp.firestore.source.util.OrderByInfo;
+import io.cdap.plugin.gcp.firestore.source.util.OrderByInfoParser;
+import io.cdap.plugin.gcp.firestore.source.util.SourceReadMode;
 import io.cdap.plugin.gcp.firestore.util.FirestoreConstants;
-import io.cdap.plugin.gcp.firestore.util.FirestoreUtil;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.mapreduce.Counter;
 import org.apache.hadoop.mapreduce.InputSplit;
 import org.apache.hadoop.mapreduce.RecordReader;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
@@ -40,26 +47,55 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
 /**
- * {@link FirestoreRecordReader} reads the data from Firestore.
+ * {@link FirestoreRecordReader} reads the data from Firestore. Documents of the split are fetched page by page,
+ * either with following pages prefetched in the background while the current page is being processed, or as they
+ * are streamed by the server, depending on the configured {@link SourceReadMode}.
+ * A split that is still being read after the straggler timeout, or that is read again by a retried or speculative
+ * task attempt, can have the unread tail of its range divided into ranges that are read at the same time.
+ * Progress is the share of the expected documents of the split that have been fetched, where the expected number
+ * comes from the estimate of the split or from a count aggregation run in the background.
  */
-public class FirestoreRecordReader extends RecordReader<Object, QueryDocumentSnapshot> {
+public class FirestoreRecordReader extends RecordReader<Object, DocumentSnapshot> {
   private static final Logger LOG = LoggerFactory.getLogger(FirestoreRecordReader.class);
   private Configuration config;
   private Firestore db;
-  private List<QueryDocumentSnapshot> items;
+  private FirestoreReadExecutor executor;
+  private FirestoreDocumentFetcher fetcher;
+  // Skipped documents that are not already excluded by the query.
+  private Set<String> skipDocuments;
+  // Documents of the current page that are not consumed yet.
+  private Iterator<? extends DocumentSnapshot> page;
   // Map key that represents the item index.
   private LongWritable key;
   // Map value that represents an item.
-  private QueryDocumentSnapshot value;
-  private Iterator<QueryDocumentSnapshot> iterator;
+  private DocumentSnapshot value;
   private long itemIdx;
+  // Documents fetched from Firestore, including the skipped ones.
+  private long fetchedDocuments;
+  // Expected number of documents of the split, negative until known.
+  private long expectedDocuments;
+  // Count of the documents of the split, null if the split is not counted or the count is done.
+  private ApiFuture<AggregateQuerySnapshot> pendingCount;
+  private boolean finished;
+  private Counter documentsRead;
+  private Counter documentsSkipped;
+  private Counter pagesFetched;
+  // Divides the unread tail of the split once the straggler deadline passes, null if the tail is not divided.
+  private TailSplitter tailSplitter;
+  private long stragglerDeadline;
 
   @Override
   public void initialize(InputSplit inputSplit, TaskAttemptContext taskAttemptContext)
@@ -69,73 +105,141 @@ public class FirestoreRecordReader extends RecordReader<Object, QueryDocumentSna
 
     String projectId = config.get(FirestoreConfig.NAME_PROJECT);
     String databaseId = config.get(FirestoreConfig.NAME_DATABASE);
-    String collection = Strings.nullToEmpty(config.get(FirestoreConstants.PROPERTY_COLLECTION)).trim();
-
-    // Get Service Account
-    Boolean isServiceAccountFilePath = false;
-    String serviceAccountFilePath = config.get(FirestoreConfig.NAME_SERVICE_ACCOUNT_FILE_PATH);
-
-    // Get Service Account whether JSON or FilePath
-    String serviceAccountType = config.get(FirestoreConfig.NAME_SERVICE_ACCOUNT_TYPE);
-
-    String serviceAccount = "";
-    if (serviceAccountType.equalsIgnoreCase(FirestoreConfig.SERVICE_ACCOUNT_FILE_PATH)) {
-      serviceAccount = config.get(FirestoreConfig.NAME_SERVICE_ACCOUNT_FILE_PATH);
-      isServiceAccountFilePath = true;
-    } else if (serviceAccountType.equalsIgnoreCase(FirestoreConfig.SERVICE_ACCOUNT_JSON)) {
-      serviceAccount = config.get(FirestoreConfig.NAME_SERVICE_ACCOUNT_JSON);
-      isServiceAccountFilePath = false;
-    } else {
-      throw new FirestoreInitializationException("Service account type can only be either a File Path or JSON.");
-    }
+    String collection = inputSplit instanceof FirestoreInputSplit
+      && ((FirestoreInputSplit) inputSplit).getCollection() != null
+      ? ((FirestoreInputSplit) inputSplit).getCollection()
+      : Strings.nullToEmpty(config.get(FirestoreConstants.PROPERTY_COLLECTION)).trim();
+    boolean collectionGroup = config.getBoolean(FirestoreSourceConstants.PROPERTY_COLLECTION_GROUP, false);
+    int pageSize = config.getInt(FirestoreSourceConstants.PROPERTY_PAGE_SIZE,
+      FirestoreSourceConstants.DEFAULT_PAGE_SIZE);
+    SourceReadMode readMode = SourceReadMode.fromValue(config.get(FirestoreSourceConstants.PROPERTY_READ_MODE))
+      .orElse(SourceReadMode.PAGED);
+    int prefetchDepth = config.getInt(FirestoreSourceConstants.PROPERTY_PREFETCH_DEPTH,
+      FirestoreSourceConstants.DEFAULT_PREFETCH_DEPTH);
+    long prefetchBufferBytes = config.getLong(FirestoreSourceConstants.PROPERTY_PREFETCH_BUFFER_SIZE,
+      FirestoreSourceConstants.DEFAULT_PREFETCH_BUFFER_SIZE) * 1024 * 1024;
 
-    LOG.debug("Initialize RecordReader(projectId={}, databaseId={}, collection={}, isServiceAccountFilePath={}, " +
-     "serviceAccountFilePath={}", projectId, databaseId, collection, isServiceAccountFilePath, serviceAccountFilePath);
+    LOG.debug("Initialize RecordReader(projectId={}, databaseId={}, collection={}, serviceAccountType={}, " +
+      "pageSize={}, readMode={}, prefetchDepth={}, prefetchBufferBytes={})", projectId, databaseId, collection,
+      config.get(FirestoreConfig.NAME_SERVICE_ACCOUNT_TYPE), pageSize, readMode, prefetchDepth, prefetchBufferBytes);
 
-    List<String> fields = Splitter.on(',').trimResults()
+    List<String> fields = Splitter.on(',').trimResults().omitEmptyStrings()
       .splitToList(config.get(FirestoreSourceConstants.PROPERTY_SCHEMA, ""));
-    List<String> pullDocuments = Splitter.on(',').trimResults().omitEmptyStrings()
-      .splitToList(config.get(FirestoreSourceConstants.PROPERTY_PULL_DOCUMENTS, ""));
-    List<String> skipDocuments = Splitter.on(',').trimResults().omitEmptyStrings()
-      .splitToList(config.get(FirestoreSourceConstants.PROPERTY_SKIP_DOCUMENTS, ""));
-    String customQuery = config.get(FirestoreSourceConstants.PROPERTY_CUSTOM_QUERY, "");
-
-    db = FirestoreUtil.getFirestore(serviceAccount, isServiceAccountFilePath, projectId, databaseId);
-
-    try {
-      List<FilterInfo> filters = getParsedFilters(customQuery);
-      Query query = FirestoreQueryBuilder.buildQuery(db, collection, fields, inputSplit, filters);
-      ApiFuture<QuerySnapshot> futureSnapshot = query.get();
+    skipDocuments = FirestoreInputFormat.parseDocumentIds(
+      config.get(FirestoreSourceConstants.PROPERTY_SKIP_DOCUMENTS));
 
-      QuerySnapshot querySnapshot = futureSnapshot.get();
-      List<QueryDocumentSnapshot> documents = querySnapshot.getDocuments();
+    db = FirestoreInputFormat.getFirestore(config);
+    executor = getReadExecutor(db, config);
+    documentsRead = taskAttemptContext.getCounter(FirestoreSourceCounter.DOCUMENTS_READ);
+    documentsSkipped = taskAttemptContext.getCounter(FirestoreSourceCounter.DOCUMENTS_SKIPPED);
+    pagesFetched = taskAttemptContext.getCounter(FirestoreSourceCounter.PAGES_FETCHED);
+    expectedDocuments = -1;
 
-      if (!pullDocuments.isEmpty()) {
-        documents = documents.stream().filter(o -> pullDocuments.contains(o.getId())).collect(Collectors.toList());
+    List<String> documentIds = inputSplit instanceof FirestoreInputSplit
+      ? ((FirestoreInputSplit) inputSplit).getDocumentIds() : Collections.emptyList();
+    if (!documentIds.isEmpty()) {
+      // documents to pull are looked up directly, several chunks at a time, skipped ones are left out by the splits
+      fetcher = new DocumentLookupFetcher(executor, db, collection, documentIds, fields, pageSize,
+                                          prefetchDepth + 1);
+      skipDocuments = Collections.emptySet();
+      expectedDocuments = documentIds.size();
+    } else {
+      List<FilterInfo> filters = new ArrayList<>(getFilters(config));
+      if (inputSplit instanceof FirestoreInputSplit) {
+        // documents of a field range split are bounded by filters on the split field
+        filters.addAll(((FirestoreInputSplit) inputSplit).getRangeFilters());
       }
-
-      if (!skipDocuments.isEmpty()) {
-        documents = documents.stream().filter(o -> !skipDocuments.contains(o.getId())).collect(Collectors.toList());
+      List<OrderByInfo> orderBy = getOrderBy(config);
+      List<Object> startAt = getStartAt(config);
+      long limit = config.getLong(FirestoreSourceConstants.PROPERTY_LIMIT, 0);
+      // pages are fetched with cursors built from the last document snapshot, which needs the order by fields
+      List<String> projection = fields;
+      if (!fields.isEmpty() && !orderBy.isEmpty()) {
+        projection = new ArrayList<>(fields);
+        for (OrderByInfo order : orderBy) {
+          projection.add(order.getField());
+        }
+      }
+      List<String> excludedDocuments = Collections.emptyList();
+      if (orderBy.isEmpty() && !collectionGroup && canExcludeOnServer(filters)) {
+        // the server accepts a limited number of values in a 'not-in' filter, the rest is skipped client side
+        excludedDocuments = skipDocuments.stream()
+          .limit(FirestoreSourceConstants.MAX_NOT_IN_VALUES)
+          .collect(Collectors.toList());
+        skipDocuments = ImmutableSet.copyOf(Sets.difference(skipDocuments, ImmutableSet.copyOf(excludedDocuments)));
+      }
+      Query query = FirestoreQueryBuilder.buildQuery(db, collection, collectionGroup, projection, inputSplit,
+                                                     filters, excludedDocuments);
+      query = FirestoreQueryBuilder.applyOrdering(query, orderBy, startAt, limit);
+      int traversalDepth = config.getInt(FirestoreSourceConstants.PROPERTY_TRAVERSAL_DEPTH, 0);
+      long estimatedDocuments = inputSplit instanceof FirestoreInputSplit
+        ? ((FirestoreInputSplit) inputSplit).getEstimatedDocuments() : -1;
+      if (estimatedDocuments >= 0) {
+        expectedDocuments = estimatedDocuments;
+      } else if (traversalDepth == 0) {
+        // the documents of subcollections can't be counted upfront, so the progress of a traversal is unknown
+        pendingCount = executor.get(query.count());
+      }
+      if (readMode == SourceReadMode.STREAMING && executor.supportsStreaming()) {
+        fetcher = new StreamingDocumentFetcher(query, pageSize);
+      } else {
+        fetcher = new PagedDocumentFetcher(executor, query, pageSize, limit, prefetchDepth, prefetchBufferBytes);
+      }
+      int stragglerParallelism = config.getInt(FirestoreSourceConstants.PROPERTY_STRAGGLER_PARALLELISM,
+        FirestoreSourceConstants.DEFAULT_STRAGGLER_PARALLELISM);
+      if (stragglerParallelism > 1 && traversalDepth == 0 && orderBy.isEmpty() && startAt.isEmpty() && limit == 0
+        && inputSplit instanceof FirestoreInputSplit
+        && TailSplitter.canDivide((FirestoreInputSplit) inputSplit, getFilters(config))) {
+        // the ranges of the tail are read in no particular order, so the tail of an ordered read is never divided
+        tailSplitter = new TailSplitter(
+          db, executor, (FirestoreInputSplit) inputSplit, collection, collectionGroup, projection, getFilters(config),
+          excludedDocuments, config.getInt(FirestoreSourceConstants.PROPERTY_NUM_SPLITS,
+                                           FirestoreSourceConstants.DEFAULT_NUM_SPLITS),
+          stragglerParallelism, pageSize, prefetchDepth, prefetchBufferBytes);
+        // a retried or speculative attempt means the split was slow before, its range is divided right away
+        boolean retried = taskAttemptContext.getTaskAttemptID() != null
+          && taskAttemptContext.getTaskAttemptID().getId() > 0;
+        stragglerDeadline = retried ? 0 : System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(
+          config.getInt(FirestoreSourceConstants.PROPERTY_STRAGGLER_TIMEOUT,
+                        FirestoreSourceConstants.DEFAULT_STRAGGLER_TIMEOUT));
+      }
+      if (traversalDepth > 0) {
+        // the split holds the roots of the traversal, their subtrees are read by the same task
+        fetcher = new TraversalDocumentFetcher(
+          executor, fetcher, projection, traversalDepth, pageSize, prefetchDepth, prefetchBufferBytes,
+          config.getInt(FirestoreSourceConstants.PROPERTY_TRAVERSAL_CONCURRENCY,
+                        FirestoreSourceConstants.DEFAULT_TRAVERSAL_CONCURRENCY));
       }
-
-      items = documents;
-
-      LOG.debug("documents={}", items.size());
-
-      iterator = items.iterator();
-      itemIdx = 0;
-    } catch (ExecutionException e) {
-      LOG.error("Error in Reader", e);
-      throw new InterruptedException(e.getMessage());
     }
+    page = Collections.emptyIterator();
+    itemIdx = 0;
+    fetchedDocuments = 0;
+    finished = false;
   }
 
   @Override
   public boolean nextKeyValue() throws IOException, InterruptedException {
-    if (iterator == null || !iterator.hasNext()) {
-      return false;
+    while (!page.hasNext()) {
+      List<? extends DocumentSnapshot> documents = null;
+      if (tailSplitter != null && System.currentTimeMillis() >= stragglerDeadline) {
+        // the documents fetched ahead of the divided tail are read first
+        documents = splitTail();
+      }
+      if (documents == null || documents.isEmpty()) {
+        documents = fetcher.nextPage();
+      }
+      if (documents == null) {
+        finished = true;
+        return false;
+      }
+      List<? extends DocumentSnapshot> filtered = filterDocuments(documents);
+      fetchedDocuments += documents.size();
+      pagesFetched.increment(1);
+      documentsRead.increment(filtered.size());
+      documentsSkipped.increment(documents.size() - filtered.size());
+      page = filtered.iterator();
     }
-    QueryDocumentSnapshot item = iterator.next();
+    DocumentSnapshot item = page.next();
     key = new LongWritable(itemIdx);
     itemIdx++;
     value = item;
@@ -148,26 +252,155 @@ public class FirestoreRecordReader extends RecordReader<Object, QueryDocumentSna
   }
 
   @Override
-  public QueryDocumentSnapshot getCurrentValue() throws IOException, InterruptedException {
+  public DocumentSnapshot getCurrentValue() throws IOException, InterruptedException {
     return value;
   }
 
+  /**
+   * Returns the path of the last document read, the position the unread tail of the split starts after.
+   *
+   * @return the path of the last document read, or null if no document was read yet
+   */
+  @Nullable
+  public String getPosition() {
+    return value == null ? null : value.getReference().getPath();
+  }
+
   @Override
   public float getProgress() throws IOException, InterruptedException {
-    return 0;
+    if (finished) {
+      return 1;
+    }
+    long expected = getExpectedDocuments();
+    return expected <= 0 ? 0 : Math.min(1f, (float) fetchedDocuments / expected);
+  }
+
+  /**
+   * Returns the expected number of documents of the split, or a negative number while it is being counted or if
+   * it could not be counted.
+   */
+  private long getExpectedDocuments() throws InterruptedException {
+    if (pendingCount != null && pendingCount.isDone()) {
+      try {
+        expectedDocuments = pendingCount.get().getCount();
+      } catch (ExecutionException | CancellationException e) {
+        LOG.debug("Failed to count the documents of the split, its progress is unknown.", e);
+      }
+      pendingCount = null;
+    }
+    return expectedDocuments;
   }
 
   @Override
   public void close() throws IOException {
+    if (pendingCount != null) {
+      pendingCount.cancel(true);
+      pendingCount = null;
+    }
+    if (fetcher != null) {
+      fetcher.close();
+    }
+    if (executor != null) {
+      executor.close();
+    }
+    if (db == null) {
+      return;
+    }
+    try {
+      db.close();
+    } catch (Exception e) {
+      throw new IOException(e.getMessage(), e);
+    }
+    LOG.debug("Total number of documents read from Cloud Firestore: {}, {} fetched of {} expected", itemIdx,
+              fetchedDocuments, expectedDocuments);
   }
 
-  private List<FilterInfo> getParsedFilters(String filterString) {
-    List<FilterInfo> filters = Collections.emptyList();
+  /**
+   * Divides the unread tail of the split into ranges read at the same time. The tail starts after the documents
+   * already fetched ahead, which are returned to be read first, so that they are not fetched again by the ranges.
+   * If the tail can't be divided, the split is read on as before.
+   *
+   * @return the documents fetched ahead of the divided tail, null if the tail was not divided
+   */
+  @Nullable
+  private List<? extends DocumentSnapshot> splitTail() throws IOException, InterruptedException {
+    TailSplitter splitter = tailSplitter;
+    tailSplitter = null;
+    // documents fetched after the buffered ones are dropped when the fetcher is closed, the ranges read them again
+    List<? extends DocumentSnapshot> buffered = fetcher.getBufferedDocuments();
+    DocumentSnapshot position = buffered.isEmpty() ? value : buffered.get(buffered.size() - 1);
+    String path = position == null ? null : position.getReference().getPath();
+    FirestoreDocumentFetcher tail;
     try {
-      filters = FilterInfoParser.parseFilterString(filterString);
-    } catch (Exception e) {
-      LOG.warn("Failed while parsing the filter string", e);
+      tail = splitter.split(position);
+    } catch (IOException e) {
+      LOG.warn("Failed to divide the unread tail of the split after '{}', reading it on as a single range.",
+               path, e);
+      return null;
+    }
+    if (tail == null) {
+      LOG.debug("The unread tail of the split after '{}' can't be divided.", path);
+      return null;
+    }
+    LOG.debug("The unread tail of the split after '{}' is divided, {} documents read so far.", path, itemIdx);
+    fetcher.close();
+    fetcher = tail;
+    return buffered;
+  }
+
+  private List<? extends DocumentSnapshot> filterDocuments(List<? extends DocumentSnapshot> documents) {
+    if (!skipDocuments.isEmpty()) {
+      documents = documents.stream().filter(o -> !skipDocuments.contains(o.getId())).collect(Collectors.toList());
+    }
+    return documents;
+  }
+
+  /**
+   * Returns the executor of the reads, which reads at the read time of the run if one is set.
+   */
+  static FirestoreReadExecutor getReadExecutor(Firestore db, Configuration config)
+    throws IOException, InterruptedException {
+    String readTime = config.get(FirestoreSourceConstants.PROPERTY_READ_TIME);
+    if (Strings.isNullOrEmpty(readTime)) {
+      return FirestoreReadExecutor.create(db);
+    }
+    try {
+      return FirestoreReadExecutor.create(db, Timestamp.parseTimestamp(readTime));
+    } catch (DateTimeParseException e) {
+      throw new IOException(String.format("Invalid read time '%s'.", readTime), e);
+    }
+  }
+
+  static List<OrderByInfo> getOrderBy(Configuration config) throws IOException {
+    try {
+      return OrderByInfoParser.parseOrderByString(config.get(FirestoreSourceConstants.PROPERTY_ORDER_BY));
+    } catch (IllegalArgumentException e) {
+      throw new IOException("Failed to read the ordering to apply to the query.", e);
+    }
+  }
+
+  static List<Object> getStartAt(Configuration config) throws IOException {
+    try {
+      return FilterInfoParser.parseValues(config.get(FirestoreSourceConstants.PROPERTY_START_AT));
+    } catch (IllegalArgumentException e) {
+      throw new IOException("Failed to read the values to start the query at.", e);
+    }
+  }
+
+  /**
+   * Firestore does not allow a 'not-in' filter to be combined with range filters on other fields,
+   * so skipped documents are only excluded by the query when it has equality filters alone.
+   */
+  static boolean canExcludeOnServer(List<FilterInfo> filters) {
+    return filters.stream().allMatch(filter -> filter.getOperator() == FilterOperator.EQUAL_TO
+      || filter.getOperator() == FilterOperator.NUMERIC_EQUAL_TO);
+  }
+
+  static List<FilterInfo> getFilters(Configuration config) throws IOException {
+    try {
+      return FilterInfoCodec.decode(config.get(FirestoreSourceConstants.PROPERTY_FILTER_PLAN));
+    } catch (IllegalArgumentException e) {
+      throw new IOException("Failed to read the filters to apply to the query.", e);
     }
-    return filters;
   }
 }
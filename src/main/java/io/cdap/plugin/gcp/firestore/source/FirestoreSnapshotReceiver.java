@@ -0,0 +1,151 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import com.google.cloud.firestore.DocumentChange;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.ListenerRegistration;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.common.annotations.VisibleForTesting;
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.plugin.gcp.firestore.source.util.FilterInfo;
+import io.cdap.plugin.gcp.firestore.source.util.FilterInfoParser;
+import io.cdap.plugin.gcp.firestore.source.util.FirestoreQueryBuilder;
+import io.cdap.plugin.gcp.firestore.util.FirestoreUtil;
+import org.apache.spark.storage.StorageLevel;
+import org.apache.spark.streaming.receiver.Receiver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * Spark {@link Receiver} that listens to the changes of the documents matching a Firestore query and stores each
+ * change as a {@link StructuredRecord}. Firestore delivers the changes in snapshots, the changes of a snapshot are
+ * stored together so that they end up in the same micro-batch.
+ */
+public class FirestoreSnapshotReceiver extends Receiver<StructuredRecord> {
+  private static final Logger LOG = LoggerFactory.getLogger(FirestoreSnapshotReceiver.class);
+
+  private final FirestoreStreamingSourceConfig config;
+  private final String schema;
+
+  private transient Firestore db;
+  private transient ListenerRegistration registration;
+  // Whether the first snapshot, which holds the documents matching the query when listening started, was received.
+  private transient boolean initialSnapshotReceived;
+
+  /**
+   * Constructor for FirestoreSnapshotReceiver object.
+   *
+   * @param config the streaming source config
+   * @param schema the schema of the records to store
+   */
+  public FirestoreSnapshotReceiver(FirestoreStreamingSourceConfig config, Schema schema) {
+    super(StorageLevel.MEMORY_AND_DISK_SER_2());
+    this.config = config;
+    // the receiver is shipped to the executors, the schema and the filters are parsed there
+    this.schema = schema.toString();
+  }
+
+  @Override
+  public void onStart() {
+    Schema recordSchema;
+    Query query;
+    try {
+      recordSchema = Schema.parseJson(schema);
+      List<FilterInfo> filters = FilterInfoParser.parseFilterString(config.getFilters());
+      db = FirestoreUtil.getFirestore(config.getServiceAccount(), config.isServiceAccountFilePath(),
+                                      config.getProject(), config.getDatabaseName());
+      // listen queries can't be projected, the documents are read whole
+      query = FirestoreQueryBuilder.buildQuery(db, config.getCollection(), false, Collections.emptyList(), null,
+                                               filters, Collections.emptyList());
+    } catch (IOException | InterruptedException e) {
+      restart("Failed to create the Firestore query to listen on", e);
+      return;
+    }
+
+    QueryDocumentSnapshotToRecordTransformer transformer = new QueryDocumentSnapshotToRecordTransformer(
+      recordSchema, config.isIncludeDocumentId(), config.getIdAlias());
+    initialSnapshotReceived = false;
+    registration = query.addSnapshotListener((snapshot, error) -> {
+      if (error != null) {
+        restart("Failed to listen to changes of Firestore collection " + config.getCollection(), error);
+        return;
+      }
+      onSnapshot(snapshot, transformer);
+    });
+    LOG.debug("Listening to changes of Firestore collection '{}'", config.getCollection());
+  }
+
+  @Override
+  public void onStop() {
+    if (registration != null) {
+      registration.remove();
+      registration = null;
+    }
+    if (db != null) {
+      try {
+        db.close();
+      } catch (Exception e) {
+        LOG.warn("Failed to close the Firestore client", e);
+      }
+      db = null;
+    }
+  }
+
+  /**
+   * Stores the changes of a snapshot delivered by the listener. The first snapshot holds all documents matching the
+   * query as added documents, it is skipped unless the initial documents are emitted.
+   */
+  @VisibleForTesting
+  void onSnapshot(@Nullable QuerySnapshot snapshot, QueryDocumentSnapshotToRecordTransformer transformer) {
+    boolean skip = !initialSnapshotReceived && !config.isEmitInitialDocuments();
+    initialSnapshotReceived = true;
+    if (!skip && snapshot != null) {
+      storeChanges(snapshot, transformer);
+    }
+  }
+
+  private void storeChanges(QuerySnapshot snapshot, QueryDocumentSnapshotToRecordTransformer transformer) {
+    List<DocumentChange> changes = snapshot.getDocumentChanges();
+    if (changes.isEmpty()) {
+      return;
+    }
+    String changeTypeField = config.getChangeTypeField();
+    List<StructuredRecord> records = new ArrayList<>(changes.size());
+    for (DocumentChange change : changes) {
+      Map<String, Object> values = changeTypeField == null ? Collections.emptyMap()
+        : Collections.singletonMap(changeTypeField, change.getType().name().toLowerCase(Locale.ROOT));
+      records.add(transformer.transform(change.getDocument(), values));
+    }
+    try {
+      // blocks until the records are replicated, keeping the changes of the snapshot in one block
+      store(records.iterator());
+    } catch (Exception e) {
+      restart("Failed to store changes of Firestore collection " + config.getCollection(), e);
+    }
+  }
+}
@@ -17,11 +17,18 @@
 package io.cdap.plugin.gcp.firestore.source;
 
 import com.google.api.core.ApiFuture;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.Blob;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
 import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.GeoPoint;
+import com.google.cloud.firestore.Query;
 import com.google.cloud.firestore.QueryDocumentSnapshot;
 import com.google.cloud.firestore.QuerySnapshot;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableMap;
+import com.google.firestore.v1.Document;
 import io.cdap.cdap.api.annotation.Description;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
@@ -38,14 +45,26 @@ import io.cdap.cdap.etl.api.batch.BatchSource;
 import io.cdap.cdap.etl.api.batch.BatchSourceContext;
 import io.cdap.plugin.common.LineageRecorder;
 import io.cdap.plugin.gcp.firestore.common.FirestoreConfig;
+import io.cdap.plugin.gcp.firestore.source.util.FilterInfo;
+import io.cdap.plugin.gcp.firestore.source.util.FilterOperator;
+import io.cdap.plugin.gcp.firestore.source.util.SourceQueryMode;
+import io.cdap.plugin.gcp.firestore.source.util.SourceReadMode;
+import io.cdap.plugin.gcp.firestore.source.util.WatermarkStore;
 import io.cdap.plugin.gcp.firestore.util.FirestoreConstants;
 import io.cdap.plugin.gcp.firestore.util.FirestoreUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
@@ -56,7 +75,7 @@ import java.util.stream.Collectors;
 @Name(FirestoreConstants.PLUGIN_NAME)
 @Description("Firestore Batch Source will read documents from Firestore and convert each document " +
   "into a StructuredRecord with the help of the specified Schema. ")
-public class FirestoreSource extends BatchSource<Object, QueryDocumentSnapshot, StructuredRecord> {
+public class FirestoreSource extends BatchSource<Object, Object, StructuredRecord> {
   private static final Logger LOG = LoggerFactory.getLogger(FirestoreSource.class);
 
   private static final Map<String, Schema> SUPPORTED_SIMPLE_TYPES =
@@ -66,10 +85,21 @@ public class FirestoreSource extends BatchSource<Object, QueryDocumentSnapshot,
       .put(Long.class.getName(), Schema.of(Schema.Type.LONG))
       .put(Double.class.getName(), Schema.of(Schema.Type.DOUBLE))
       .put(String.class.getName(), Schema.of(Schema.Type.STRING))
+      .put(Timestamp.class.getName(), Schema.of(Schema.LogicalType.TIMESTAMP_MICROS))
+      .put(Date.class.getName(), Schema.of(Schema.LogicalType.TIMESTAMP_MICROS))
+      .put(Blob.class.getName(), Schema.of(Schema.Type.BYTES))
+      .put(DocumentReference.class.getName(), Schema.of(Schema.Type.STRING))
       .build();
 
+  // Names that nested maps must have to be read as records, map keys that don't are read as a map.
+  private static final Pattern FIELD_NAME_PATTERN = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
   private final FirestoreSourceConfig config;
   private QueryDocumentSnapshotToRecordTransformer queryDocumentSnapshotToRecordTransformer;
+  // Converts the documents read in the raw read mode, null in the other read modes.
+  private DocumentToRecordTransformer documentToRecordTransformer;
+  // Watermark to store once the run succeeds, set when reading incrementally.
+  private Timestamp nextWatermark;
 
   public FirestoreSource(FirestoreSourceConfig config) {
     this.config = config;
@@ -88,6 +118,11 @@ public class FirestoreSource extends BatchSource<Object, QueryDocumentSnapshot,
     // This is to avoid adding same validation errors again in getSchema method call
     collector.getOrThrowException();
 
+    if (isAggregation()) {
+      stageConfigurer.setOutputSchema(config.getAggregationSchema(collector));
+      return;
+    }
+
     Schema configuredSchema = config.getSchema(collector);
     if (!config.shouldConnect()) {
       stageConfigurer.setOutputSchema(configuredSchema);
@@ -109,60 +144,157 @@ public class FirestoreSource extends BatchSource<Object, QueryDocumentSnapshot,
     config.validate(collector);
     collector.getOrThrowException();
 
-    String project = config.getProject();
-    String databaseName = config.getDatabaseName();
-    String serviceAccountFilePath = config.getServiceAccountFilePath();
-    String serviceAccountJson = config.getServiceAccountJson();
-    String serviceAccountType = config.getServiceAccountType();
-    String collection = config.getCollection();
-    String mode = config.getQueryMode().getValue();
-    String pullDocuments = config.getPullDocuments();
-    String skipDocuments = config.getSkipDocuments();
-    String filters = config.getFilters();
+    Schema schema = isAggregation() ? config.getAggregationSchema(collector) : config.getSchema(collector);
+    List<String> fields = isAggregation() ? Collections.emptyList() : fetchSchemaFields(schema);
+    // filters are parsed once here, readers fail instead of scanning the whole collection if they can't apply them
+    List<FilterInfo> filters = new ArrayList<>(config.getFiltersAsList(collector));
+    collector.getOrThrowException();
+    if (config.isIncremental()) {
+      filters.addAll(getIncrementalFilters(context));
+    }
 
-    List<String> fields = fetchSchemaFields(config.getSchema(collector));
+    // all readers read at the same time, so that parallel splits see a consistent snapshot
+    Timestamp readTime = config.isSnapshotRead()
+      ? Timestamp.ofTimeMicroseconds(TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis())) : null;
 
-    context.setInput(Input.of(config.getReferenceName(), new FirestoreInputFormatProvider(project, databaseName,
-    serviceAccountFilePath, serviceAccountJson, serviceAccountType, collection, mode, pullDocuments, skipDocuments,
-    filters, fields)));
+    context.setInput(Input.of(config.getReferenceName(),
+                              new FirestoreInputFormatProvider(config, schema, fields, filters, readTime)));
 
-    emitLineage(context);
+    emitLineage(context, schema);
+  }
+
+  @Override
+  public void onRunFinish(boolean succeeded, BatchSourceContext context) {
+    super.onRunFinish(succeeded, context);
+    if (!succeeded || nextWatermark == null) {
+      return;
+    }
+    try {
+      new WatermarkStore(config.getWatermarkPath()).write(nextWatermark);
+      LOG.info("Stored watermark {} of incremental reads in '{}'", nextWatermark, config.getWatermarkPath());
+    } catch (IOException e) {
+      // the next run reads the same documents again, which is safe but not cheap
+      throw new RuntimeException(String.format("Failed to store watermark %s of incremental reads in '%s'",
+                                               nextWatermark, config.getWatermarkPath()), e);
+    }
   }
 
   @Override
   public void initialize(BatchRuntimeContext context) throws Exception {
     super.initialize(context);
+    if (isAggregation()) {
+      // aggregation records are built by the reader
+      return;
+    }
     FailureCollector collector = context.getFailureCollector();
     queryDocumentSnapshotToRecordTransformer = new QueryDocumentSnapshotToRecordTransformer(
       config.getSchema(collector), config.isIncludeDocumentId(), config.getIdAlias());
+    if (config.getReadMode() == SourceReadMode.RAW) {
+      documentToRecordTransformer = new DocumentToRecordTransformer(
+        config.getSchema(collector), config.isIncludeDocumentId(), config.getIdAlias());
+    }
   }
 
   @Override
-  public void transform(KeyValue<Object, QueryDocumentSnapshot> input, Emitter<StructuredRecord> emitter)
+  public void transform(KeyValue<Object, Object> input, Emitter<StructuredRecord> emitter)
     throws Exception {
-    QueryDocumentSnapshot queryDocumentSnapshot = input.getValue();
+    if (input.getValue() instanceof StructuredRecord) {
+      emitter.emit((StructuredRecord) input.getValue());
+      return;
+    }
+    if (input.getValue() instanceof Document) {
+      Document document = (Document) input.getValue();
+      try {
+        emitter.emit(documentToRecordTransformer.transform(
+          document, getPathValues(DocumentToRecordTransformer.getDocumentPath(document.getName()))));
+      } catch (Exception e) {
+        throw new RuntimeException("Failed to process record", e);
+      }
+      return;
+    }
+    DocumentSnapshot queryDocumentSnapshot = (DocumentSnapshot) input.getValue();
     try {
-      emitter.emit(queryDocumentSnapshotToRecordTransformer.transform(queryDocumentSnapshot));
+      emitter.emit(queryDocumentSnapshotToRecordTransformer.transform(queryDocumentSnapshot,
+                                                                      getPathValues(queryDocumentSnapshot)));
     } catch (Exception e) {
       throw new RuntimeException("Failed to process record", e);
     }
   }
 
+  /**
+   * Returns the values of the path fields of the given document, which are not read from the document itself.
+   */
+  private Map<String, Object> getPathValues(DocumentSnapshot document) {
+    return getPathValues(document.getReference().getPath());
+  }
+
+  /**
+   * Returns the values of the path fields of the document with the given path.
+   */
+  private Map<String, Object> getPathValues(String documentPath) {
+    String parentPathField = config.getParentPathField();
+    String documentPathField = config.getDocumentPathField();
+    String collectionNameField = config.getCollectionNameField();
+    if (parentPathField == null && documentPathField == null && collectionNameField == null) {
+      return Collections.emptyMap();
+    }
+    Map<String, Object> values = new HashMap<>();
+    String collectionPath = documentPath.substring(0, documentPath.lastIndexOf('/'));
+    if (parentPathField != null) {
+      // documents of root collections have no parent document
+      int parentEnd = collectionPath.lastIndexOf('/');
+      values.put(parentPathField, parentEnd < 0 ? null : collectionPath.substring(0, parentEnd));
+    }
+    if (documentPathField != null) {
+      values.put(documentPathField, documentPath);
+    }
+    if (collectionNameField != null) {
+      values.put(collectionNameField, collectionPath);
+    }
+    return values;
+  }
+
   private List<String> fetchSchemaFields(Schema schema) {
     return schema.getFields().stream()
       .filter(f -> !f.getName().equals(FirestoreConstants.ID_PROPERTY_NAME))
+      .filter(f -> !f.getName().equals(config.getParentPathField()))
+      .filter(f -> !f.getName().equals(config.getDocumentPathField()))
+      .filter(f -> !f.getName().equals(config.getCollectionNameField()))
       .map(Schema.Field::getName)
       .collect(Collectors.toList());
   }
 
-  private void emitLineage(BatchSourceContext context) {
-    FailureCollector collector = context.getFailureCollector();
+  /**
+   * Returns the filters that bound the incremental field between the stored watermark and the start time of
+   * the run. Documents updated while the run is in progress are left for the next run.
+   */
+  private List<FilterInfo> getIncrementalFilters(BatchSourceContext context) throws IOException {
+    String field = config.getIncrementalField();
+    Timestamp watermark = new WatermarkStore(config.getWatermarkPath()).read();
+    nextWatermark = Timestamp.ofTimeMicroseconds(TimeUnit.MILLISECONDS.toMicros(context.getLogicalStartTime()));
+    LOG.debug("Reading documents with '{}' in ({}, {}]", field, watermark, nextWatermark);
+
+    List<FilterInfo> filters = new ArrayList<>();
+    if (watermark != null) {
+      filters.add(new FilterInfo(field, FilterOperator.GREATER_THAN, watermark));
+    }
+    filters.add(new FilterInfo(field, FilterOperator.LESS_THAN_OR_EQUAL_TO, nextWatermark));
+    return filters;
+  }
+
+  private boolean isAggregation() {
+    return config.getQueryMode() == SourceQueryMode.AGGREGATION;
+  }
+
+  private void emitLineage(BatchSourceContext context, Schema schema) {
     LineageRecorder lineageRecorder = new LineageRecorder(context, config.getReferenceName());
-    lineageRecorder.createExternalDataset(config.getSchema(collector));
-    List<Schema.Field> fields = Objects.requireNonNull(config.getSchema(collector)).getFields();
+    lineageRecorder.createExternalDataset(schema);
+    List<Schema.Field> fields = Objects.requireNonNull(schema).getFields();
     if (fields != null && !fields.isEmpty()) {
       lineageRecorder.recordRead("Read",
-        String.format("Read from '%s' Firestore collection.", config.getCollection()),
+        String.format(config.isCollectionGroup() ? "Read from '%s' Firestore collection group."
+                        : config.isMultiCollection() ? "Read from '%s' Firestore collections."
+                        : "Read from '%s' Firestore collection.", config.getCollection()),
         fields.stream().map(Schema.Field::getName).collect(Collectors.toList()));
     }
   }
@@ -174,10 +306,16 @@ public class FirestoreSource extends BatchSource<Object, QueryDocumentSnapshot,
     try {
       Firestore db = FirestoreUtil.getFirestore(config.getServiceAccount(), config.isServiceAccountFilePath(),
        config.getProject(), config.getDatabaseName());
-      ApiFuture<QuerySnapshot> query = db.collection(config.getCollection()).limit(1).get();
-      QuerySnapshot querySnapshot = query.get();
+      // the schema is shared by all collections, it is inferred from the first one
+      List<String> collections = FirestoreInputFormat.resolveCollections(db, config.getCollections());
+      if (!collections.isEmpty()) {
+        Query collection = config.isCollectionGroup()
+          ? db.collectionGroup(collections.get(0)) : db.collection(collections.get(0));
+        ApiFuture<QuerySnapshot> query = collection.limit(1).get();
+        QuerySnapshot querySnapshot = query.get();
 
-      items = querySnapshot.getDocuments();
+        items = querySnapshot.getDocuments();
+      }
 
     } catch (Exception e) {
       collector.addFailure(e.getMessage(), "Ensure properties like project, service account " +
@@ -219,6 +357,18 @@ public class FirestoreSource extends BatchSource<Object, QueryDocumentSnapshot,
     if (isIncludeId) {
       fields.add(0, Schema.Field.of(idName, Schema.of(Schema.Type.STRING)));
     }
+    String parentPathField = config.getParentPathField();
+    if (parentPathField != null) {
+      fields.add(Schema.Field.of(parentPathField, Schema.nullableOf(Schema.of(Schema.Type.STRING))));
+    }
+    String documentPathField = config.getDocumentPathField();
+    if (documentPathField != null) {
+      fields.add(Schema.Field.of(documentPathField, Schema.of(Schema.Type.STRING)));
+    }
+    String collectionNameField = config.getCollectionNameField();
+    if (collectionNameField != null) {
+      fields.add(Schema.Field.of(collectionNameField, Schema.of(Schema.Type.STRING)));
+    }
 
     return Schema.recordOf("schema", fields);
   }
@@ -246,7 +396,15 @@ public class FirestoreSource extends BatchSource<Object, QueryDocumentSnapshot,
    * @return the instance of Schema.Field object
    */
   private Schema.Field transformToField(String name, Object value) {
-    Schema schema = createSchema(name, value);
+    return transformToField(name, name, value);
+  }
+
+  /**
+   * Creates field with nullable schema for the given value, where nested records are named by the given path so that
+   * record names are unique within the schema.
+   */
+  private Schema.Field transformToField(String name, String path, Object value) {
+    Schema schema = createSchema(path, value);
     if (schema == null) {
       return null;
     }
@@ -264,6 +422,17 @@ public class FirestoreSource extends BatchSource<Object, QueryDocumentSnapshot,
    * @return The instance of Schema object
    */
   private Schema createSchema(String name, Object value) {
+    if (value instanceof Map) {
+      return createMapSchema(name, (Map<?, ?>) value);
+    }
+    if (value instanceof List) {
+      return createArraySchema(name, (List<?>) value);
+    }
+    if (value instanceof GeoPoint) {
+      return Schema.recordOf(name,
+                             Schema.Field.of(FirestoreConstants.GEO_POINT_LATITUDE, Schema.of(Schema.Type.DOUBLE)),
+                             Schema.Field.of(FirestoreConstants.GEO_POINT_LONGITUDE, Schema.of(Schema.Type.DOUBLE)));
+    }
     Schema schema = SUPPORTED_SIMPLE_TYPES.get(value.getClass().getName());
     if (schema == null) {
       schema = SUPPORTED_SIMPLE_TYPES.get(String.class.getName());
@@ -277,4 +446,54 @@ public class FirestoreSource extends BatchSource<Object, QueryDocumentSnapshot,
       value.getClass().getName());
     return null;
   }
+
+  /**
+   * Creates a record schema for a Firestore map, with a field for every entry. Maps with keys that are not valid
+   * field names are given a map schema instead, with values of the type of the first value.
+   *
+   * @param name the path of the field, used as record name
+   * @param map Firestore map
+   * @return The instance of Schema object
+   */
+  private Schema createMapSchema(String name, Map<?, ?> map) {
+    List<Schema.Field> fields = new ArrayList<>(map.size());
+    boolean validNames = true;
+    for (Map.Entry<?, ?> entry : map.entrySet()) {
+      String key = entry.getKey().toString();
+      if (!FIELD_NAME_PATTERN.matcher(key).matches()) {
+        validNames = false;
+        break;
+      }
+      if (entry.getValue() != null) {
+        Schema.Field field = transformToField(key, name + "_" + key, entry.getValue());
+        if (field != null) {
+          fields.add(field);
+        }
+      }
+    }
+    if (validNames && !fields.isEmpty()) {
+      return Schema.recordOf(name, fields);
+    }
+
+    Schema valueSchema = map.values().stream().filter(Objects::nonNull).findFirst()
+      .map(value -> createSchema(name, value))
+      .orElse(null);
+    return Schema.mapOf(Schema.of(Schema.Type.STRING),
+                        Schema.nullableOf(valueSchema == null ? Schema.of(Schema.Type.STRING) : valueSchema));
+  }
+
+  /**
+   * Creates an array schema for a Firestore list, with elements of the type of the first element.
+   *
+   * @param name the path of the field, used to name records of the elements
+   * @param list Firestore list
+   * @return The instance of Schema object
+   */
+  private Schema createArraySchema(String name, List<?> list) {
+    Schema componentSchema = list.stream().filter(Objects::nonNull).findFirst()
+      .map(element -> createSchema(name, element))
+      .orElse(null);
+    return Schema.arrayOf(Schema.nullableOf(componentSchema == null ? Schema.of(Schema.Type.STRING)
+                                              : componentSchema));
+  }
 }
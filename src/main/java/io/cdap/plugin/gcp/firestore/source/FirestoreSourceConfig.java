@@ -16,6 +16,7 @@
 
 package io.cdap.plugin.gcp.firestore.source;
 
+import com.google.cloud.Timestamp;
 import com.google.cloud.firestore.Firestore;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Splitter;
@@ -28,19 +29,28 @@ import io.cdap.cdap.api.plugin.PluginConfig;
 import io.cdap.cdap.etl.api.FailureCollector;
 import io.cdap.plugin.gcp.firestore.common.FirestoreConfig;
 import io.cdap.plugin.gcp.firestore.exception.FirestoreInitializationException;
+import io.cdap.plugin.gcp.firestore.source.util.AggregationFunction;
+import io.cdap.plugin.gcp.firestore.source.util.AggregationInfo;
+import io.cdap.plugin.gcp.firestore.source.util.AggregationInfoParser;
 import io.cdap.plugin.gcp.firestore.source.util.FilterInfo;
 import io.cdap.plugin.gcp.firestore.source.util.FilterInfoParser;
 import io.cdap.plugin.gcp.firestore.source.util.FirestoreSourceConstants;
+import io.cdap.plugin.gcp.firestore.source.util.OrderByInfo;
+import io.cdap.plugin.gcp.firestore.source.util.OrderByInfoParser;
 import io.cdap.plugin.gcp.firestore.source.util.SourceQueryMode;
+import io.cdap.plugin.gcp.firestore.source.util.SourceReadMode;
 import io.cdap.plugin.gcp.firestore.util.FirestoreConstants;
 import io.cdap.plugin.gcp.firestore.util.FirestoreUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import javax.annotation.Nullable;
 
 /**
@@ -50,10 +60,56 @@ public class FirestoreSourceConfig extends FirestoreConfig {
   private static final Logger LOG = LoggerFactory.getLogger(FirestoreSourceConfig.class);
 
   @Name(FirestoreConstants.PROPERTY_COLLECTION)
-  @Description("Name of the database collection.")
+  @Description("Name of the database collection. Several collections can be read at once by listing them separated "
+    + "by commas, for example 'orders,customers'. A name ending with '*' reads all collections starting with it, "
+    + "for example 'sales_*'.")
   @Macro
   private String collection;
 
+  @Name(FirestoreSourceConstants.PROPERTY_COLLECTION_NAME_FIELD)
+  @Macro
+  @Nullable
+  @Description("Name of the string field set to the path of the collection of each document, to tell apart the "
+    + "documents of several collections. If no value is provided, the collection is not included in the output.")
+  private String collectionNameField;
+
+  @Name(FirestoreSourceConstants.PROPERTY_COLLECTION_GROUP)
+  @Macro
+  @Nullable
+  @Description("A flag to read all collections with the given collection id, wherever they are nested, for example "
+    + "the 'orders' subcollections of every user. The collection must then be a collection id without slashes.")
+  private String collectionGroup;
+
+  @Name(FirestoreSourceConstants.PROPERTY_PARENT_PATH_FIELD)
+  @Macro
+  @Nullable
+  @Description("Name of the string field set to the path of the document the collection of each document is nested "
+    + "under, for example 'users/alice'. The field is null for documents of root collections. If no value is "
+    + "provided, the parent path is not included in the output.")
+  private String parentPathField;
+
+  @Name(FirestoreSourceConstants.PROPERTY_DOCUMENT_PATH_FIELD)
+  @Macro
+  @Nullable
+  @Description("Name of the string field set to the full path of each document, for example "
+    + "'tenants/acme/projects/web'. If no value is provided, the path is not included in the output.")
+  private String documentPathField;
+
+  @Name(FirestoreSourceConstants.PROPERTY_TRAVERSAL_DEPTH)
+  @Macro
+  @Nullable
+  @Description("Number of subcollection levels read under each document of the collection. The subcollections of "
+    + "every document are listed and read down to this depth, with the fields of the schema but without the "
+    + "filters. If no value is provided, subcollections are not read.")
+  private Integer traversalDepth;
+
+  @Name(FirestoreSourceConstants.PROPERTY_TRAVERSAL_CONCURRENCY)
+  @Macro
+  @Nullable
+  @Description("Number of subcollections listed and read at the same time by a task when Traversal Depth is set. "
+    + "If no value is provided, 4 is used.")
+  private Integer traversalConcurrency;
+
   @Name(FirestoreSourceConstants.PROPERTY_INCLUDE_ID)
   @Description("A flag to specify document id to be included in output")
   @Macro
@@ -68,9 +124,10 @@ public class FirestoreSourceConfig extends FirestoreConfig {
 
   @Name(FirestoreSourceConstants.PROPERTY_QUERY_MODE)
   @Macro
-  @Description("Mode of query. The mode can be one of two values: "
+  @Description("Mode of query. The mode can be one of three values: "
     + "`Basic` - will allow user to specify documents to pull or skip, `Advanced` - will allow user to "
-    + "specify custom query.")
+    + "specify custom query, `Aggregation` - will compute aggregations of the documents matching the custom query "
+    + "without reading them.")
   private String queryMode;
 
   @Name(FirestoreSourceConstants.PROPERTY_PULL_DOCUMENTS)
@@ -90,13 +147,175 @@ public class FirestoreSourceConfig extends FirestoreConfig {
   @Nullable
   @Description("Specify the custom filter for fetching documents from Firestore Collection. " +
     "Supported operators are, EqualTo, NumericEqualTo, LessThan, LessThanOrEqualTo, GreaterThan, " +
-    "GreaterThanOrEqualTo. A filter must specify the operator with field it should filter on as well the value. " +
+    "GreaterThanOrEqualTo, NotEqualTo, In, NotIn, ArrayContains, ArrayContainsAny. " +
+    "A filter must specify the operator with field it should filter on as well the value. " +
     "Filters are specified using syntax: \"value:operator(field)[,value:operator(field)]\". " +
     "For example, 'CA:EqualTo(state),1000000:LessThan(population)' will apply two filters. " +
     "The first will create a filter as state = 'CA'." +
-    "The second will create a filter as population < 1000000.")
+    "The second will create a filter as population < 1000000. " +
+    "Values of In, NotIn and ArrayContainsAny are separated by '|'. Values can be typed as string(value), " +
+    "long(value), double(value), boolean(value) or timestamp(value). Filters can be combined with " +
+    "Or(filter,filter) and And(filter,filter).")
   private String filters;
 
+  @Name(FirestoreSourceConstants.PROPERTY_ORDER_BY)
+  @Macro
+  @Nullable
+  @Description("Fields to order the documents by, specified using syntax: \"field[:asc|desc][,field[:asc|desc]]\". "
+    + "For example, 'created:desc' reads the most recently created documents first. When an ordering or a limit is "
+    + "set, the collection is read by a single task.")
+  private String orderBy;
+
+  @Name(FirestoreSourceConstants.PROPERTY_START_AT)
+  @Macro
+  @Nullable
+  @Description("Values of the order by fields to start reading at, specified using syntax: \"value[,value]\". "
+    + "Values are strings unless typed as long(value), double(value), boolean(value) or timestamp(value).")
+  private String startAt;
+
+  @Name(FirestoreSourceConstants.PROPERTY_LIMIT)
+  @Macro
+  @Nullable
+  @Description("Maximum number of documents to read. If no value is provided, all documents are read.")
+  private Long limit;
+
+  @Name(FirestoreSourceConstants.PROPERTY_SNAPSHOT_READ)
+  @Macro
+  @Nullable
+  @Description("A flag to read all documents from a consistent snapshot of the database, taken when the run starts. "
+    + "Every task reads at the same time, so documents written while the run is in progress are neither missed nor "
+    + "read twice. Firestore keeps old versions of documents for one hour, or seven days with point-in-time recovery, "
+    + "so the run must finish within that time. Not supported with the Streaming read mode.")
+  private String snapshotRead;
+
+  @Name(FirestoreSourceConstants.PROPERTY_INCREMENTAL_FIELD)
+  @Macro
+  @Nullable
+  @Description("Timestamp field that incremental reads are driven by. When set, only documents with a value of the "
+    + "field later than the watermark stored by the last successful run are read, and the start time of the run "
+    + "is stored as the new watermark once it succeeds. Documents without the field are never read.")
+  private String incrementalField;
+
+  @Name(FirestoreSourceConstants.PROPERTY_WATERMARK_PATH)
+  @Macro
+  @Nullable
+  @Description("Path of the file holding the watermark of incremental reads, for example "
+    + "'gs://bucket/watermarks/orders'. If the file does not exist, all documents up to the start time of the run "
+    + "are read.")
+  private String watermarkPath;
+
+  @Name(FirestoreSourceConstants.PROPERTY_AGGREGATIONS)
+  @Macro
+  @Nullable
+  @Description("Aggregations to compute in the Aggregation mode, specified using syntax: "
+    + "\"function(field)[:alias][,function(field)[:alias]]\". Supported functions are count, sum and avg. "
+    + "For example, 'count():orders,sum(amount):total' outputs the number of documents as 'orders' and the sum of "
+    + "their amounts as 'total'. At most 5 aggregations can be computed. Sums and averages are output as doubles, "
+    + "so sums of integers are exact only up to 2^53.")
+  private String aggregations;
+
+  @Name(FirestoreSourceConstants.PROPERTY_GROUP_BY_FIELD)
+  @Macro
+  @Nullable
+  @Description("Field to group the aggregations by in the Aggregation mode. One record is output for each of the "
+    + "Group By Values, with the aggregations of the documents having that value.")
+  private String groupByField;
+
+  @Name(FirestoreSourceConstants.PROPERTY_GROUP_BY_VALUES)
+  @Macro
+  @Nullable
+  @Description("Values of the Group By Field to compute aggregations for, specified using syntax: "
+    + "\"value[,value]\". Values are strings unless typed as long(value), double(value), boolean(value) or "
+    + "timestamp(value).")
+  private String groupByValues;
+
+  @Name(FirestoreSourceConstants.PROPERTY_NUM_SPLITS)
+  @Macro
+  @Nullable
+  @Description("Desired number of splits to divide the collection into when reading. Firestore is asked for "
+    + "partition cursors of the collection and each cursor range is read by its own task. Firestore may return "
+    + "fewer partitions than requested. If no value is provided, the collection is read by a single task.")
+  private Integer numSplits;
+
+  @Name(FirestoreSourceConstants.PROPERTY_SPLIT_FIELD)
+  @Macro
+  @Nullable
+  @Description("Numeric or timestamp field to split the collection by. The values of the field are divided into "
+    + "Number of Splits ranges of equal width, each read by its own task, instead of splitting the collection by "
+    + "document name. Documents without a number or timestamp in the field are not read.")
+  private String splitField;
+
+  @Name(FirestoreSourceConstants.PROPERTY_SPLIT_LOWER_BOUND)
+  @Macro
+  @Nullable
+  @Description("Lowest value of the Split Field to divide, a number or a timestamp such as "
+    + "'2024-01-01T00:00:00Z'. Documents with lower values are read by the first split. If no value is provided, "
+    + "the lowest value of the field is looked up.")
+  private String splitLowerBound;
+
+  @Name(FirestoreSourceConstants.PROPERTY_SPLIT_UPPER_BOUND)
+  @Macro
+  @Nullable
+  @Description("Highest value of the Split Field to divide, a number or a timestamp. Documents with higher values "
+    + "are read by the last split. If no value is provided, the highest value of the field is looked up.")
+  private String splitUpperBound;
+
+  @Name(FirestoreSourceConstants.PROPERTY_TARGET_DOCUMENTS_PER_SPLIT)
+  @Macro
+  @Nullable
+  @Description("Number of documents each split should hold. The candidate ranges of the collection are counted "
+    + "when the run starts, ranges holding fewer documents are merged and field ranges holding more are divided, "
+    + "so that tasks read about the same number of documents. If no value is provided, splits are not sized.")
+  private Long targetDocumentsPerSplit;
+
+  @Name(FirestoreSourceConstants.PROPERTY_STRAGGLER_PARALLELISM)
+  @Macro
+  @Nullable
+  @Description("Number of ranges the unread tail of a slow split is divided into. The ranges are read at the same "
+    + "time by the task, so that a split holding far more documents than the others does not hold up the run. "
+    + "If no value is provided, the tail is not divided.")
+  private Integer stragglerParallelism;
+
+  @Name(FirestoreSourceConstants.PROPERTY_STRAGGLER_TIMEOUT)
+  @Macro
+  @Nullable
+  @Description("Number of seconds after which a split that is still being read is considered slow and the unread "
+    + "tail of its range is divided. Retried and speculative task attempts divide their range right away. "
+    + "If no value is provided, 300 seconds is used.")
+  private Integer stragglerTimeout;
+
+  @Name(FirestoreSourceConstants.PROPERTY_PAGE_SIZE)
+  @Macro
+  @Nullable
+  @Description("Number of documents fetched from Firestore in one request. Documents are read page by page, "
+    + "so memory used by a task is bounded by one page. If no value is provided, 1000 is used.")
+  private Integer pageSize;
+
+  @Name(FirestoreSourceConstants.PROPERTY_READ_MODE)
+  @Macro
+  @Nullable
+  @Description("How documents are fetched from Firestore. The mode can be one of three values: "
+    + "`Paged` - documents are fetched page by page and following pages are prefetched in the background, "
+    + "`Streaming` - documents are streamed by the server from a single query, at most one page of documents "
+    + "is buffered by the task, "
+    + "`Raw` - documents are streamed by the server from a single query and converted into records straight from "
+    + "the messages received, without building document snapshots first. If no value is provided, `Paged` is used.")
+  private String readMode;
+
+  @Name(FirestoreSourceConstants.PROPERTY_PREFETCH_DEPTH)
+  @Macro
+  @Nullable
+  @Description("Number of pages fetched in the background while the current page is being processed. "
+    + "Set to 0 to fetch every page only when it is needed. If no value is provided, 1 is used.")
+  private Integer prefetchDepth;
+
+  @Name(FirestoreSourceConstants.PROPERTY_PREFETCH_BUFFER_SIZE)
+  @Macro
+  @Nullable
+  @Description("Maximum estimated size in megabytes of the pages fetched in the background. No more pages are "
+    + "prefetched until the buffered pages are processed. If no value is provided, 64 is used.")
+  private Integer prefetchBufferSize;
+
   @Name(FirestoreSourceConstants.PROPERTY_SCHEMA)
   @Description("Schema of records output by the source.")
   @Nullable
@@ -174,6 +393,50 @@ public class FirestoreSourceConfig extends FirestoreConfig {
     return sourceQueryMode.isPresent() ? sourceQueryMode.get() : null;
   }
 
+  /**
+   * Returns the collections and collection prefixes to read.
+   */
+  public List<String> getCollections() {
+    return FirestoreInputFormat.parseCollections(collection);
+  }
+
+  /**
+   * Returns true if several collections are read, either because several are listed or because of a prefix.
+   */
+  public boolean isMultiCollection() {
+    List<String> collections = getCollections();
+    return collections.size() > 1
+      || collections.stream().anyMatch(c -> c.endsWith(FirestoreSourceConstants.COLLECTION_WILDCARD));
+  }
+
+  @Nullable
+  public String getCollectionNameField() {
+    return Strings.isNullOrEmpty(collectionNameField) ? null : collectionNameField.trim();
+  }
+
+  public boolean isCollectionGroup() {
+    return collectionGroup != null && collectionGroup.equalsIgnoreCase("true");
+  }
+
+  @Nullable
+  public String getParentPathField() {
+    return Strings.isNullOrEmpty(parentPathField) ? null : parentPathField.trim();
+  }
+
+  @Nullable
+  public String getDocumentPathField() {
+    return Strings.isNullOrEmpty(documentPathField) ? null : documentPathField.trim();
+  }
+
+  public int getTraversalDepth() {
+    return traversalDepth == null ? 0 : traversalDepth;
+  }
+
+  public int getTraversalConcurrency() {
+    return traversalConcurrency == null ? FirestoreSourceConstants.DEFAULT_TRAVERSAL_CONCURRENCY
+      : traversalConcurrency;
+  }
+
   @Nullable
   public String getPullDocuments() {
     return pullDocuments;
@@ -189,6 +452,180 @@ public class FirestoreSourceConfig extends FirestoreConfig {
     return filters;
   }
 
+  @Nullable
+  public String getOrderBy() {
+    return orderBy;
+  }
+
+  @Nullable
+  public String getStartAt() {
+    return startAt;
+  }
+
+  public long getLimit() {
+    return limit == null ? 0 : limit;
+  }
+
+  public boolean isSnapshotRead() {
+    return snapshotRead != null && snapshotRead.equalsIgnoreCase("true");
+  }
+
+  @Nullable
+  public String getIncrementalField() {
+    return Strings.isNullOrEmpty(incrementalField) ? null : incrementalField.trim();
+  }
+
+  @Nullable
+  public String getWatermarkPath() {
+    return Strings.isNullOrEmpty(watermarkPath) ? null : watermarkPath.trim();
+  }
+
+  public boolean isIncremental() {
+    return getIncrementalField() != null;
+  }
+
+  @Nullable
+  public String getAggregations() {
+    return aggregations;
+  }
+
+  @Nullable
+  public String getGroupByField() {
+    return Strings.isNullOrEmpty(groupByField) ? null : groupByField.trim();
+  }
+
+  @Nullable
+  public String getGroupByValues() {
+    return groupByValues;
+  }
+
+  /**
+   * Returns the schema of the records output in the Aggregation mode, with the group by field if one is set
+   * followed by a field for each aggregation.
+   *
+   * @param collector The failure collector to collect the errors
+   * @return the output schema, or null if the aggregations are invalid
+   */
+  @Nullable
+  public Schema getAggregationSchema(FailureCollector collector) {
+    List<AggregationInfo> aggregationInfos;
+    List<Object> groupValues;
+    try {
+      aggregationInfos = AggregationInfoParser.parseAggregationString(aggregations);
+      groupValues = FilterInfoParser.parseValues(groupByValues);
+    } catch (IllegalArgumentException e) {
+      collector.addFailure(e.getMessage(), null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_AGGREGATIONS)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_GROUP_BY_VALUES);
+      return null;
+    }
+
+    List<Schema.Field> fields = new ArrayList<>();
+    String groupField = getGroupByField();
+    if (groupField != null && !groupValues.isEmpty()) {
+      fields.add(Schema.Field.of(groupField, getValueSchema(groupValues.get(0))));
+    }
+    for (AggregationInfo aggregation : aggregationInfos) {
+      Schema schema = aggregation.getFunction() == AggregationFunction.COUNT
+        ? Schema.of(Schema.Type.LONG) : Schema.nullableOf(Schema.of(Schema.Type.DOUBLE));
+      fields.add(Schema.Field.of(aggregation.getAlias(), schema));
+    }
+    return fields.isEmpty() ? null : Schema.recordOf("aggregation", fields);
+  }
+
+  private static Schema getValueSchema(Object value) {
+    if (value instanceof Long) {
+      return Schema.of(Schema.Type.LONG);
+    }
+    if (value instanceof Double) {
+      return Schema.of(Schema.Type.DOUBLE);
+    }
+    if (value instanceof Boolean) {
+      return Schema.of(Schema.Type.BOOLEAN);
+    }
+    if (value instanceof Timestamp) {
+      return Schema.of(Schema.LogicalType.TIMESTAMP_MICROS);
+    }
+    return Schema.of(Schema.Type.STRING);
+  }
+
+  public int getNumSplits() {
+    return numSplits == null ? FirestoreSourceConstants.DEFAULT_NUM_SPLITS : numSplits;
+  }
+
+  @Nullable
+  public String getSplitField() {
+    return Strings.isNullOrEmpty(splitField) ? null : splitField.trim();
+  }
+
+  @Nullable
+  public String getSplitLowerBound() {
+    return Strings.isNullOrEmpty(splitLowerBound) ? null : splitLowerBound.trim();
+  }
+
+  @Nullable
+  public String getSplitUpperBound() {
+    return Strings.isNullOrEmpty(splitUpperBound) ? null : splitUpperBound.trim();
+  }
+
+  public long getTargetDocumentsPerSplit() {
+    return targetDocumentsPerSplit == null ? 0 : targetDocumentsPerSplit;
+  }
+
+  public int getStragglerParallelism() {
+    return stragglerParallelism == null ? FirestoreSourceConstants.DEFAULT_STRAGGLER_PARALLELISM
+      : stragglerParallelism;
+  }
+
+  public int getStragglerTimeout() {
+    return stragglerTimeout == null ? FirestoreSourceConstants.DEFAULT_STRAGGLER_TIMEOUT : stragglerTimeout;
+  }
+
+  public int getPageSize() {
+    return pageSize == null ? FirestoreSourceConstants.DEFAULT_PAGE_SIZE : pageSize;
+  }
+
+  /**
+   * Returns the read mode chosen.
+   *
+   * @param collector The failure collector to collect the errors
+   * @return An instance of SourceReadMode
+   */
+  public SourceReadMode getReadMode(FailureCollector collector) {
+    SourceReadMode mode = getReadMode();
+    if (mode != null) {
+      return mode;
+    }
+
+    collector.addFailure("Unsupported read mode value: " + readMode,
+                         String.format("Supported modes are: %s", SourceReadMode.getSupportedModes()))
+      .withConfigProperty(FirestoreSourceConstants.PROPERTY_READ_MODE);
+    collector.getOrThrowException();
+    return null;
+  }
+
+  /**
+   * Returns the read mode chosen, {@link SourceReadMode#PAGED} if none is set.
+   *
+   * @return An instance of SourceReadMode
+   */
+  public SourceReadMode getReadMode() {
+    if (Strings.isNullOrEmpty(readMode)) {
+      return SourceReadMode.PAGED;
+    }
+    Optional<SourceReadMode> sourceReadMode = SourceReadMode.fromValue(readMode);
+
+    return sourceReadMode.isPresent() ? sourceReadMode.get() : null;
+  }
+
+  public int getPrefetchDepth() {
+    return prefetchDepth == null ? FirestoreSourceConstants.DEFAULT_PREFETCH_DEPTH : prefetchDepth;
+  }
+
+  public int getPrefetchBufferSize() {
+    return prefetchBufferSize == null ? FirestoreSourceConstants.DEFAULT_PREFETCH_BUFFER_SIZE : prefetchBufferSize;
+  }
+
   public boolean isIncludeDocumentId() {
     return includeDocumentId != null && includeDocumentId.equalsIgnoreCase("true");
   }
@@ -230,6 +667,36 @@ public class FirestoreSourceConfig extends FirestoreConfig {
     validateCollection(collector);
     validateDocumentLists(collector);
     validateFilters(collector);
+    validateOrdering(collector);
+    validateIncremental(collector);
+    validateCollectionGroup(collector);
+    validateTraversal(collector);
+    validateNumSplits(collector);
+    validateSplitField(collector);
+    validateTargetDocumentsPerSplit(collector);
+    validateStraggler(collector);
+    validatePageSize(collector);
+    validatePrefetch(collector);
+    if (!containsMacro(FirestoreSourceConstants.PROPERTY_READ_MODE)) {
+      SourceReadMode mode = getReadMode(collector);
+      if (mode == SourceReadMode.STREAMING && !containsMacro(FirestoreSourceConstants.PROPERTY_SNAPSHOT_READ)
+        && isSnapshotRead()) {
+        collector.addFailure("Snapshot reads are not supported with the Streaming read mode.",
+                             "Use the Paged read mode.")
+          .withConfigProperty(FirestoreSourceConstants.PROPERTY_READ_MODE)
+          .withConfigProperty(FirestoreSourceConstants.PROPERTY_SNAPSHOT_READ);
+      }
+      if (mode == SourceReadMode.RAW) {
+        validateRawReadMode(collector);
+      }
+    }
+
+    if (!containsMacro(FirestoreSourceConstants.PROPERTY_QUERY_MODE)
+      && getQueryMode(collector) == SourceQueryMode.AGGREGATION) {
+      // the output schema is made of the aggregations, the configured schema is not used
+      validateAggregations(collector);
+      return;
+    }
 
     if (containsMacro(FirestoreSourceConstants.PROPERTY_SCHEMA)) {
       return;
@@ -238,6 +705,11 @@ public class FirestoreSourceConfig extends FirestoreConfig {
     Schema schema = getSchema(collector);
     if (schema != null) {
       validateSchema(schema, collector);
+      validateParentPathField(schema, collector);
+      validateStringField(schema, FirestoreSourceConstants.PROPERTY_DOCUMENT_PATH_FIELD, "Document path field",
+                          getDocumentPathField(), collector);
+      validateStringField(schema, FirestoreSourceConstants.PROPERTY_COLLECTION_NAME_FIELD, "Collection name field",
+                          getCollectionNameField(), collector);
     }
   }
 
@@ -285,9 +757,41 @@ public class FirestoreSourceConfig extends FirestoreConfig {
       return;
     }
 
-    if (Strings.isNullOrEmpty(getCollection())) {
+    List<String> collections = getCollections();
+    if (collections.isEmpty()) {
       collector.addFailure("Collection must be specified.", null)
         .withConfigProperty(FirestoreConstants.PROPERTY_COLLECTION);
+      return;
+    }
+    for (String name : collections) {
+      if (name.indexOf(FirestoreSourceConstants.COLLECTION_WILDCARD) != name.length() - 1
+        && name.contains(FirestoreSourceConstants.COLLECTION_WILDCARD)) {
+        collector.addFailure(String.format("Collection '%s' has a '*' before its end.", name),
+                             "A '*' is only allowed at the end of a collection name, to read all collections "
+                               + "starting with it.")
+          .withConfigProperty(FirestoreConstants.PROPERTY_COLLECTION);
+      }
+    }
+    if (!isMultiCollection()) {
+      return;
+    }
+
+    if (!containsMacro(FirestoreSourceConstants.PROPERTY_PULL_DOCUMENTS)
+      && !Strings.isNullOrEmpty(getPullDocuments())) {
+      collector.addFailure("Documents to pull are not supported when reading several collections.", null)
+        .withConfigProperty(FirestoreConstants.PROPERTY_COLLECTION)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_PULL_DOCUMENTS);
+    }
+    if (!containsMacro(FirestoreSourceConstants.PROPERTY_QUERY_MODE)
+      && getQueryMode() == SourceQueryMode.AGGREGATION) {
+      collector.addFailure("The Aggregation mode is not supported when reading several collections.", null)
+        .withConfigProperty(FirestoreConstants.PROPERTY_COLLECTION)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_QUERY_MODE);
+    }
+    if (!containsMacro(FirestoreSourceConstants.PROPERTY_COLLECTION_GROUP) && isCollectionGroup()) {
+      collector.addFailure("Collection groups are not supported when reading several collections.", null)
+        .withConfigProperty(FirestoreConstants.PROPERTY_COLLECTION)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_COLLECTION_GROUP);
     }
   }
 
@@ -316,8 +820,8 @@ public class FirestoreSourceConfig extends FirestoreConfig {
       if (logicalType != Schema.LogicalType.TIMESTAMP_MICROS) {
         collector.addFailure(String.format("Field '%s' is of unsupported type '%s'",
           fieldName, fieldSchema.getDisplayName()),
-          "Supported types are: string, double, boolean, bytes, long, record, " +
-            "array, union and timestamp.")
+          "Supported types are: string, double, boolean, bytes, int, long, record, " +
+            "array, map, union and timestamp.")
           .withOutputSchemaField(fieldName);
         return;
       }
@@ -328,6 +832,7 @@ public class FirestoreSourceConfig extends FirestoreConfig {
       case DOUBLE:
       case BOOLEAN:
       case BYTES:
+      case INT:
       case LONG:
       case NULL:
         return;
@@ -350,6 +855,16 @@ public class FirestoreSourceConfig extends FirestoreConfig {
         }
         validateFieldSchema(fieldName, componentSchema, collector);
 
+        return;
+      case MAP:
+        Schema keySchema = fieldSchema.getMapSchema().getKey();
+        if (Schema.Type.STRING != (keySchema.isNullable() ? keySchema.getNonNullable() : keySchema).getType()) {
+          collector.addFailure(String.format("Field '%s' is a map with keys of unsupported type '%s'", fieldName,
+            keySchema.getDisplayName()), "Firestore map keys are strings, ensure the map has string keys.")
+            .withOutputSchemaField(fieldName);
+          return;
+        }
+        validateFieldSchema(fieldName, fieldSchema.getMapSchema().getValue(), collector);
         return;
       case UNION:
         fieldSchema.getUnionSchemas().forEach(unionSchema -> validateFieldSchema(fieldName, unionSchema, collector));
@@ -357,8 +872,8 @@ public class FirestoreSourceConfig extends FirestoreConfig {
       default:
         collector.addFailure(String.format("Field '%s' is of unsupported type '%s'",
           fieldName, fieldSchema.getDisplayName()),
-          "Supported types are: string, double, boolean, bytes, long, record, " +
-            "array, union and timestamp.")
+          "Supported types are: string, double, boolean, bytes, int, long, record, " +
+            "array, map, union and timestamp.")
           .withOutputSchemaField(fieldName);
     }
   }
@@ -417,11 +932,385 @@ public class FirestoreSourceConfig extends FirestoreConfig {
     } else if (mode == SourceQueryMode.ADVANCED) {
       List<FilterInfo> filters = getFiltersAsList(collector);
       collector.getOrThrowException();
-      if (filters.isEmpty()) {
+      if (filters.isEmpty() && (containsMacro(FirestoreSourceConstants.PROPERTY_INCREMENTAL_FIELD)
+        || !isIncremental())) {
         collector.addFailure("In case of Mode=Advanced, Filters must contain at least one filter", null)
           .withConfigProperty(FirestoreSourceConstants.PROPERTY_CUSTOM_QUERY);
         return;
       }
+    } else if (mode == SourceQueryMode.AGGREGATION) {
+      // filters are optional, aggregations are computed over the whole collection without them
+      getFiltersAsList(collector);
+    }
+  }
+
+  private void validateIncremental(FailureCollector collector) {
+    if (containsMacro(FirestoreSourceConstants.PROPERTY_INCREMENTAL_FIELD)
+      || containsMacro(FirestoreSourceConstants.PROPERTY_WATERMARK_PATH)) {
+      return;
+    }
+
+    if (isIncremental() != (getWatermarkPath() != null)) {
+      collector.addFailure("Incremental Field and Watermark Path must be given together.", null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_INCREMENTAL_FIELD)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_WATERMARK_PATH);
+    }
+
+    if (isIncremental() && !containsMacro(FirestoreSourceConstants.PROPERTY_PULL_DOCUMENTS)
+      && !Strings.isNullOrEmpty(getPullDocuments())) {
+      collector.addFailure("Incremental reads are not supported with Documents to pull.", null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_INCREMENTAL_FIELD)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_PULL_DOCUMENTS);
+    }
+  }
+
+  private void validateCollectionGroup(FailureCollector collector) {
+    if (containsMacro(FirestoreSourceConstants.PROPERTY_COLLECTION_GROUP) || !isCollectionGroup()) {
+      return;
+    }
+
+    if (!containsMacro(FirestoreConstants.PROPERTY_COLLECTION) && !Strings.isNullOrEmpty(getCollection())
+      && getCollection().contains("/")) {
+      collector.addFailure(String.format("Collection '%s' is not a collection id.", getCollection()),
+                           "Specify the collection id, without the path of its parent document.")
+        .withConfigProperty(FirestoreConstants.PROPERTY_COLLECTION)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_COLLECTION_GROUP);
+    }
+
+    if (!containsMacro(FirestoreSourceConstants.PROPERTY_PULL_DOCUMENTS)
+      && !Strings.isNullOrEmpty(getPullDocuments())) {
+      // document ids are only unique within their collection, the same id may exist under every parent
+      collector.addFailure("Documents to pull are not supported when reading a collection group.", null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_COLLECTION_GROUP)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_PULL_DOCUMENTS);
+    }
+  }
+
+  private void validateParentPathField(Schema schema, FailureCollector collector) {
+    if (containsMacro(FirestoreSourceConstants.PROPERTY_PARENT_PATH_FIELD) || getParentPathField() == null) {
+      return;
+    }
+
+    Schema.Field field = schema.getField(getParentPathField());
+    if (field == null) {
+      collector.addFailure(String.format("Parent path field '%s' is not in the schema.", getParentPathField()),
+                           "Add the field to the schema.")
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_PARENT_PATH_FIELD);
+      return;
+    }
+    if (!field.getSchema().isNullable() || field.getSchema().getNonNullable().getType() != Schema.Type.STRING) {
+      collector.addFailure(String.format("Parent path field '%s' is of type '%s'.", field.getName(),
+                                         field.getSchema().getDisplayName()),
+                           "Ensure the field is of type nullable string.")
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_PARENT_PATH_FIELD)
+        .withOutputSchemaField(field.getName());
+    }
+  }
+
+  /**
+   * Validates that the field set by the given property is a string field of the schema.
+   */
+  private void validateStringField(Schema schema, String property, String label, @Nullable String fieldName,
+                                   FailureCollector collector) {
+    if (containsMacro(property) || fieldName == null) {
+      return;
+    }
+
+    Schema.Field field = schema.getField(fieldName);
+    if (field == null) {
+      collector.addFailure(String.format("%s '%s' is not in the schema.", label, fieldName),
+                           "Add the field to the schema.")
+        .withConfigProperty(property);
+      return;
+    }
+    Schema fieldSchema = field.getSchema().isNullable() ? field.getSchema().getNonNullable() : field.getSchema();
+    if (fieldSchema.getType() != Schema.Type.STRING) {
+      collector.addFailure(String.format("%s '%s' is of type '%s'.", label, field.getName(),
+                                         fieldSchema.getDisplayName()), "Ensure the field is of type string.")
+        .withConfigProperty(property)
+        .withOutputSchemaField(field.getName());
+    }
+  }
+
+  /**
+   * Documents are only read raw from queries, documents to pull are looked up and traversals read subcollections
+   * through document references.
+   */
+  private void validateRawReadMode(FailureCollector collector) {
+    if (!containsMacro(FirestoreSourceConstants.PROPERTY_PULL_DOCUMENTS)
+      && !Strings.isNullOrEmpty(getPullDocuments())) {
+      collector.addFailure("Documents to pull are not supported with the Raw read mode.",
+                           "Use the Paged or Streaming read mode.")
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_READ_MODE)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_PULL_DOCUMENTS);
+    }
+    if (!containsMacro(FirestoreSourceConstants.PROPERTY_TRAVERSAL_DEPTH) && getTraversalDepth() > 0) {
+      collector.addFailure("Traversal is not supported with the Raw read mode.",
+                           "Use the Paged or Streaming read mode.")
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_READ_MODE)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_TRAVERSAL_DEPTH);
+    }
+  }
+
+  private void validateTraversal(FailureCollector collector) {
+    if (!containsMacro(FirestoreSourceConstants.PROPERTY_TRAVERSAL_CONCURRENCY) && getTraversalConcurrency() < 1) {
+      collector.addFailure("Traversal Concurrency must be at least 1.", null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_TRAVERSAL_CONCURRENCY);
+    }
+    if (containsMacro(FirestoreSourceConstants.PROPERTY_TRAVERSAL_DEPTH)) {
+      return;
+    }
+    if (getTraversalDepth() < 0) {
+      collector.addFailure("Traversal Depth must not be negative.", null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_TRAVERSAL_DEPTH);
+      return;
+    }
+    if (getTraversalDepth() == 0) {
+      return;
+    }
+
+    if (!containsMacro(FirestoreSourceConstants.PROPERTY_QUERY_MODE)
+      && getQueryMode() == SourceQueryMode.AGGREGATION) {
+      collector.addFailure("Traversal is not supported in the Aggregation mode.", null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_TRAVERSAL_DEPTH)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_QUERY_MODE);
+    }
+    if (!containsMacro(FirestoreSourceConstants.PROPERTY_PULL_DOCUMENTS)
+      && !Strings.isNullOrEmpty(getPullDocuments())) {
+      collector.addFailure("Traversal is not supported with Documents to pull.", null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_TRAVERSAL_DEPTH)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_PULL_DOCUMENTS);
+    }
+    // the ordering and limit would only apply to the documents of the collection, not to their subcollections
+    if ((!containsMacro(FirestoreSourceConstants.PROPERTY_ORDER_BY) && !Strings.isNullOrEmpty(getOrderBy()))
+      || (!containsMacro(FirestoreSourceConstants.PROPERTY_START_AT) && !Strings.isNullOrEmpty(getStartAt()))
+      || (!containsMacro(FirestoreSourceConstants.PROPERTY_LIMIT) && getLimit() > 0)) {
+      collector.addFailure("Traversal is not supported with Order By, Start At or Limit.", null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_TRAVERSAL_DEPTH)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_ORDER_BY)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_START_AT)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_LIMIT);
+    }
+  }
+
+  private void validateSplitField(FailureCollector collector) {
+    if (containsMacro(FirestoreSourceConstants.PROPERTY_SPLIT_FIELD) || getSplitField() == null) {
+      return;
+    }
+
+    if (!containsMacro(FirestoreSourceConstants.PROPERTY_PULL_DOCUMENTS)
+      && !Strings.isNullOrEmpty(getPullDocuments())) {
+      collector.addFailure("Split Field is not supported with Documents to pull.", null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_SPLIT_FIELD)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_PULL_DOCUMENTS);
+    }
+    if (!containsMacro(FirestoreSourceConstants.PROPERTY_QUERY_MODE)
+      && getQueryMode() == SourceQueryMode.AGGREGATION) {
+      collector.addFailure("Split Field is not supported in the Aggregation mode.", null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_SPLIT_FIELD)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_QUERY_MODE);
+    }
+    // an ordering or a limit makes the collection be read by a single task
+    if ((!containsMacro(FirestoreSourceConstants.PROPERTY_ORDER_BY) && !Strings.isNullOrEmpty(getOrderBy()))
+      || (!containsMacro(FirestoreSourceConstants.PROPERTY_START_AT) && !Strings.isNullOrEmpty(getStartAt()))
+      || (!containsMacro(FirestoreSourceConstants.PROPERTY_LIMIT) && getLimit() > 0)) {
+      collector.addFailure("Split Field is not supported with Order By, Start At or Limit.", null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_SPLIT_FIELD)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_ORDER_BY)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_START_AT)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_LIMIT);
+    }
+
+    Object lower = validateSplitBound(FirestoreSourceConstants.PROPERTY_SPLIT_LOWER_BOUND, getSplitLowerBound(),
+                                      collector);
+    Object upper = validateSplitBound(FirestoreSourceConstants.PROPERTY_SPLIT_UPPER_BOUND, getSplitUpperBound(),
+                                      collector);
+    if (lower == null || upper == null) {
+      return;
+    }
+    boolean timestamps = lower instanceof Timestamp;
+    if (timestamps != upper instanceof Timestamp) {
+      collector.addFailure("Split bounds must both be numbers or both be timestamps.", null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_SPLIT_LOWER_BOUND)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_SPLIT_UPPER_BOUND);
+    } else if (timestamps ? ((Timestamp) lower).compareTo((Timestamp) upper) >= 0
+      : ((Number) lower).doubleValue() >= ((Number) upper).doubleValue()) {
+      collector.addFailure("Split Lower Bound must be lower than Split Upper Bound.", null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_SPLIT_LOWER_BOUND)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_SPLIT_UPPER_BOUND);
+    }
+  }
+
+  @Nullable
+  private Object validateSplitBound(String property, @Nullable String bound, FailureCollector collector) {
+    if (containsMacro(property)) {
+      return null;
+    }
+    try {
+      return FieldRangePartitioner.parseBound(bound);
+    } catch (IllegalArgumentException e) {
+      collector.addFailure(e.getMessage(), "Specify a number or a timestamp such as '2024-01-01T00:00:00Z'.")
+        .withConfigProperty(property);
+      return null;
+    }
+  }
+
+  private void validateAggregations(FailureCollector collector) {
+    if (!containsMacro(FirestoreSourceConstants.PROPERTY_PULL_DOCUMENTS)
+      && !containsMacro(FirestoreSourceConstants.PROPERTY_SKIP_DOCUMENTS)
+      && (!Strings.isNullOrEmpty(getPullDocuments()) || !Strings.isNullOrEmpty(getSkipDocuments()))) {
+      collector.addFailure("In case of Mode=Aggregation, Both Documents to pull Or Documents to skip " +
+        "must be empty", null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_PULL_DOCUMENTS)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_SKIP_DOCUMENTS);
+    }
+
+    if (containsMacro(FirestoreSourceConstants.PROPERTY_AGGREGATIONS)
+      || containsMacro(FirestoreSourceConstants.PROPERTY_GROUP_BY_FIELD)
+      || containsMacro(FirestoreSourceConstants.PROPERTY_GROUP_BY_VALUES)) {
+      return;
+    }
+
+    List<AggregationInfo> aggregationInfos;
+    List<Object> groupValues;
+    try {
+      aggregationInfos = AggregationInfoParser.parseAggregationString(aggregations);
+      groupValues = FilterInfoParser.parseValues(groupByValues);
+    } catch (IllegalArgumentException e) {
+      collector.addFailure(e.getMessage(), null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_AGGREGATIONS)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_GROUP_BY_VALUES);
+      return;
+    }
+
+    if (aggregationInfos.isEmpty() || aggregationInfos.size() > FirestoreSourceConstants.MAX_AGGREGATIONS) {
+      collector.addFailure(String.format("In case of Mode=Aggregation, between 1 and %d aggregations must be given.",
+                                         FirestoreSourceConstants.MAX_AGGREGATIONS), null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_AGGREGATIONS);
+    }
+
+    Set<String> names = new HashSet<>();
+    String groupField = getGroupByField();
+    if (groupField != null) {
+      names.add(groupField);
+    }
+    for (AggregationInfo aggregation : aggregationInfos) {
+      if (!names.add(aggregation.getAlias())) {
+        collector.addFailure(String.format("Output field '%s' is given more than once.", aggregation.getAlias()),
+                             "Give the aggregations distinct aliases.")
+          .withConfigProperty(FirestoreSourceConstants.PROPERTY_AGGREGATIONS);
+      }
+    }
+
+    if (groupField == null && !groupValues.isEmpty()) {
+      collector.addFailure("Group By Values are given without a Group By Field.", null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_GROUP_BY_FIELD);
+    } else if (groupField != null && groupValues.isEmpty()) {
+      collector.addFailure("Group By Values must be given with a Group By Field.",
+                           "Firestore can't list the distinct values of a field, so the groups must be listed.")
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_GROUP_BY_VALUES);
+    } else if (groupValues.stream().map(Object::getClass).distinct().count() > 1) {
+      collector.addFailure("Group By Values must all be of the same type.", null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_GROUP_BY_VALUES);
+    }
+  }
+
+  private void validateOrdering(FailureCollector collector) {
+    if (containsMacro(FirestoreSourceConstants.PROPERTY_ORDER_BY)
+      || containsMacro(FirestoreSourceConstants.PROPERTY_START_AT)
+      || containsMacro(FirestoreSourceConstants.PROPERTY_LIMIT)
+      || containsMacro(FirestoreSourceConstants.PROPERTY_PULL_DOCUMENTS)) {
+      return;
+    }
+
+    List<OrderByInfo> orderByInfos;
+    try {
+      orderByInfos = OrderByInfoParser.parseOrderByString(orderBy);
+    } catch (IllegalArgumentException e) {
+      collector.addFailure(e.getMessage(), null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_ORDER_BY);
+      return;
+    }
+
+    try {
+      int startAtCount = FilterInfoParser.parseValues(startAt).size();
+      if (startAtCount > orderByInfos.size()) {
+        collector.addFailure("Start at must not have more values than there are order by fields.", null)
+          .withConfigProperty(FirestoreSourceConstants.PROPERTY_START_AT)
+          .withConfigProperty(FirestoreSourceConstants.PROPERTY_ORDER_BY);
+      }
+    } catch (IllegalArgumentException e) {
+      collector.addFailure(e.getMessage(), null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_START_AT);
+    }
+
+    if (limit != null && limit < 1) {
+      collector.addFailure("Limit must be greater than 0.", null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_LIMIT);
+    }
+
+    if (!Strings.isNullOrEmpty(getPullDocuments()) && (!orderByInfos.isEmpty() || limit != null)) {
+      collector.addFailure("Order by and limit are not supported with Documents to pull.", null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_PULL_DOCUMENTS)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_ORDER_BY)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_LIMIT);
+    }
+  }
+
+  private void validateNumSplits(FailureCollector collector) {
+    if (containsMacro(FirestoreSourceConstants.PROPERTY_NUM_SPLITS)) {
+      return;
+    }
+
+    if (getNumSplits() < 1) {
+      collector.addFailure("Number of splits must be greater than 0.", null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_NUM_SPLITS);
+    }
+  }
+
+  private void validateTargetDocumentsPerSplit(FailureCollector collector) {
+    if (containsMacro(FirestoreSourceConstants.PROPERTY_TARGET_DOCUMENTS_PER_SPLIT)
+      || targetDocumentsPerSplit == null) {
+      return;
+    }
+
+    if (targetDocumentsPerSplit < 1) {
+      collector.addFailure("Target documents per split must be greater than 0.", null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_TARGET_DOCUMENTS_PER_SPLIT);
+    }
+  }
+
+  private void validateStraggler(FailureCollector collector) {
+    if (!containsMacro(FirestoreSourceConstants.PROPERTY_STRAGGLER_PARALLELISM) && getStragglerParallelism() < 1) {
+      collector.addFailure("Straggler parallelism must be greater than 0.", null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_STRAGGLER_PARALLELISM);
+    }
+    if (!containsMacro(FirestoreSourceConstants.PROPERTY_STRAGGLER_TIMEOUT) && getStragglerTimeout() < 0) {
+      collector.addFailure("Straggler timeout must not be negative.", null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_STRAGGLER_TIMEOUT);
+    }
+  }
+
+  private void validatePageSize(FailureCollector collector) {
+    if (containsMacro(FirestoreSourceConstants.PROPERTY_PAGE_SIZE)) {
+      return;
+    }
+
+    if (getPageSize() < 1) {
+      collector.addFailure("Page size must be greater than 0.", null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_PAGE_SIZE);
+    }
+  }
+
+  private void validatePrefetch(FailureCollector collector) {
+    if (!containsMacro(FirestoreSourceConstants.PROPERTY_PREFETCH_DEPTH) && getPrefetchDepth() < 0) {
+      collector.addFailure("Prefetch depth must not be negative.", null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_PREFETCH_DEPTH);
+    }
+
+    if (!containsMacro(FirestoreSourceConstants.PROPERTY_PREFETCH_BUFFER_SIZE) && getPrefetchBufferSize() < 1) {
+      collector.addFailure("Prefetch buffer size must be greater than 0.", null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_PREFETCH_BUFFER_SIZE);
     }
   }
 
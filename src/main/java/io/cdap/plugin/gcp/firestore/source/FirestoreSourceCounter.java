@@ -0,0 +1,29 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+/**
+ * Counters of the documents read by {@link FirestoreRecordReader}, reported for every split.
+ */
+public enum FirestoreSourceCounter {
+  // Documents returned by the record reader.
+  DOCUMENTS_READ,
+  // Documents fetched from Firestore and dropped because they are in the list of documents to skip.
+  DOCUMENTS_SKIPPED,
+  // Pages of documents fetched from Firestore.
+  PAGES_FETCHED
+}
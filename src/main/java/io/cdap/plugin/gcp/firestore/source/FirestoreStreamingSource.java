@@ -0,0 +1,74 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import io.cdap.cdap.api.annotation.Description;
+import io.cdap.cdap.api.annotation.Name;
+import io.cdap.cdap.api.annotation.Plugin;
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.cdap.etl.api.FailureCollector;
+import io.cdap.cdap.etl.api.PipelineConfigurer;
+import io.cdap.cdap.etl.api.StageConfigurer;
+import io.cdap.cdap.etl.api.streaming.StreamingContext;
+import io.cdap.cdap.etl.api.streaming.StreamingSource;
+import io.cdap.plugin.gcp.firestore.util.FirestoreConstants;
+import org.apache.spark.streaming.api.java.JavaDStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link StreamingSource} that listens to the changes of the documents of a Firestore collection and converts
+ * each change into a {@link StructuredRecord} using the specified Schema.
+ */
+@Plugin(type = StreamingSource.PLUGIN_TYPE)
+@Name(FirestoreConstants.PLUGIN_NAME)
+@Description("Firestore Streaming Source will listen to changes of documents in Firestore and convert each changed "
+  + "document into a StructuredRecord with the help of the specified Schema.")
+public class FirestoreStreamingSource extends StreamingSource<StructuredRecord> {
+  private static final Logger LOG = LoggerFactory.getLogger(FirestoreStreamingSource.class);
+
+  private final FirestoreStreamingSourceConfig config;
+
+  public FirestoreStreamingSource(FirestoreStreamingSourceConfig config) {
+    this.config = config;
+  }
+
+  @Override
+  public void configurePipeline(PipelineConfigurer pipelineConfigurer) {
+    super.configurePipeline(pipelineConfigurer);
+
+    LOG.debug("Validate config during `configurePipeline` stage: {}", config);
+    StageConfigurer stageConfigurer = pipelineConfigurer.getStageConfigurer();
+    FailureCollector collector = stageConfigurer.getFailureCollector();
+    config.validate(collector);
+    collector.getOrThrowException();
+
+    stageConfigurer.setOutputSchema(config.getSchema(collector));
+  }
+
+  @Override
+  public JavaDStream<StructuredRecord> getStream(StreamingContext context) throws Exception {
+    FailureCollector collector = context.getFailureCollector();
+    config.validate(collector);
+    collector.getOrThrowException();
+
+    Schema schema = config.getSchema(collector);
+    context.registerLineage(config.getReferenceName(), schema);
+    return context.getSparkStreamingContext().receiverStream(new FirestoreSnapshotReceiver(config, schema));
+  }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import com.google.common.base.Strings;
+import io.cdap.cdap.api.annotation.Description;
+import io.cdap.cdap.api.annotation.Macro;
+import io.cdap.cdap.api.annotation.Name;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.cdap.etl.api.FailureCollector;
+import io.cdap.plugin.gcp.firestore.common.FirestoreConfig;
+import io.cdap.plugin.gcp.firestore.source.util.FilterInfo;
+import io.cdap.plugin.gcp.firestore.source.util.FilterInfoParser;
+import io.cdap.plugin.gcp.firestore.source.util.FirestoreSourceConstants;
+import io.cdap.plugin.gcp.firestore.util.FirestoreConstants;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * Defines the config of the Firestore Streaming Source.
+ */
+public class FirestoreStreamingSourceConfig extends FirestoreConfig {
+
+  @Name(FirestoreConstants.PROPERTY_COLLECTION)
+  @Description("Name of the database collection.")
+  @Macro
+  private String collection;
+
+  @Name(FirestoreSourceConstants.PROPERTY_CUSTOM_QUERY)
+  @Description("Specify the filters to listen on. Only changes to documents matching all the filters are emitted. "
+    + "Example: 20:GreaterThan(Age),active:EqualTo(Status)")
+  @Macro
+  @Nullable
+  private String filters;
+
+  @Name(FirestoreSourceConstants.PROPERTY_INCLUDE_ID)
+  @Description("A flag to specify document id to be included in output")
+  @Macro
+  private String includeDocumentId;
+
+  @Name(FirestoreSourceConstants.PROPERTY_ID_ALIAS)
+  @Description("Name of the field to set as the id field. This value is ignored if the `Include Document Id` is set to "
+    + "`false`. If no value is provided, `__id__` is used.")
+  @Macro
+  @Nullable
+  private String idAlias;
+
+  @Name(FirestoreSourceConstants.PROPERTY_CHANGE_TYPE_FIELD)
+  @Description("Name of the string field set to the type of change of the document, one of `added`, `modified` "
+    + "or `removed`. If no value is provided, the type of change is not included in the output.")
+  @Macro
+  @Nullable
+  private String changeTypeField;
+
+  @Name(FirestoreSourceConstants.PROPERTY_EMIT_INITIAL)
+  @Description("A flag to specify whether the documents matching the filters when the stream starts are emitted "
+    + "as added documents. If set to `false`, only the changes made after the stream started are emitted.")
+  @Macro
+  @Nullable
+  private String emitInitialDocuments;
+
+  @Name(FirestoreSourceConstants.PROPERTY_SCHEMA)
+  @Description("Schema of the data to read.")
+  @Macro
+  private String schema;
+
+  /**
+   * Constructor for FirestoreStreamingSourceConfig object.
+   *
+   * @param referenceName        the reference name
+   * @param project              the project id
+   * @param serviceFilePath      the service file path
+   * @param databaseName         the database name
+   * @param collection           the collection id
+   * @param filters              the filters to listen on
+   * @param includeDocumentId    the included document id
+   * @param idAlias              the id alias
+   * @param changeTypeField      the field set to the type of change
+   * @param emitInitialDocuments whether the documents matching the filters when the stream starts are emitted
+   * @param schema               the schema
+   */
+  public FirestoreStreamingSourceConfig(
+      String referenceName, String project, String serviceFilePath, String databaseName, String collection,
+      String filters, String includeDocumentId, String idAlias, String changeTypeField, String emitInitialDocuments,
+      String schema) {
+    this.referenceName = referenceName;
+    this.project = project;
+    this.serviceFilePath = serviceFilePath;
+    this.databaseName = databaseName;
+    this.collection = collection;
+    this.filters = filters;
+    this.includeDocumentId = includeDocumentId;
+    this.idAlias = idAlias;
+    this.changeTypeField = changeTypeField;
+    this.emitInitialDocuments = emitInitialDocuments;
+    this.schema = schema;
+  }
+
+  public String getCollection() {
+    return collection;
+  }
+
+  @Nullable
+  public String getFilters() {
+    return filters;
+  }
+
+  public boolean isIncludeDocumentId() {
+    return includeDocumentId != null && includeDocumentId.equalsIgnoreCase("true");
+  }
+
+  public String getIdAlias() {
+    return Strings.isNullOrEmpty(idAlias) ? FirestoreConstants.ID_PROPERTY_NAME : idAlias;
+  }
+
+  @Nullable
+  public String getChangeTypeField() {
+    return Strings.isNullOrEmpty(changeTypeField) ? null : changeTypeField;
+  }
+
+  public boolean isEmitInitialDocuments() {
+    return emitInitialDocuments == null || !emitInitialDocuments.equalsIgnoreCase("false");
+  }
+
+  /**
+   * Return the Schema.
+   *
+   * @param collector the FailureCollector
+   * @return The Schema
+   */
+  @Nullable
+  public Schema getSchema(FailureCollector collector) {
+    if (Strings.isNullOrEmpty(schema)) {
+      return null;
+    }
+    try {
+      return Schema.parseJson(schema);
+    } catch (IOException e) {
+      collector.addFailure("Invalid schema: " + e.getMessage(), null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_SCHEMA);
+      collector.getOrThrowException();
+      return null;
+    }
+  }
+
+  /**
+   * Returns the list of filters to listen on, empty if there are none or filters contain a macro.
+   *
+   * @param collector the FailureCollector
+   * @return the list of FilterInfo
+   */
+  public List<FilterInfo> getFiltersAsList(FailureCollector collector) {
+    if (containsMacro(FirestoreSourceConstants.PROPERTY_CUSTOM_QUERY) || Strings.isNullOrEmpty(filters)) {
+      return Collections.emptyList();
+    }
+
+    try {
+      return FilterInfoParser.parseFilterString(filters);
+    } catch (Exception e) {
+      collector.addFailure(e.getMessage(), null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_CUSTOM_QUERY);
+      return Collections.emptyList();
+    }
+  }
+
+  /**
+   * Validates {@link FirestoreStreamingSourceConfig} instance.
+   */
+  @Override
+  public void validate(FailureCollector collector) {
+    super.validate(collector);
+    if (!containsMacro(FirestoreConstants.PROPERTY_COLLECTION) && Strings.isNullOrEmpty(collection)) {
+      collector.addFailure("Collection must be specified.", null)
+        .withConfigProperty(FirestoreConstants.PROPERTY_COLLECTION);
+    }
+    getFiltersAsList(collector);
+
+    if (containsMacro(FirestoreSourceConstants.PROPERTY_SCHEMA)) {
+      return;
+    }
+    Schema schema = getSchema(collector);
+    if (schema == null || schema.getFields() == null || schema.getFields().isEmpty()) {
+      collector.addFailure("Source schema must contain at least one field", null)
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_SCHEMA);
+      return;
+    }
+    validateChangeTypeField(schema, collector);
+  }
+
+  private void validateChangeTypeField(Schema schema, FailureCollector collector) {
+    if (containsMacro(FirestoreSourceConstants.PROPERTY_CHANGE_TYPE_FIELD) || getChangeTypeField() == null) {
+      return;
+    }
+
+    Schema.Field field = schema.getField(getChangeTypeField());
+    if (field == null) {
+      collector.addFailure(String.format("Change type field '%s' is not in the schema.", getChangeTypeField()),
+                           "Add the field to the schema.")
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_CHANGE_TYPE_FIELD);
+      return;
+    }
+    Schema fieldSchema = field.getSchema().isNullable() ? field.getSchema().getNonNullable() : field.getSchema();
+    if (fieldSchema.getType() != Schema.Type.STRING) {
+      collector.addFailure(String.format("Change type field '%s' is of type '%s'.", field.getName(),
+                                         fieldSchema.getDisplayName()), "Ensure the field is of type string.")
+        .withConfigProperty(FirestoreSourceConstants.PROPERTY_CHANGE_TYPE_FIELD)
+        .withOutputSchemaField(field.getName());
+    }
+  }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.Blob;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.GeoPoint;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * Fetches documents of a query page by page with {@code startAfter(lastDocument).limit(pageSize)}.
+ * While a page is being processed, up to {@code prefetchDepth} following pages are requested in the background,
+ * as long as the estimated size of the buffered pages stays below {@code maxBufferedBytes}.
+ * Since every page sets its own limit, the limit of the query itself is given separately and spread over the pages.
+ */
+class PagedDocumentFetcher implements FirestoreDocumentFetcher {
+  private final FirestoreReadExecutor executor;
+  private final Query query;
+  private final int pageSize;
+  private final long limit;
+  private final int prefetchDepth;
+  private final long maxBufferedBytes;
+
+  // All the fields below are guarded by this object.
+  private final Deque<Page> pages = new ArrayDeque<>();
+  private long bufferedBytes;
+  private QueryDocumentSnapshot lastDocument;
+  private long fetchedDocuments;
+  private ApiFuture<QuerySnapshot> pendingPage;
+  private int pendingPageSize;
+  private boolean lastPageRequested;
+  private boolean closed;
+  private Throwable failure;
+
+  /**
+   * Constructor for PagedDocumentFetcher object.
+   *
+   * @param executor the executor of the page requests
+   * @param query the query to fetch the documents of
+   * @param pageSize the number of documents fetched in one request
+   * @param limit the maximum number of documents to fetch, 0 for no limit
+   * @param prefetchDepth the number of pages fetched ahead of the page being processed
+   * @param maxBufferedBytes the maximum estimated size of the pages fetched ahead
+   */
+  PagedDocumentFetcher(FirestoreReadExecutor executor, Query query, int pageSize, long limit, int prefetchDepth,
+                       long maxBufferedBytes) {
+    this.executor = executor;
+    this.query = query;
+    this.pageSize = pageSize;
+    this.limit = limit;
+    this.prefetchDepth = prefetchDepth;
+    this.maxBufferedBytes = maxBufferedBytes;
+  }
+
+  /**
+   * Requests the first page right away instead of on the first call to {@link #nextPage()}, so that several
+   * fetchers can be started to read concurrently.
+   */
+  synchronized void start() {
+    requestNextPageIfNeeded();
+  }
+
+  @Nullable
+  @Override
+  public synchronized List<QueryDocumentSnapshot> nextPage() throws IOException, InterruptedException {
+    requestNextPageIfNeeded();
+    while (pages.isEmpty()) {
+      if (failure != null) {
+        throw new IOException("Failed to fetch documents from Firestore: " + failure.getMessage(), failure);
+      }
+      if (pendingPage == null && lastPageRequested) {
+        return null;
+      }
+      wait();
+    }
+
+    Page page = pages.poll();
+    bufferedBytes -= page.bytes;
+    requestNextPageIfNeeded();
+    return page.documents;
+  }
+
+  @Override
+  public synchronized List<QueryDocumentSnapshot> getBufferedDocuments() {
+    List<QueryDocumentSnapshot> documents = new ArrayList<>();
+    for (Page page : pages) {
+      documents.addAll(page.documents);
+    }
+    return documents;
+  }
+
+  @Override
+  public synchronized void close() {
+    closed = true;
+    if (pendingPage != null) {
+      pendingPage.cancel(true);
+      pendingPage = null;
+    }
+    pages.clear();
+    notifyAll();
+  }
+
+  /**
+   * Requests the page that follows the last requested one, if no request is in flight and either there is
+   * no buffered page or the prefetch limits allow to buffer one more page.
+   */
+  private void requestNextPageIfNeeded() {
+    if (pendingPage != null || lastPageRequested || closed || failure != null) {
+      return;
+    }
+    if (!pages.isEmpty() && (pages.size() >= prefetchDepth || bufferedBytes >= maxBufferedBytes)) {
+      return;
+    }
+
+    int size = limit > 0 ? (int) Math.min(pageSize, limit - fetchedDocuments) : pageSize;
+    Query pageQuery = lastDocument == null ? query : query.startAfter(lastDocument);
+    ApiFuture<QuerySnapshot> future = executor.get(pageQuery.limit(size));
+    pendingPage = future;
+    pendingPageSize = size;
+    ApiFutures.addCallback(future, new ApiFutureCallback<QuerySnapshot>() {
+      @Override
+      public void onSuccess(QuerySnapshot snapshot) {
+        onPageFetched(future, snapshot.getDocuments());
+      }
+
+      @Override
+      public void onFailure(Throwable t) {
+        onPageFailed(future, t);
+      }
+    }, MoreExecutors.directExecutor());
+  }
+
+  private synchronized void onPageFetched(ApiFuture<QuerySnapshot> future, List<QueryDocumentSnapshot> documents) {
+    if (future != pendingPage) {
+      return;
+    }
+    pendingPage = null;
+    fetchedDocuments += documents.size();
+    lastPageRequested = documents.size() < pendingPageSize || (limit > 0 && fetchedDocuments >= limit);
+    if (!documents.isEmpty()) {
+      lastDocument = documents.get(documents.size() - 1);
+      Page page = new Page(documents);
+      pages.add(page);
+      bufferedBytes += page.bytes;
+    }
+    requestNextPageIfNeeded();
+    notifyAll();
+  }
+
+  private synchronized void onPageFailed(ApiFuture<QuerySnapshot> future, Throwable t) {
+    if (future != pendingPage) {
+      return;
+    }
+    pendingPage = null;
+    failure = t;
+    notifyAll();
+  }
+
+  /**
+   * Estimates the storage size of a document following the Firestore storage size calculation rules.
+   */
+  private static long estimateSize(QueryDocumentSnapshot document) {
+    long size = document.getReference().getPath().length() + 16 + 32;
+    for (Map.Entry<String, Object> entry : document.getData().entrySet()) {
+      size += entry.getKey().length() + 1 + estimateSize(entry.getValue());
+    }
+    return size;
+  }
+
+  private static long estimateSize(@Nullable Object value) {
+    if (value == null || value instanceof Boolean) {
+      return 1;
+    }
+    if (value instanceof Number || value instanceof Date || value instanceof Timestamp) {
+      return 8;
+    }
+    if (value instanceof String) {
+      return ((String) value).getBytes(StandardCharsets.UTF_8).length + 1;
+    }
+    if (value instanceof Blob) {
+      return ((Blob) value).toByteString().size();
+    }
+    if (value instanceof GeoPoint) {
+      return 16;
+    }
+    if (value instanceof DocumentReference) {
+      return ((DocumentReference) value).getPath().length() + 16;
+    }
+    if (value instanceof List) {
+      long size = 0;
+      for (Object element : (List<?>) value) {
+        size += estimateSize(element);
+      }
+      return size;
+    }
+    if (value instanceof Map) {
+      long size = 0;
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        size += entry.getKey().toString().length() + 1 + estimateSize(entry.getValue());
+      }
+      return size;
+    }
+    return 8;
+  }
+
+  /**
+   * A page of fetched documents along with its estimated size. Decoding every document just to size it would cost
+   * as much as converting it, so the size of the page is extrapolated from its first document.
+   */
+  private static final class Page {
+    private final List<QueryDocumentSnapshot> documents;
+    private final long bytes;
+
+    private Page(List<QueryDocumentSnapshot> documents) {
+      this.documents = documents;
+      this.bytes = documents.isEmpty() ? 0 : estimateSize(documents.get(0)) * documents.size();
+    }
+  }
+}
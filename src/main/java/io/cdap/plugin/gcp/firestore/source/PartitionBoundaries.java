@@ -0,0 +1,149 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.QueryPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Predicate;
+
+/**
+ * Finds the document cursors that divide a collection into partitions. Partition queries are only supported for
+ * collection groups, so the cursors of a single collection, or of a range of it, are picked out of the partitions
+ * of the whole group. When other collections with the same id hold most of the group, most cursors are dropped, so
+ * the partitions are requested again, oversampled in proportion to the share of cursors that were dropped.
+ */
+final class PartitionBoundaries {
+  private static final Logger LOG = LoggerFactory.getLogger(PartitionBoundaries.class);
+  // Maximum number of partitions requested from Firestore at once.
+  static final int MAX_PARTITIONS = 10000;
+
+  private PartitionBoundaries() {
+  }
+
+  /**
+   * Requests partitions of the collection group of the given collection.
+   *
+   * @param db the Firestore service
+   * @param collection the collection, or the collection id of the group
+   * @param partitionCount the number of partitions to request
+   * @return the pending partitions
+   */
+  static ApiFuture<List<QueryPartition>> request(Firestore db, String collection, int partitionCount) {
+    String collectionId = collection.substring(collection.lastIndexOf('/') + 1);
+    return db.collectionGroup(collectionId).getPartitions(Math.min(MAX_PARTITIONS, partitionCount));
+  }
+
+  /**
+   * Returns the paths of the documents that start the partitions of a collection and are accepted by the filter,
+   * in the order of the partitions. If fewer cursors than wanted are accepted because others were dropped, the
+   * partitions are requested once more, oversampled by the share of cursors dropped. At most the wanted number of
+   * cursors is returned, spread evenly over the accepted ones.
+   *
+   * @param db the Firestore service
+   * @param collection the collection, or the collection id of the group
+   * @param pending the partitions requested with {@link #request}
+   * @param partitionCount the number of partitions requested
+   * @param wanted the number of cursors wanted
+   * @param accept whether a cursor belongs to the collection or range being divided
+   * @return the paths of the accepted cursors
+   * @throws IOException if the partitions could not be computed
+   */
+  static List<String> get(Firestore db, String collection, ApiFuture<List<QueryPartition>> pending,
+                          int partitionCount, int wanted, Predicate<DocumentReference> accept)
+    throws IOException, InterruptedException {
+    List<DocumentReference> cursors = getCursors(collection, pending);
+    List<String> accepted = filter(cursors, accept);
+    int oversampled = oversample(partitionCount, cursors.size(), accepted.size(), wanted);
+    if (oversampled > partitionCount) {
+      LOG.debug("{} of {} partition cursors belong to '{}', requesting {} partitions", accepted.size(),
+                cursors.size(), collection, oversampled);
+      accepted = filter(getCursors(collection, request(db, collection, oversampled)), accept);
+    }
+    return pickEvenly(accepted, wanted);
+  }
+
+  /**
+   * Picks the given number of cursors spread evenly over the given ones.
+   */
+  static List<String> pickEvenly(List<String> cursors, int count) {
+    if (cursors.size() <= count) {
+      return cursors;
+    }
+    List<String> picked = new ArrayList<>(count);
+    for (int i = 1; i <= count; i++) {
+      picked.add(cursors.get(i * cursors.size() / (count + 1)));
+    }
+    return picked;
+  }
+
+  /**
+   * Returns the number of partitions to request again so that about the wanted number of cursors are accepted,
+   * or the number requested if requesting again would not help.
+   *
+   * @param partitionCount the number of partitions requested
+   * @param returned the number of cursors returned
+   * @param accepted the number of cursors accepted
+   * @param wanted the number of cursors wanted
+   * @return the number of partitions to request
+   */
+  static int oversample(int partitionCount, int returned, int accepted, int wanted) {
+    if (accepted >= wanted || accepted == returned || partitionCount >= MAX_PARTITIONS) {
+      // all cursors were kept, so the collection holds no more partitions
+      return partitionCount;
+    }
+    // partitions are about the same size, so the number of accepted cursors grows with the number requested.
+    // One is added to both sides so that a collection or range without any accepted cursor is still oversampled.
+    return (int) Math.min(MAX_PARTITIONS, (long) Math.ceil((double) partitionCount * (wanted + 1) / (accepted + 1)));
+  }
+
+  private static List<DocumentReference> getCursors(String collection, ApiFuture<List<QueryPartition>> pending)
+    throws IOException, InterruptedException {
+    List<QueryPartition> partitions;
+    try {
+      partitions = pending.get();
+    } catch (ExecutionException e) {
+      throw new IOException(String.format("Failed to get partitions for collection '%s'", collection), e);
+    }
+    List<DocumentReference> cursors = new ArrayList<>(partitions.size());
+    for (QueryPartition partition : partitions) {
+      Object[] startAt = partition.getStartAt();
+      if (startAt != null && startAt.length > 0 && startAt[0] instanceof DocumentReference) {
+        cursors.add((DocumentReference) startAt[0]);
+      }
+    }
+    return cursors;
+  }
+
+  private static List<String> filter(List<DocumentReference> cursors, Predicate<DocumentReference> accept) {
+    List<String> accepted = new ArrayList<>();
+    for (DocumentReference cursor : cursors) {
+      if (accept.test(cursor)) {
+        accepted.add(cursor.getPath());
+      }
+    }
+    return accepted;
+  }
+}
@@ -16,28 +16,31 @@
 
 package io.cdap.plugin.gcp.firestore.source;
 
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.Blob;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.GeoPoint;
 import com.google.cloud.firestore.QueryDocumentSnapshot;
 import io.cdap.cdap.api.data.format.StructuredRecord;
-import io.cdap.cdap.api.data.format.UnexpectedFormatException;
 import io.cdap.cdap.api.data.schema.Schema;
 
 import java.nio.ByteBuffer;
-import java.time.Instant;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
-import java.util.Objects;
-import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-import javax.annotation.Nullable;
+import java.util.Map;
 
 /**
- * Transforms {@link QueryDocumentSnapshot} to {@link StructuredRecord}.
+ * Transforms {@link QueryDocumentSnapshot} and other {@link DocumentSnapshot}s to {@link StructuredRecord}, with the
+ * schema compiled once into a {@link RecordConversionPlan} over the values of the snapshots.
  */
 public class QueryDocumentSnapshotToRecordTransformer {
-  private final Schema schema;
-  private final Boolean includeDocumentId;
-  private final String idAlias;
+  private static final SnapshotValueReader VALUE_READER = new SnapshotValueReader();
+
+  private final RecordConversionPlan<Object> plan;
+  private final RecordConversionPlan.DocumentReader<DocumentSnapshot, Object> documentReader;
 
   /**
    * Constructor for QueryDocumentSnapshotToRecordTransformer object.
@@ -46,116 +49,145 @@ public class QueryDocumentSnapshotToRecordTransformer {
    * @param idAlias the id alias
    */
   public QueryDocumentSnapshotToRecordTransformer(Schema schema, Boolean includeDocumentId, String idAlias) {
-    this.schema = schema;
-    this.includeDocumentId = includeDocumentId;
-    this.idAlias = idAlias;
+    this.plan = new RecordConversionPlan<>(schema, includeDocumentId, idAlias, VALUE_READER);
+    FieldPath[] paths = plan.getFieldNames().stream().map(FieldPath::of).toArray(FieldPath[]::new);
+    this.documentReader = new RecordConversionPlan.DocumentReader<DocumentSnapshot, Object>() {
+      @Override
+      public String getId(DocumentSnapshot document) {
+        return document.getId();
+      }
+
+      @Override
+      public Object getField(DocumentSnapshot document, int index) {
+        return document.get(paths[index]);
+      }
+    };
+  }
+
+  /**
+   * Transforms given {@link DocumentSnapshot} to {@link StructuredRecord}.
+   *
+   * @param queryDocumentSnapshot document snapshot object to be transformed.
+   * @return {@link StructuredRecord} that corresponds to the given {@link DocumentSnapshot}.
+   */
+  public StructuredRecord transform(DocumentSnapshot queryDocumentSnapshot) {
+    return plan.convert(queryDocumentSnapshot, documentReader, Collections.emptyMap());
   }
 
   /**
-   * Transforms given {@link QueryDocumentSnapshot} to {@link StructuredRecord}.
+   * Transforms given {@link DocumentSnapshot} to {@link StructuredRecord}, with the values of some fields
+   * given instead of taken from the document.
    *
-   * @param queryDocumentSnapshot queryDocumentSnapshot object to be transformed.
-   * @return {@link StructuredRecord} that corresponds to the given {@link QueryDocumentSnapshot}.
+   * @param queryDocumentSnapshot document snapshot object to be transformed.
+   * @param values values of the top level fields that are not taken from the document.
+   * @return {@link StructuredRecord} that corresponds to the given {@link DocumentSnapshot}.
    */
-  public StructuredRecord transform(QueryDocumentSnapshot queryDocumentSnapshot) {
-    return convertRecord(null, queryDocumentSnapshot, schema);
+  public StructuredRecord transform(DocumentSnapshot queryDocumentSnapshot, Map<String, Object> values) {
+    return plan.convert(queryDocumentSnapshot, documentReader, values);
   }
 
-  private StructuredRecord convertRecord(@Nullable String fieldName, QueryDocumentSnapshot object, Schema schema) {
-    StructuredRecord.Builder builder = StructuredRecord.builder(schema);
-    List<Schema.Field> fields = Objects.requireNonNull(schema.getFields(), "Schema fields cannot be empty");
-    for (Schema.Field field : fields) {
-      if (includeDocumentId && idAlias.equals(field.getName())) {
-        builder.set(field.getName(), object.getId());
-      } else {
-        // Use full field name for nested records to construct meaningful errors messages.
-        // Full field names will be in the following format: 'record_field_name.nested_record_field_name'
-        String fullFieldName = fieldName != null ? String.format("%s.%s", fieldName, field.getName()) :
-          field.getName();
-
-        Schema nonNullableSchema = field.getSchema().isNullable() ? field.getSchema().getNonNullable()
-          : field.getSchema();
-        Object value = extractValue(fullFieldName, object.get(field.getName()), nonNullableSchema);
-        if (!field.getSchema().isNullable() && value == null) {
-          builder.set(field.getName(), "");
-        } else {
-          builder.set(field.getName(), value);
-        }
+  /**
+   * Reads the values of document snapshots, which are Java objects.
+   */
+  private static final class SnapshotValueReader implements RecordConversionPlan.ValueReader<Object> {
+
+    @Override
+    public boolean isNull(Object value) {
+      return value == null;
+    }
+
+    @Override
+    public Timestamp toTimestamp(String fieldName, Object value) {
+      if (value instanceof Timestamp) {
+        return (Timestamp) value;
+      }
+      if (value instanceof Date) {
+        return Timestamp.of((Date) value);
       }
+      throw typeMismatch(fieldName, Date.class.getName() + ", " + Timestamp.class.getName(), value);
+    }
+
+    @Override
+    public ByteBuffer toBytes(String fieldName, Object value) {
+      if (value instanceof Blob) {
+        // the bytes of the blob are shared, not copied
+        return ((Blob) value).toByteString().asReadOnlyByteBuffer();
+      }
+      if (value instanceof ByteBuffer) {
+        return (ByteBuffer) value;
+      }
+      ensureTypeValid(fieldName, value, byte[].class);
+      return ByteBuffer.wrap((byte[]) value);
     }
-    return builder.build();
-  }
 
-  private Object extractValue(String fieldName, Object object, Schema schema) {
+    @Override
+    public boolean toBoolean(String fieldName, Object value) {
+      ensureTypeValid(fieldName, value, Boolean.class);
+      return (Boolean) value;
+    }
 
-    if (object == null) {
-      return null;
+    @Override
+    public long toLong(String fieldName, Object value) {
+      if (value instanceof Integer) {
+        return (Integer) value;
+      }
+      ensureTypeValid(fieldName, value, Long.class);
+      return (Long) value;
     }
 
-    Schema.LogicalType fieldLogicalType = schema.getLogicalType();
-    if (fieldLogicalType != null) {
-      switch (fieldLogicalType) {
-        case TIMESTAMP_MILLIS:
-          ensureTypeValid(fieldName, object, Date.class);
-          Instant instant = ((Date) object).toInstant();
-          long millis = TimeUnit.SECONDS.toMillis(instant.getEpochSecond());
-          return Math.addExact(millis, TimeUnit.NANOSECONDS.toMillis(instant.getNano()));
-        case TIMESTAMP_MICROS:
-          ensureTypeValid(fieldName, object, Date.class);
-          Instant dateInstant = ((Date) object).toInstant();
-          long micros = TimeUnit.SECONDS.toMicros(dateInstant.getEpochSecond());
-          return Math.addExact(micros, TimeUnit.NANOSECONDS.toMicros(dateInstant.getNano()));
-        case DECIMAL:
-          ByteBuffer value = (ByteBuffer) object;
-          byte[] bytes = new byte[value.remaining()];
-          int pos = value.position();
-          value.get(bytes);
-          value.position(pos);
-          return bytes;
-        default:
-          throw new UnexpectedFormatException(String.format("Field '%s' is of unsupported type '%s'",
-            fieldName, fieldLogicalType.name().toLowerCase()));
+    @Override
+    public double toDouble(String fieldName, Object value) {
+      ensureTypeValid(fieldName, value, Double.class);
+      return (Double) value;
+    }
+
+    @Override
+    public String toString(String fieldName, Object value) {
+      if (value instanceof DocumentReference) {
+        return ((DocumentReference) value).getPath();
       }
+      ensureTypeValid(fieldName, value, String.class);
+      return (String) value;
     }
 
-    Schema.Type fieldType = schema.getType();
-    switch (fieldType) {
-      case BOOLEAN:
-        ensureTypeValid(fieldName, object, Boolean.class);
-        return object;
-      case INT:
-        ensureTypeValid(fieldName, object, Integer.class);
-        return object;
-      case DOUBLE:
-        ensureTypeValid(fieldName, object, Double.class);
-        return object;
-      case BYTES:
-        ensureTypeValid(fieldName, object, byte[].class);
-        return object;
-      case LONG:
-        ensureTypeValid(fieldName, object, Long.class);
-        return object;
-      case STRING:
-        ensureTypeValid(fieldName, object, String.class);
-        return object;
-      default:
-        throw new UnexpectedFormatException(String.format("Field '%s' is of unsupported type '%s'", fieldName,
-          fieldType.name().toLowerCase()));
+    @Override
+    public boolean isGeoPoint(Object value) {
+      return value instanceof GeoPoint;
     }
-  }
 
-  private void ensureTypeValid(String fieldName, Object value, Class... expectedTypes) {
-    for (Class expectedType : expectedTypes) {
-      if (expectedType.isInstance(value)) {
-        return;
+    @Override
+    public double getLatitude(Object value) {
+      return ((GeoPoint) value).getLatitude();
+    }
+
+    @Override
+    public double getLongitude(Object value) {
+      return ((GeoPoint) value).getLongitude();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<Object> toList(String fieldName, Object value) {
+      ensureTypeValid(fieldName, value, List.class);
+      return (List<Object>) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Map<String, Object> toMap(String fieldName, Object value) {
+      // keys of Firestore maps are always strings
+      ensureTypeValid(fieldName, value, Map.class);
+      return (Map<String, Object>) value;
+    }
+
+    private static void ensureTypeValid(String fieldName, Object value, Class<?> expectedType) {
+      if (!expectedType.isInstance(value)) {
+        throw typeMismatch(fieldName, expectedType.getName(), value);
       }
     }
 
-    String expectedTypeNames = Stream.of(expectedTypes)
-      .map(Class::getName)
-      .collect(Collectors.joining(", "));
-    throw new UnexpectedFormatException(
-      String.format("Document field '%s' is expected to be of type '%s', but found a '%s'.", fieldName,
-        expectedTypeNames, value.getClass().getSimpleName()));
+    private static RuntimeException typeMismatch(String fieldName, String expectedTypeNames, Object value) {
+      return RecordConversionPlan.typeMismatch(fieldName, expectedTypeNames, value.getClass().getSimpleName());
+    }
   }
 }
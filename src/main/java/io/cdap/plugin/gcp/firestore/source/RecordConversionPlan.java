@@ -0,0 +1,354 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import com.google.cloud.Timestamp;
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.format.UnexpectedFormatException;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.plugin.gcp.firestore.util.FirestoreConstants;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+
+/**
+ * Conversion of Firestore documents into {@link StructuredRecord}s of a schema. The schema is compiled once into a
+ * converter for every field, with types resolved and error messages prepared, so that converting a document does no
+ * schema inspection or string formatting. Nested Firestore maps are converted into records or maps and arrays into
+ * lists by converters compiled the same way, whatever their depth.
+ * Values are read through a {@link ValueReader}, so the same plan converts the values of document snapshots and the
+ * {@link com.google.firestore.v1.Value} messages received from Firestore.
+ *
+ * @param <V> the type of the values of documents
+ */
+final class RecordConversionPlan<V> {
+  private final Schema schema;
+  private final ValueReader<V> reader;
+  private final FieldConverter<V>[] fields;
+
+  /**
+   * Constructor for RecordConversionPlan object.
+   *
+   * @param schema the schema of the records
+   * @param includeDocumentId whether the document id is set to the field named by the id alias
+   * @param idAlias the id alias
+   * @param reader the reader of the values of documents
+   */
+  RecordConversionPlan(Schema schema, boolean includeDocumentId, @Nullable String idAlias, ValueReader<V> reader) {
+    this.schema = schema;
+    this.reader = reader;
+    this.fields = compileFields(null, schema, includeDocumentId, idAlias);
+  }
+
+  /**
+   * Returns the names of the top level fields, in the order their values are read by {@link DocumentReader}s.
+   */
+  List<String> getFieldNames() {
+    List<String> names = new ArrayList<>(fields.length);
+    for (FieldConverter<V> field : fields) {
+      names.add(field.name);
+    }
+    return names;
+  }
+
+  /**
+   * Converts a document into a record, with the values of some fields given instead of taken from the document.
+   *
+   * @param document the document
+   * @param documentReader the reader of the id and the top level values of the document
+   * @param values values of the top level fields that are not taken from the document
+   * @param <D> the type of the document
+   * @return the record
+   */
+  <D> StructuredRecord convert(D document, DocumentReader<D, V> documentReader, Map<String, Object> values) {
+    StructuredRecord.Builder builder = StructuredRecord.builder(schema);
+    boolean hasValues = !values.isEmpty();
+    for (int i = 0; i < fields.length; i++) {
+      FieldConverter<V> field = fields[i];
+      if (hasValues && values.containsKey(field.name)) {
+        builder.set(field.name, values.get(field.name));
+      } else if (field.documentId) {
+        builder.set(field.name, documentReader.getId(document));
+      } else {
+        Object value = field.converter.convert(documentReader.getField(document, i));
+        builder.set(field.name, value == null && !field.nullable ? "" : value);
+      }
+    }
+    return builder.build();
+  }
+
+  @SuppressWarnings("unchecked")
+  private FieldConverter<V>[] compileFields(@Nullable String recordName, Schema schema, boolean includeDocumentId,
+                                            @Nullable String idAlias) {
+    List<Schema.Field> schemaFields = Objects.requireNonNull(schema.getFields(), "Schema fields cannot be empty");
+    FieldConverter<V>[] converters = new FieldConverter[schemaFields.size()];
+    for (int i = 0; i < converters.length; i++) {
+      Schema.Field field = schemaFields.get(i);
+      // Use full field name for nested records to construct meaningful errors messages.
+      String fieldName = recordName == null ? field.getName() : recordName + "." + field.getName();
+      boolean documentId = includeDocumentId && field.getName().equals(idAlias);
+      converters[i] = new FieldConverter<>(field, documentId, nullSafe(compile(fieldName, field.getSchema())));
+    }
+    return converters;
+  }
+
+  /**
+   * Compiles the conversion of the values of a field with the given schema.
+   *
+   * @param fieldName the full name of the field, used in error messages. Nested fields are named
+   *                  'record_field_name.nested_record_field_name'.
+   * @param fieldSchema the schema of the field
+   * @return the converter of the values of the field
+   */
+  private ValueConverter<V> compile(String fieldName, Schema fieldSchema) {
+    Schema schema = fieldSchema.isNullable() ? fieldSchema.getNonNullable() : fieldSchema;
+    Schema.LogicalType fieldLogicalType = schema.getLogicalType();
+    if (fieldLogicalType != null) {
+      switch (fieldLogicalType) {
+        case TIMESTAMP_MILLIS:
+          return value -> {
+            Timestamp timestamp = reader.toTimestamp(fieldName, value);
+            long millis = TimeUnit.SECONDS.toMillis(timestamp.getSeconds());
+            return Math.addExact(millis, TimeUnit.NANOSECONDS.toMillis(timestamp.getNanos()));
+          };
+        case TIMESTAMP_MICROS:
+          return value -> {
+            Timestamp timestamp = reader.toTimestamp(fieldName, value);
+            long micros = TimeUnit.SECONDS.toMicros(timestamp.getSeconds());
+            return Math.addExact(micros, TimeUnit.NANOSECONDS.toMicros(timestamp.getNanos()));
+          };
+        case DECIMAL:
+          return value -> {
+            ByteBuffer buffer = reader.toBytes(fieldName, value);
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            return bytes;
+          };
+        default:
+          return unsupported(fieldName, fieldLogicalType.name());
+      }
+    }
+
+    Schema.Type fieldType = schema.getType();
+    switch (fieldType) {
+      case RECORD:
+        return compileRecord(fieldName, schema);
+      case ARRAY:
+        return compileArray(fieldName, Objects.requireNonNull(schema.getComponentSchema()));
+      case MAP:
+        return compileMap(fieldName, Objects.requireNonNull(schema.getMapSchema()));
+      case BOOLEAN:
+        return value -> reader.toBoolean(fieldName, value);
+      case INT:
+        return value -> {
+          long number = reader.toLong(fieldName, value);
+          if (number < Integer.MIN_VALUE || number > Integer.MAX_VALUE) {
+            throw new UnexpectedFormatException(
+              String.format("Document field '%s' holds %d, which does not fit in an int.", fieldName, number));
+          }
+          return (int) number;
+        };
+      case DOUBLE:
+        return value -> reader.toDouble(fieldName, value);
+      case BYTES:
+        return value -> reader.toBytes(fieldName, value);
+      case LONG:
+        return value -> reader.toLong(fieldName, value);
+      case STRING:
+        return value -> reader.toString(fieldName, value);
+      default:
+        return unsupported(fieldName, fieldType.name());
+    }
+  }
+
+  /**
+   * Returns a converter of Firestore maps into records, where every entry of the map is the value of the field
+   * with the same name. Entries without a field in the schema are ignored. Geo points are converted into records
+   * with latitude and longitude fields.
+   */
+  private ValueConverter<V> compileRecord(String fieldName, Schema schema) {
+    FieldConverter<V>[] fields = compileFields(fieldName, schema, false, null);
+    boolean hasLatitude = schema.getField(FirestoreConstants.GEO_POINT_LATITUDE) != null;
+    boolean hasLongitude = schema.getField(FirestoreConstants.GEO_POINT_LONGITUDE) != null;
+    return value -> {
+      if (reader.isGeoPoint(value)) {
+        StructuredRecord.Builder builder = StructuredRecord.builder(schema);
+        if (hasLatitude) {
+          builder.set(FirestoreConstants.GEO_POINT_LATITUDE, reader.getLatitude(value));
+        }
+        if (hasLongitude) {
+          builder.set(FirestoreConstants.GEO_POINT_LONGITUDE, reader.getLongitude(value));
+        }
+        return builder.build();
+      }
+      Map<String, V> map = reader.toMap(fieldName, value);
+      StructuredRecord.Builder builder = StructuredRecord.builder(schema);
+      for (FieldConverter<V> field : fields) {
+        builder.set(field.name, field.converter.convert(map.get(field.name)));
+      }
+      return builder.build();
+    };
+  }
+
+  /**
+   * Returns a converter of Firestore arrays into lists.
+   */
+  private ValueConverter<V> compileArray(String fieldName, Schema componentSchema) {
+    ValueConverter<V> component = nullSafe(compile(fieldName + "[]", componentSchema));
+    return value -> {
+      List<V> list = reader.toList(fieldName, value);
+      List<Object> array = new ArrayList<>(list.size());
+      for (V element : list) {
+        array.add(component.convert(element));
+      }
+      return array;
+    };
+  }
+
+  /**
+   * Returns a converter of Firestore maps into maps with string keys.
+   */
+  private ValueConverter<V> compileMap(String fieldName, Map.Entry<Schema, Schema> mapSchema) {
+    Schema keySchema = mapSchema.getKey().isNullable() ? mapSchema.getKey().getNonNullable() : mapSchema.getKey();
+    if (keySchema.getType() != Schema.Type.STRING) {
+      return unsupported(fieldName, "map with " + keySchema.getDisplayName() + " keys");
+    }
+    ValueConverter<V> converter = nullSafe(compile(fieldName + "{}", mapSchema.getValue()));
+    return value -> {
+      Map<String, V> map = reader.toMap(fieldName, value);
+      Map<String, Object> result = new LinkedHashMap<>(map.size() * 4 / 3 + 1);
+      for (Map.Entry<String, V> entry : map.entrySet()) {
+        result.put(entry.getKey(), converter.convert(entry.getValue()));
+      }
+      return result;
+    };
+  }
+
+  /**
+   * Makes a converter return null for missing and null values.
+   */
+  private ValueConverter<V> nullSafe(ValueConverter<V> converter) {
+    return value -> value == null || reader.isNull(value) ? null : converter.convert(value);
+  }
+
+  /**
+   * Returns a converter that fails on any value, so that fields of unsupported types only fail when they are set.
+   */
+  private static <V> ValueConverter<V> unsupported(String fieldName, String typeName) {
+    String message = String.format("Field '%s' is of unsupported type '%s'", fieldName, typeName.toLowerCase());
+    return value -> {
+      throw new UnexpectedFormatException(message);
+    };
+  }
+
+  /**
+   * Returns the error of a value that is not of the type of its field.
+   *
+   * @param fieldName the full name of the field
+   * @param expectedTypeNames the names of the types expected
+   * @param foundTypeName the name of the type of the value
+   * @return the error
+   */
+  static UnexpectedFormatException typeMismatch(String fieldName, String expectedTypeNames, String foundTypeName) {
+    return new UnexpectedFormatException(
+      String.format("Document field '%s' is expected to be of type '%s', but found a '%s'.", fieldName,
+                    expectedTypeNames, foundTypeName));
+  }
+
+  /**
+   * Reads the values of documents as the types of the schema. Every method but {@link #isNull} is only given
+   * values that are not null, and fails with an {@link UnexpectedFormatException} on values of other types.
+   *
+   * @param <V> the type of the values
+   */
+  interface ValueReader<V> {
+
+    boolean isNull(V value);
+
+    Timestamp toTimestamp(String fieldName, V value);
+
+    ByteBuffer toBytes(String fieldName, V value);
+
+    boolean toBoolean(String fieldName, V value);
+
+    long toLong(String fieldName, V value);
+
+    double toDouble(String fieldName, V value);
+
+    /**
+     * Returns a string, or the path of a document reference.
+     */
+    String toString(String fieldName, V value);
+
+    boolean isGeoPoint(V value);
+
+    double getLatitude(V value);
+
+    double getLongitude(V value);
+
+    List<V> toList(String fieldName, V value);
+
+    Map<String, V> toMap(String fieldName, V value);
+  }
+
+  /**
+   * Reads the id and the top level values of documents.
+   *
+   * @param <D> the type of the documents
+   * @param <V> the type of the values
+   */
+  interface DocumentReader<D, V> {
+
+    String getId(D document);
+
+    /**
+     * Returns the value of the top level field at the given index of {@link #getFieldNames()}, null if missing.
+     */
+    @Nullable
+    V getField(D document, int index);
+  }
+
+  /**
+   * Converts the values of a field, which are never null unless the converter is made null safe.
+   */
+  private interface ValueConverter<V> {
+    Object convert(V value);
+  }
+
+  /**
+   * A field of the schema along with the way its value is converted.
+   */
+  private static final class FieldConverter<V> {
+    private final String name;
+    private final boolean nullable;
+    private final boolean documentId;
+    private final ValueConverter<V> converter;
+
+    private FieldConverter(Schema.Field field, boolean documentId, ValueConverter<V> converter) {
+      this.name = field.getName();
+      this.nullable = field.getSchema().isNullable();
+      this.documentId = documentId;
+      this.converter = converter;
+    }
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import com.google.api.gax.rpc.ApiStreamObserver;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+
+/**
+ * Fetches documents of a query as they are streamed by the server. Documents are handed over through a bounded
+ * queue; when the queue is full the stream observer blocks, which stops requesting further responses from the
+ * stream, so the server is paused until the task catches up. The query API gives no handle on the stream, so
+ * closing the fetcher cancels it by failing the observer on the next document delivered, which makes gRPC cancel
+ * the call instead of the server streaming the rest of the result.
+ */
+class StreamingDocumentFetcher implements FirestoreDocumentFetcher {
+  private static final long POLL_TIMEOUT_MILLIS = 100;
+
+  private final int pageSize;
+  private final BlockingQueue<QueryDocumentSnapshot> queue;
+  private volatile boolean completed;
+  private volatile boolean closed;
+  private volatile Throwable failure;
+
+  /**
+   * Constructor for StreamingDocumentFetcher object, starts streaming the query.
+   *
+   * @param query the query to stream the documents of
+   * @param pageSize the maximum number of documents buffered and returned as one page
+   */
+  StreamingDocumentFetcher(Query query, int pageSize) {
+    this.pageSize = pageSize;
+    this.queue = new ArrayBlockingQueue<>(pageSize);
+    query.stream(new ApiStreamObserver<DocumentSnapshot>() {
+      @Override
+      public void onNext(DocumentSnapshot document) {
+        try {
+          while (!queue.offer((QueryDocumentSnapshot) document, POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+            // the queue is full, wait for the reader to drain it unless it is gone
+            ensureOpen();
+          }
+          ensureOpen();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          // the document can't be handed over, so the fetcher fails instead of silently skipping it
+          failure = e;
+          throw new CancellationException("Interrupted while handing over a streamed document.");
+        }
+      }
+
+      @Override
+      public void onError(Throwable t) {
+        if (!closed && failure == null) {
+          failure = t;
+        }
+      }
+
+      @Override
+      public void onCompleted() {
+        completed = true;
+      }
+    });
+  }
+
+  /**
+   * Fails the delivery of a document once the fetcher is closed, which cancels the stream.
+   */
+  private void ensureOpen() {
+    if (closed) {
+      queue.clear();
+      throw new CancellationException("The document fetcher is closed.");
+    }
+  }
+
+  @Nullable
+  @Override
+  public List<QueryDocumentSnapshot> nextPage() throws IOException, InterruptedException {
+    List<QueryDocumentSnapshot> documents = new ArrayList<>();
+    while (!closed) {
+      // all documents are queued before the stream completes, so the flag has to be read before the queue
+      boolean done = completed;
+      QueryDocumentSnapshot document = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+      if (document != null) {
+        documents.add(document);
+        queue.drainTo(documents, pageSize - 1);
+        return documents;
+      }
+      if (failure != null) {
+        throw new IOException("Failed to stream documents from Firestore: " + failure.getMessage(), failure);
+      }
+      if (done) {
+        return null;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public List<QueryDocumentSnapshot> getBufferedDocuments() {
+    return new ArrayList<>(queue);
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    queue.clear();
+  }
+}
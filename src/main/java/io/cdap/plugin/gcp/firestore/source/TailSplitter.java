@@ -0,0 +1,302 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import io.cdap.plugin.gcp.firestore.source.util.FilterInfo;
+import io.cdap.plugin.gcp.firestore.source.util.FilterOperator;
+import io.cdap.plugin.gcp.firestore.source.util.FirestoreQueryBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.annotation.Nullable;
+
+/**
+ * Divides the unread tail of a slow split into ranges that are read at the same time, so that a split holding far
+ * more documents than the others does not dominate the time of the whole read. The tail starts after the last
+ * document read. Ranges between document name cursors are divided at partition cursors of the collection, ranges
+ * of a split field are divided into ranges of equal width of the field values.
+ * <p>
+ * The unread tail can't be handed to an idle task, since the splits of a Hadoop job are fixed once it starts, so
+ * the task that holds the slow split reads the ranges of its tail itself, at the same time. A retried or
+ * speculative attempt of the task divides its split right away.
+ */
+class TailSplitter {
+  private static final Pattern NUMERIC_ID = Pattern.compile("__id(-?[0-9]+)__");
+
+  private final Firestore db;
+  private final FirestoreReadExecutor executor;
+  private final FirestoreInputSplit split;
+  private final String collection;
+  private final boolean collectionGroup;
+  private final List<String> fields;
+  private final List<FilterInfo> filters;
+  private final Collection<String> excludedDocuments;
+  private final int numSplits;
+  private final int parallelism;
+  private final int pageSize;
+  private final int prefetchDepth;
+  private final long maxBufferedBytes;
+
+  /**
+   * Constructor for TailSplitter object.
+   *
+   * @param db the Firestore service
+   * @param executor the executor of the page requests
+   * @param split the split to divide the tail of
+   * @param collection the collection of the split, or the collection id when reading a collection group
+   * @param collectionGroup whether all collections with the given id are read
+   * @param fields the fields to read
+   * @param filters the filters of the query, without the range filters of the split
+   * @param excludedDocuments ids of documents the server leaves out of the result
+   * @param numSplits the number of splits the collection was divided into
+   * @param parallelism the number of ranges the tail is divided into
+   * @param pageSize the number of documents fetched in one request
+   * @param prefetchDepth the number of pages fetched ahead of the page being processed, for every range
+   * @param maxBufferedBytes the maximum estimated size of the pages fetched ahead, for every range
+   */
+  TailSplitter(Firestore db, FirestoreReadExecutor executor, FirestoreInputSplit split, String collection,
+               boolean collectionGroup, List<String> fields, List<FilterInfo> filters,
+               Collection<String> excludedDocuments, int numSplits, int parallelism, int pageSize, int prefetchDepth,
+               long maxBufferedBytes) {
+    this.db = db;
+    this.executor = executor;
+    this.split = split;
+    this.collection = collection;
+    this.collectionGroup = collectionGroup;
+    this.fields = fields;
+    this.filters = filters;
+    this.excludedDocuments = excludedDocuments;
+    this.numSplits = numSplits;
+    this.parallelism = parallelism;
+    this.pageSize = pageSize;
+    this.prefetchDepth = prefetchDepth;
+    this.maxBufferedBytes = maxBufferedBytes;
+  }
+
+  /**
+   * Returns whether the documents of the split are returned in the order its tail is divided in. Firestore orders
+   * a query by its inequality fields before the document name, and the tail starts after the last document read in
+   * that order. A tail between document name cursors is divided by name, so the query must have no inequality
+   * filter; a tail of a split field range is divided by the field, so it must be the only inequality field.
+   * Otherwise the ranges would miss unread documents and read some documents again.
+   *
+   * @param split the split to divide the tail of
+   * @param filters the filters of the query, without the range filters of the split
+   * @return whether the tail of the split can be divided
+   */
+  static boolean canDivide(FirestoreInputSplit split, List<FilterInfo> filters) {
+    Set<String> inequalityFields = new HashSet<>();
+    addInequalityFields(filters, inequalityFields);
+    if (split.getRangeFilters().isEmpty()) {
+      return inequalityFields.isEmpty();
+    }
+    inequalityFields.remove(split.getRangeFilters().get(0).getField());
+    return inequalityFields.isEmpty();
+  }
+
+  private static void addInequalityFields(List<FilterInfo> filters, Set<String> fields) {
+    for (FilterInfo filter : filters) {
+      switch (filter.getOperator()) {
+        case AND:
+        case OR:
+          addInequalityFields(filter.getFilters(), fields);
+          break;
+        case LESS_THAN:
+        case LESS_THAN_OR_EQUAL_TO:
+        case GREATER_THAN:
+        case GREATER_THAN_OR_EQUAL_TO:
+        case NOT_EQUAL_TO:
+        case NOT_IN:
+          fields.add(filter.getField());
+          break;
+        default:
+          break;
+      }
+    }
+  }
+
+  /**
+   * Divides the documents of the split that follow the given document into ranges and starts reading them.
+   *
+   * @param position the last document read, null if no document was read yet
+   * @return the fetcher of the ranges, or null if the tail can't be divided
+   * @throws IOException if the ranges could not be computed
+   */
+  @Nullable
+  FirestoreDocumentFetcher split(@Nullable DocumentSnapshot position) throws IOException, InterruptedException {
+    List<Query> queries = split.getRangeFilters().isEmpty()
+      ? getCursorRangeQueries(position) : getFieldRangeQueries(position);
+    if (queries.size() <= 1) {
+      return null;
+    }
+    List<PagedDocumentFetcher> fetchers = new ArrayList<>(queries.size());
+    for (Query query : queries) {
+      fetchers.add(new PagedDocumentFetcher(executor, query, pageSize, 0, prefetchDepth, maxBufferedBytes));
+    }
+    return new ConcurrentRangeFetcher(fetchers);
+  }
+
+  /**
+   * Divides the tail at partition cursors of the collection. The collection group is asked for as many partitions
+   * per split as ranges are needed, and the cursors that fall inside the tail are picked evenly. If the cursors of
+   * other collections or outside the tail leave too few, the partitions are requested again, oversampled.
+   */
+  private List<Query> getCursorRangeQueries(@Nullable DocumentSnapshot position)
+    throws IOException, InterruptedException {
+    String start = position == null ? split.getStartAt() : position.getReference().getPath();
+    String end = split.getEndBefore();
+    int partitionCount = (int) Math.min(PartitionBoundaries.MAX_PARTITIONS,
+                                        (long) Math.max(1, numSplits) * parallelism);
+    List<String> boundaries = PartitionBoundaries.get(
+      db, collection, PartitionBoundaries.request(db, collection, partitionCount), partitionCount, parallelism - 1,
+      boundary -> (collectionGroup || collection.equals(boundary.getParent().getPath()))
+        && (start == null || compareDocumentPaths(boundary.getPath(), start) > 0)
+        && (end == null || compareDocumentPaths(boundary.getPath(), end) < 0));
+
+    List<Query> queries = new ArrayList<>(boundaries.size() + 1);
+    String startAt = split.getStartAt();
+    for (String boundary : boundaries) {
+      queries.add(buildQuery(new FirestoreInputSplit(collection, startAt, boundary), position, queries.isEmpty()));
+      startAt = boundary;
+    }
+    queries.add(buildQuery(new FirestoreInputSplit(collection, startAt, end), position, queries.isEmpty()));
+    return queries;
+  }
+
+  /**
+   * Divides the tail into ranges of equal width of the split field, from the value of the last document read.
+   * Open sides of the split are bounded by the lowest or highest value of the field.
+   */
+  private List<Query> getFieldRangeQueries(@Nullable DocumentSnapshot position)
+    throws IOException, InterruptedException {
+    List<FilterInfo> range = split.getRangeFilters();
+    String field = range.get(0).getField();
+    Query splitQuery = FirestoreQueryBuilder.buildQuery(db, collection, collectionGroup,
+                                                        Collections.singletonList(field), split,
+                                                        withRange(range), Collections.emptyList());
+
+    Object lower = position == null ? null : position.get(field);
+    Object upper = FieldRangePartitioner.getBound(range, FilterOperator.LESS_THAN);
+    List<FilterInfo> tail = range;
+    if (lower != null) {
+      // the tail starts at the value of the last document read, the cursor of the first range skips the ones read
+      tail = new ArrayList<>(2);
+      tail.add(new FilterInfo(field, FilterOperator.GREATER_THAN_OR_EQUAL_TO, lower));
+      if (upper != null) {
+        tail.add(new FilterInfo(field, FilterOperator.LESS_THAN, upper));
+      }
+    } else {
+      lower = FieldRangePartitioner.getBound(range, FilterOperator.GREATER_THAN_OR_EQUAL_TO);
+      if (lower == null) {
+        lower = FieldRangePartitioner.discoverBound(splitQuery, field, Query.Direction.ASCENDING);
+      }
+    }
+    if (upper == null) {
+      upper = FieldRangePartitioner.discoverBound(splitQuery, field, Query.Direction.DESCENDING);
+    }
+    if (lower == null || upper == null) {
+      return Collections.emptyList();
+    }
+
+    List<List<FilterInfo>> ranges = FieldRangePartitioner.subdivide(field, tail, lower, upper, parallelism);
+    List<Query> queries = new ArrayList<>(ranges.size());
+    for (List<FilterInfo> part : ranges) {
+      queries.add(buildQuery(new FirestoreInputSplit(collection, part), position, queries.isEmpty()));
+    }
+    return queries;
+  }
+
+  /**
+   * Builds the query of a range of the tail. The first range starts after the last document read.
+   */
+  private Query buildQuery(FirestoreInputSplit range, @Nullable DocumentSnapshot position, boolean first)
+    throws IOException, InterruptedException {
+    Query query = FirestoreQueryBuilder.buildQuery(db, range.getCollection(), collectionGroup, fields, range,
+                                                   withRange(range.getRangeFilters()), excludedDocuments);
+    return first && position != null ? query.startAfter(position) : query;
+  }
+
+  private List<FilterInfo> withRange(List<FilterInfo> range) {
+    if (range.isEmpty()) {
+      return filters;
+    }
+    List<FilterInfo> rangeFilters = new ArrayList<>(filters);
+    rangeFilters.addAll(range);
+    return rangeFilters;
+  }
+
+  /**
+   * Compares document paths in the order Firestore sorts document names, segment by segment. Numeric ids, written
+   * as {@code __id<number>__}, sort first and by their value; other ids sort by their UTF-8 bytes, which is the
+   * order of their code points rather than the order of their UTF-16 chars.
+   */
+  static int compareDocumentPaths(String first, String second) {
+    String[] firstSegments = first.split("/");
+    String[] secondSegments = second.split("/");
+    for (int i = 0; i < Math.min(firstSegments.length, secondSegments.length); i++) {
+      int result = compareSegments(firstSegments[i], secondSegments[i]);
+      if (result != 0) {
+        return result;
+      }
+    }
+    return Integer.compare(firstSegments.length, secondSegments.length);
+  }
+
+  private static int compareSegments(String first, String second) {
+    Long firstId = getNumericId(first);
+    Long secondId = getNumericId(second);
+    if (firstId != null && secondId != null) {
+      return Long.compare(firstId, secondId);
+    }
+    if (firstId != null || secondId != null) {
+      return firstId != null ? -1 : 1;
+    }
+    int i = 0;
+    while (i < first.length() && i < second.length()) {
+      int firstCodePoint = first.codePointAt(i);
+      int secondCodePoint = second.codePointAt(i);
+      if (firstCodePoint != secondCodePoint) {
+        return Integer.compare(firstCodePoint, secondCodePoint);
+      }
+      i += Character.charCount(firstCodePoint);
+    }
+    return Integer.compare(first.length(), second.length());
+  }
+
+  @Nullable
+  private static Long getNumericId(String segment) {
+    Matcher matcher = NUMERIC_ID.matcher(segment);
+    if (!matcher.matches()) {
+      return null;
+    }
+    try {
+      return Long.parseLong(matcher.group(1));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+}
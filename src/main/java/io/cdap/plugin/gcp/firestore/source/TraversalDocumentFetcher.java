@@ -0,0 +1,234 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Query;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.annotation.Nullable;
+
+/**
+ * Fetches the documents of a split together with the documents of the subcollections nested under them, down to
+ * a maximum depth. The subcollections of the fetched documents are listed on a bounded pool of threads, at most
+ * {@code concurrency} documents at a time, and up to {@code concurrency} sibling subcollections are read at the same
+ * time, each page by page. Subtrees are walked before the next page of the split is fetched, so the documents held in
+ * memory stay bounded by the pages in flight. Subcollections are read with the projection of the split, but without
+ * its filters.
+ */
+class TraversalDocumentFetcher implements FirestoreDocumentFetcher {
+  private final FirestoreReadExecutor executor;
+  private final FirestoreDocumentFetcher roots;
+  private final List<String> fields;
+  private final int maxDepth;
+  private final int pageSize;
+  private final int prefetchDepth;
+  private final long maxBufferedBytes;
+  private final int concurrency;
+  private final ExecutorService listingPool;
+  // Documents whose subcollections are still to be listed, and the listings in flight.
+  private final Deque<Unlisted> unlisted = new ArrayDeque<>();
+  private final Deque<Listing> listings = new ArrayDeque<>();
+  private final Deque<Subcollection> subcollections = new ArrayDeque<>();
+  private final Deque<SubcollectionFetch> fetches = new ArrayDeque<>();
+
+  /**
+   * Constructor for TraversalDocumentFetcher object.
+   *
+   * @param executor the executor of the page requests
+   * @param roots the fetcher of the documents of the split, the roots of the traversal
+   * @param fields the fields to read from the documents of the subcollections, all fields if empty
+   * @param maxDepth the number of subcollection levels read under the roots
+   * @param pageSize the number of documents fetched in one request
+   * @param prefetchDepth the number of pages fetched ahead of the page being processed, for every subcollection
+   * @param maxBufferedBytes the maximum estimated size of the pages fetched ahead, for every subcollection
+   * @param concurrency the number of subcollections listed and read at the same time
+   */
+  TraversalDocumentFetcher(FirestoreReadExecutor executor, FirestoreDocumentFetcher roots, List<String> fields,
+                           int maxDepth, int pageSize, int prefetchDepth, long maxBufferedBytes, int concurrency) {
+    this.executor = executor;
+    this.roots = roots;
+    this.fields = fields;
+    this.maxDepth = maxDepth;
+    this.pageSize = pageSize;
+    this.prefetchDepth = prefetchDepth;
+    this.maxBufferedBytes = maxBufferedBytes;
+    this.concurrency = concurrency;
+    this.listingPool = Executors.newFixedThreadPool(
+      concurrency, new ThreadFactoryBuilder().setNameFormat("firestore-traversal-%d").setDaemon(true).build());
+  }
+
+  @Nullable
+  @Override
+  public List<? extends DocumentSnapshot> nextPage() throws IOException, InterruptedException {
+    while (true) {
+      startFetches();
+      SubcollectionFetch fetch = fetches.poll();
+      if (fetch == null) {
+        // the subtrees of the previous page are done
+        List<? extends DocumentSnapshot> page = roots.nextPage();
+        if (page != null) {
+          listSubcollections(page, 0);
+        }
+        return page;
+      }
+
+      List<? extends DocumentSnapshot> page = fetch.fetcher.nextPage();
+      if (page == null) {
+        fetch.fetcher.close();
+        continue;
+      }
+      // siblings take turns, so that all of them keep fetching in the background
+      fetches.add(fetch);
+      listSubcollections(page, fetch.depth);
+      return page;
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    listingPool.shutdownNow();
+    listings.forEach(listing -> listing.collections.cancel(true));
+    listings.clear();
+    unlisted.clear();
+    subcollections.clear();
+    for (SubcollectionFetch fetch : fetches) {
+      fetch.fetcher.close();
+    }
+    fetches.clear();
+    roots.close();
+  }
+
+  /**
+   * Lists the subcollections of the given documents in the background, unless the documents are at the maximum depth.
+   */
+  private void listSubcollections(List<? extends DocumentSnapshot> documents, int depth) {
+    if (depth >= maxDepth) {
+      return;
+    }
+    for (DocumentSnapshot document : documents) {
+      unlisted.add(new Unlisted(depth + 1, document.getReference()));
+    }
+    startListings();
+  }
+
+  /**
+   * Starts listing the subcollections of the waiting documents until {@code concurrency} listings are in flight.
+   */
+  private void startListings() {
+    Unlisted document;
+    while (listings.size() < concurrency && (document = unlisted.poll()) != null) {
+      DocumentReference reference = document.reference;
+      listings.add(new Listing(document.depth,
+                               listingPool.submit(() -> Lists.newArrayList(reference.listCollections()))));
+    }
+  }
+
+  /**
+   * Starts reading the listed subcollections until {@code concurrency} of them are being read.
+   */
+  private void startFetches() throws IOException, InterruptedException {
+    while (fetches.size() < concurrency) {
+      Subcollection subcollection = subcollections.poll();
+      if (subcollection == null) {
+        Listing listing = listings.poll();
+        if (listing == null) {
+          return;
+        }
+        startListings();
+        try {
+          for (CollectionReference collection : listing.collections.get()) {
+            subcollections.add(new Subcollection(listing.depth, collection));
+          }
+        } catch (ExecutionException e) {
+          throw new IOException("Failed to list subcollections in Firestore: " + e.getMessage(), e);
+        }
+        continue;
+      }
+
+      Query query = fields.isEmpty() ? subcollection.collection
+        : subcollection.collection.select(fields.toArray(new String[0]));
+      PagedDocumentFetcher fetcher = new PagedDocumentFetcher(executor, query, pageSize, 0, prefetchDepth,
+                                                              maxBufferedBytes);
+      fetcher.start();
+      fetches.add(new SubcollectionFetch(subcollection.depth, fetcher));
+    }
+  }
+
+  /**
+   * Document whose subcollections are still to be listed.
+   */
+  private static final class Unlisted {
+    private final int depth;
+    private final DocumentReference reference;
+
+    private Unlisted(int depth, DocumentReference reference) {
+      this.depth = depth;
+      this.reference = reference;
+    }
+  }
+
+  /**
+   * Subcollections of a document being listed.
+   */
+  private static final class Listing {
+    private final int depth;
+    private final Future<List<CollectionReference>> collections;
+
+    private Listing(int depth, Future<List<CollectionReference>> collections) {
+      this.depth = depth;
+      this.collections = collections;
+    }
+  }
+
+  /**
+   * Subcollection waiting to be read.
+   */
+  private static final class Subcollection {
+    private final int depth;
+    private final CollectionReference collection;
+
+    private Subcollection(int depth, CollectionReference collection) {
+      this.depth = depth;
+      this.collection = collection;
+    }
+  }
+
+  /**
+   * Subcollection being read.
+   */
+  private static final class SubcollectionFetch {
+    private final int depth;
+    private final PagedDocumentFetcher fetcher;
+
+    private SubcollectionFetch(int depth, PagedDocumentFetcher fetcher) {
+      this.depth = depth;
+      this.fetcher = fetcher;
+    }
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source.util;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Indicates aggregation function which can be computed by Firestore in the aggregation query mode.
+ */
+public enum AggregationFunction {
+
+  /**
+   * Function will be used to count the documents.
+   */
+  COUNT("count"),
+
+  /**
+   * Function will be used to sum the numeric values of a field.
+   */
+  SUM("sum"),
+
+  /**
+   * Function will be used to average the numeric values of a field.
+   */
+  AVG("avg");
+
+  private final String value;
+
+  AggregationFunction(String value) {
+    this.value = value;
+  }
+
+  /**
+   * Converts function string value into {@link AggregationFunction} enum.
+   *
+   * @param stringValue function string value
+   * @return aggregation function in optional container
+   */
+  public static Optional<AggregationFunction> fromValue(String stringValue) {
+    return Stream.of(values())
+      .filter(keyType -> keyType.value.equalsIgnoreCase(stringValue))
+      .findAny();
+  }
+
+  public static String getSupportedFunctions() {
+    return Arrays.stream(AggregationFunction.values()).map(AggregationFunction::getValue)
+      .collect(Collectors.joining(", "));
+  }
+
+  public String getValue() {
+    return value;
+  }
+}
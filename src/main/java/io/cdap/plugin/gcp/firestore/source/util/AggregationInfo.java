@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source.util;
+
+import javax.annotation.Nullable;
+
+/**
+ * Class to hold information for an aggregation computed by Firestore.
+ */
+public class AggregationInfo {
+  private final AggregationFunction function;
+  private final String field;
+  private final String alias;
+
+  /**
+   * Constructor for AggregationInfo object.
+   * @param function the aggregation function
+   * @param field the field to aggregate, null for count
+   * @param alias the name of the output field holding the result
+   */
+  public AggregationInfo(AggregationFunction function, @Nullable String field, String alias) {
+    this.function = function;
+    this.field = field;
+    this.alias = alias;
+  }
+
+  public AggregationFunction getFunction() {
+    return function;
+  }
+
+  @Nullable
+  public String getField() {
+    return field;
+  }
+
+  public String getAlias() {
+    return alias;
+  }
+}
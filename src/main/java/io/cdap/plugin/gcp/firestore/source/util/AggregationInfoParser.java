@@ -0,0 +1,83 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source.util;
+
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The class that provides helper method for parsing the aggregations string.
+ */
+public class AggregationInfoParser {
+  /**
+   * Returns the aggregations to compute.
+   * @param aggregationString the aggregation string in function(field)[:alias][,function(field)[:alias]] format,
+   *                          where the field is omitted for count
+   * @return the list of aggregations to compute, empty if no aggregation is given
+   * @throws IllegalArgumentException
+   */
+  public static List<AggregationInfo> parseAggregationString(String aggregationString)
+    throws IllegalArgumentException {
+    List<AggregationInfo> aggregationInfos = new ArrayList<>();
+
+    if (Strings.isNullOrEmpty(aggregationString)) {
+      return aggregationInfos;
+    }
+
+    for (String aggregation : Splitter.on(',').trimResults().omitEmptyStrings().split(aggregationString)) {
+      String functionAndField = aggregation;
+      String alias = null;
+      int colonIdx = aggregation.lastIndexOf(':');
+      if (colonIdx >= 0) {
+        functionAndField = aggregation.substring(0, colonIdx).trim();
+        alias = aggregation.substring(colonIdx + 1).trim();
+      }
+
+      int leftParanIdx = functionAndField.indexOf('(');
+      if (leftParanIdx < 0 || !functionAndField.endsWith(")")) {
+        throw new IllegalArgumentException(String.format(
+          "Invalid aggregation '%s'. Aggregations must be specified as function(field).", aggregation));
+      }
+
+      String functionStr = functionAndField.substring(0, leftParanIdx).trim();
+      Optional<AggregationFunction> function = AggregationFunction.fromValue(functionStr);
+      if (!function.isPresent()) {
+        throw new IllegalArgumentException(String.format(
+          "Invalid aggregation function '%s'. Must be one of %s.", functionStr,
+          AggregationFunction.getSupportedFunctions()));
+      }
+
+      String field = functionAndField.substring(leftParanIdx + 1, functionAndField.length() - 1).trim();
+      if (function.get() == AggregationFunction.COUNT) {
+        field = null;
+      } else if (field.isEmpty()) {
+        throw new IllegalArgumentException(String.format(
+          "Invalid aggregation '%s'. A field must be given as an argument.", aggregation));
+      }
+
+      if (Strings.isNullOrEmpty(alias)) {
+        alias = field == null ? function.get().getValue() : function.get().getValue() + "_" + field.replace('.', '_');
+      }
+      aggregationInfos.add(new AggregationInfo(function.get(), field, alias));
+    }
+    return aggregationInfos;
+  }
+}
@@ -16,13 +16,18 @@
 
 package io.cdap.plugin.gcp.firestore.source.util;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
- * Class to hold information for a filter.
+ * Class to hold information for a filter. A filter either compares a field with a value or, for composite
+ * operators, combines nested filters.
  */
 public class FilterInfo {
   private String field;
   private FilterOperator operator;
   private Object value;
+  private List<FilterInfo> filters;
 
   /**
    * Constructor for FilterInfo object.
@@ -34,6 +39,17 @@ public class FilterInfo {
     this.field = field;
     this.operator = operator;
     this.value = value;
+    this.filters = Collections.emptyList();
+  }
+
+  /**
+   * Constructor for a composite FilterInfo object.
+   * @param operator the composite operator
+   * @param filters the nested filters
+   */
+  public FilterInfo(FilterOperator operator, List<FilterInfo> filters) {
+    this.operator = operator;
+    this.filters = filters;
   }
 
   public String getField() {
@@ -47,4 +63,8 @@ public class FilterInfo {
   public Object getValue() {
     return value;
   }
+
+  public List<FilterInfo> getFilters() {
+    return filters;
+  }
 }
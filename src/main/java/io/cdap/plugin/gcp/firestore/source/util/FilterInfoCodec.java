@@ -0,0 +1,170 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source.util;
+
+import com.google.cloud.Timestamp;
+import com.google.common.base.Strings;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * Serializes parsed filters into the job configuration, so that readers apply exactly the filters validated when
+ * the pipeline run was prepared, without parsing the filter string again.
+ * Each filter is stored as a JSON object that keeps the type of its value, composite filters hold their nested
+ * filters.
+ */
+public class FilterInfoCodec {
+  private static final String FIELD = "field";
+  private static final String OPERATOR = "operator";
+  private static final String VALUE = "value";
+  private static final String FILTERS = "filters";
+  private static final String TYPE = "type";
+  private static final String TYPE_STRING = "string";
+  private static final String TYPE_LONG = "long";
+  private static final String TYPE_DOUBLE = "double";
+  private static final String TYPE_BOOLEAN = "boolean";
+  private static final String TYPE_TIMESTAMP = "timestamp";
+  private static final String TYPE_LIST = "list";
+
+  /**
+   * Encodes the filters into a string.
+   *
+   * @param filters the filters to encode
+   * @return the encoded filters
+   */
+  public static String encode(List<FilterInfo> filters) {
+    return encodeFilters(filters).toString();
+  }
+
+  /**
+   * Decodes filters previously encoded with {@link #encode(List)}.
+   *
+   * @param encoded the encoded filters, an empty or null string stands for no filters
+   * @return the decoded filters
+   * @throws IllegalArgumentException if the encoded filters are malformed
+   */
+  public static List<FilterInfo> decode(@Nullable String encoded) throws IllegalArgumentException {
+    if (Strings.isNullOrEmpty(encoded)) {
+      return new ArrayList<>();
+    }
+
+    try {
+      return decodeFilters(JsonParser.parseString(encoded).getAsJsonArray());
+    } catch (JsonParseException | IllegalStateException | ClassCastException | NullPointerException
+      | DateTimeParseException e) {
+      throw new IllegalArgumentException(String.format("Malformed filters '%s'.", encoded), e);
+    }
+  }
+
+  private static JsonArray encodeFilters(List<FilterInfo> filters) {
+    JsonArray array = new JsonArray();
+    for (FilterInfo filter : filters) {
+      JsonObject object = new JsonObject();
+      object.addProperty(OPERATOR, filter.getOperator().getValue());
+      if (filter.getOperator().isComposite()) {
+        object.add(FILTERS, encodeFilters(filter.getFilters()));
+      } else {
+        object.addProperty(FIELD, filter.getField());
+        object.add(VALUE, encodeValue(filter.getValue()));
+      }
+      array.add(object);
+    }
+    return array;
+  }
+
+  private static List<FilterInfo> decodeFilters(JsonArray array) {
+    List<FilterInfo> filters = new ArrayList<>();
+    for (JsonElement element : array) {
+      JsonObject object = element.getAsJsonObject();
+      String operatorValue = object.get(OPERATOR).getAsString();
+      FilterOperator operator = FilterOperator.fromValue(operatorValue)
+        .orElseThrow(() -> new IllegalArgumentException(String.format("Invalid operator '%s'.", operatorValue)));
+      if (operator.isComposite()) {
+        filters.add(new FilterInfo(operator, decodeFilters(object.getAsJsonArray(FILTERS))));
+      } else {
+        filters.add(new FilterInfo(object.get(FIELD).getAsString(), operator,
+                                   decodeValue(object.getAsJsonObject(VALUE))));
+      }
+    }
+    return filters;
+  }
+
+  private static JsonObject encodeValue(Object value) {
+    JsonObject object = new JsonObject();
+    if (value instanceof List) {
+      object.addProperty(TYPE, TYPE_LIST);
+      JsonArray values = new JsonArray();
+      for (Object item : (List<?>) value) {
+        values.add(encodeValue(item));
+      }
+      object.add(VALUE, values);
+      return object;
+    }
+
+    if (value instanceof Long) {
+      object.addProperty(TYPE, TYPE_LONG);
+    } else if (value instanceof Double) {
+      object.addProperty(TYPE, TYPE_DOUBLE);
+    } else if (value instanceof Boolean) {
+      object.addProperty(TYPE, TYPE_BOOLEAN);
+    } else if (value instanceof Timestamp) {
+      object.addProperty(TYPE, TYPE_TIMESTAMP);
+    } else if (value instanceof String) {
+      object.addProperty(TYPE, TYPE_STRING);
+    } else {
+      throw new IllegalArgumentException(String.format("Unsupported filter value type '%s'.",
+                                                       value == null ? null : value.getClass().getName()));
+    }
+    object.addProperty(VALUE, value.toString());
+    return object;
+  }
+
+  private static Object decodeValue(JsonObject object) {
+    String type = object.get(TYPE).getAsString();
+    if (TYPE_LIST.equals(type)) {
+      List<Object> values = new ArrayList<>();
+      for (JsonElement item : object.getAsJsonArray(VALUE)) {
+        values.add(decodeValue(item.getAsJsonObject()));
+      }
+      return values;
+    }
+
+    String value = object.get(VALUE).getAsString();
+    switch (type) {
+      case TYPE_LONG:
+        return Long.valueOf(value);
+      case TYPE_DOUBLE:
+        return Double.valueOf(value);
+      case TYPE_BOOLEAN:
+        return Boolean.valueOf(value);
+      case TYPE_TIMESTAMP:
+        return Timestamp.parseTimestamp(value);
+      case TYPE_STRING:
+        return value;
+      default:
+        throw new IllegalArgumentException(String.format("Unsupported filter value type '%s'.", type));
+    }
+  }
+}
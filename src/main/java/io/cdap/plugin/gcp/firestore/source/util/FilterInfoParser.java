@@ -16,21 +16,33 @@
 
 package io.cdap.plugin.gcp.firestore.source.util;
 
-import com.google.common.base.Splitter;
+import com.google.cloud.Timestamp;
 import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import javax.annotation.Nullable;
 
 /**
  * The class that provides helper method for parsing the filterInfo string.
  */
 public class FilterInfoParser {
+  private static final String TYPE_STRING = "string";
+  private static final String TYPE_LONG = "long";
+  private static final String TYPE_DOUBLE = "double";
+  private static final String TYPE_BOOLEAN = "boolean";
+  private static final String TYPE_TIMESTAMP = "timestamp";
+  private static final Set<String> VALUE_TYPES =
+    ImmutableSet.of(TYPE_STRING, TYPE_LONG, TYPE_DOUBLE, TYPE_BOOLEAN, TYPE_TIMESTAMP);
+
   /**
    * Returns the filters to apply. Returns an empty list if filters contains a macro. Otherwise,
    * the list returned can never be empty.
-   * @param filterString the filter string in value:operator(field)[,value:operator(field)] format
+   * @param filterString the filter string in value:operator(field)[,value:operator(field)] format, where a filter
+   *                     can also be a composite Or(filter[,filter]) or And(filter[,filter])
    * @return the list of filters to apply. Returns an empty list if filters contains a macro. Otherwise,
    * the list returned can never be empty
    * @throws IllegalArgumentException
@@ -41,57 +53,178 @@ public class FilterInfoParser {
     if (Strings.isNullOrEmpty(filterString)) {
       return filterInfos;
     }
-    
-    for (String filter : Splitter.on(',').trimResults().split(filterString)) {
-      int colonIdx = filter.indexOf(':');
-      if (colonIdx < 0) {
-        throw new IllegalArgumentException(String.format(
-          "Could not find ':' separating filter value from its operation in '%s'.", filter));
-      }
-      String value = filter.substring(0, colonIdx).trim();
 
-      String opertorAndField = filter.substring(colonIdx + 1).trim();
-      int leftParanIdx = opertorAndField.indexOf('(');
-      if (leftParanIdx < 0) {
-        throw new IllegalArgumentException(String.format(
-          "Could not find '(' in operation '%s'. Operations must be specified as operator(field).", opertorAndField));
-      }
+    for (String filter : splitTopLevel(filterString, ',')) {
+      filterInfos.add(parseFilter(filter));
+    }
+    return filterInfos;
+  }
 
-      String operatorStr = opertorAndField.substring(0, leftParanIdx).trim();
-      FilterOperator operator;
-      Optional<FilterOperator> optional = FilterOperator.fromValue(operatorStr);
-      if (!optional.isPresent()) {
-        throw new IllegalArgumentException(String.format(
-          "Invalid operator '%s'. Must be one of %s.", operatorStr,
-          FilterOperator.getSupportedOperators()));
-      }
-      operator = optional.get();
+  /**
+   * Returns the values of a comma-separated list. Values can be typed explicitly as type(value), otherwise they
+   * are strings.
+   * @param valueString the values in value[,value] format
+   * @return the list of typed values
+   * @throws IllegalArgumentException
+   */
+  public static List<Object> parseValues(String valueString) throws IllegalArgumentException {
+    List<Object> values = new ArrayList<>();
+
+    if (Strings.isNullOrEmpty(valueString)) {
+      return values;
+    }
 
-      if (!opertorAndField.endsWith(")")) {
+    for (String value : splitTopLevel(valueString, ',')) {
+      values.add(getValue(value, FilterOperator.EQUAL_TO, FilterOperator.EQUAL_TO.getValue()));
+    }
+    return values;
+  }
+
+  private static FilterInfo parseFilter(String filter) {
+    FilterInfo composite = parseCompositeFilter(filter);
+    if (composite != null) {
+      return composite;
+    }
+
+    // the last colon separates the value, since typed values such as timestamps may contain colons themselves
+    int colonIdx = filter.lastIndexOf(':');
+    if (colonIdx < 0) {
+      throw new IllegalArgumentException(String.format(
+        "Could not find ':' separating filter value from its operation in '%s'.", filter));
+    }
+    String value = filter.substring(0, colonIdx).trim();
+
+    String opertorAndField = filter.substring(colonIdx + 1).trim();
+    int leftParanIdx = opertorAndField.indexOf('(');
+    if (leftParanIdx < 0) {
+      throw new IllegalArgumentException(String.format(
+        "Could not find '(' in operation '%s'. Operations must be specified as operator(field).", opertorAndField));
+    }
+
+    String operatorStr = opertorAndField.substring(0, leftParanIdx).trim();
+    FilterOperator operator;
+    Optional<FilterOperator> optional = FilterOperator.fromValue(operatorStr);
+    if (!optional.isPresent() || optional.get().isComposite()) {
+      throw new IllegalArgumentException(String.format(
+        "Invalid operator '%s'. Must be one of %s.", operatorStr,
+        FilterOperator.getSupportedOperators()));
+    }
+    operator = optional.get();
+
+    if (!opertorAndField.endsWith(")")) {
+      throw new IllegalArgumentException(String.format(
+        "Could not find closing ')' in operation '%s'. Operations must be specified as operator(field).",
+        opertorAndField));
+    }
+    String field = opertorAndField.substring(leftParanIdx + 1, opertorAndField.length() - 1).trim();
+    if (field.isEmpty()) {
+      throw new IllegalArgumentException(String.format(
+        "Invalid operation format '%s'. A field must be given as an argument.", opertorAndField));
+    }
+
+    Object fieldValue;
+    if (operator.isListValue()) {
+      List<Object> values = new ArrayList<>();
+      for (String item : splitTopLevel(value, '|')) {
+        values.add(getValue(item, operator, operatorStr));
+      }
+      if (values.isEmpty()) {
         throw new IllegalArgumentException(String.format(
-          "Could not find closing ')' in operation '%s'. Operations must be specified as operator(field).",
-          opertorAndField));
+          "Invalid value '%s' for operator '%s'. At least one value separated by '|' expected for the operator used.",
+          value, operatorStr));
       }
-      String field = opertorAndField.substring(leftParanIdx + 1, opertorAndField.length() - 1).trim();
-      if (field.isEmpty()) {
+      int maxValues = operator == FilterOperator.NOT_IN
+        ? FirestoreSourceConstants.MAX_NOT_IN_VALUES : FirestoreSourceConstants.MAX_IN_VALUES;
+      if (values.size() > maxValues) {
         throw new IllegalArgumentException(String.format(
-          "Invalid operation format '%s'. A field must be given as an argument.", opertorAndField));
+          "Invalid value '%s' for operator '%s'. At most %d values are supported for the operator used.",
+          value, operatorStr, maxValues));
+      }
+      fieldValue = values;
+    } else {
+      fieldValue = getValue(value, operator, operatorStr);
+    }
+
+    return new FilterInfo(field, operator, fieldValue);
+  }
+
+  /**
+   * Parses a filter of the form Or(filter[,filter]) or And(filter[,filter]), returns null if the filter is not
+   * a composite filter.
+   */
+  @Nullable
+  private static FilterInfo parseCompositeFilter(String filter) {
+    int leftParanIdx = filter.indexOf('(');
+    if (leftParanIdx < 0 || !filter.endsWith(")")) {
+      return null;
+    }
+    Optional<FilterOperator> operator = FilterOperator.fromValue(filter.substring(0, leftParanIdx).trim());
+    if (!operator.isPresent() || !operator.get().isComposite()
+      || findClosingParan(filter, leftParanIdx) != filter.length() - 1) {
+      return null;
+    }
+
+    List<FilterInfo> filters = parseFilterString(filter.substring(leftParanIdx + 1, filter.length() - 1).trim());
+    if (filters.isEmpty()) {
+      throw new IllegalArgumentException(String.format(
+        "Invalid filter '%s'. At least one nested filter must be given.", filter));
+    }
+    return new FilterInfo(operator.get(), filters);
+  }
+
+  /**
+   * Returns the typed value. Values can be typed explicitly as type(value), otherwise they are strings for
+   * equality, membership and array operators and numbers for numeric operators.
+   */
+  private static Object getValue(String value, FilterOperator operator, String operatorStr) {
+    int leftParanIdx = value.indexOf('(');
+    if (leftParanIdx > 0 && value.endsWith(")")) {
+      String type = value.substring(0, leftParanIdx).trim().toLowerCase();
+      if (VALUE_TYPES.contains(type)) {
+        return getTypedValue(type, value.substring(leftParanIdx + 1, value.length() - 1).trim(), operatorStr);
       }
+    }
 
-      Object fieldValue = value;
-      if (operator != FilterOperator.EQUAL_TO) {
+    switch (operator) {
+      case NUMERIC_EQUAL_TO:
+      case LESS_THAN:
+      case LESS_THAN_OR_EQUAL_TO:
+      case GREATER_THAN:
+      case GREATER_THAN_OR_EQUAL_TO:
         try {
-          fieldValue = getNumericValue(value);
+          return getNumericValue(value);
         } catch (NumberFormatException e) {
           throw new IllegalArgumentException(String.format(
             "Invalid value '%s' for operator '%s'. A numeric value expected for the operator used.", value,
             operatorStr));
         }
-      }
+      default:
+        return value;
+    }
+  }
 
-      filterInfos.add(new FilterInfo(field, operator, fieldValue));
+  private static Object getTypedValue(String type, String value, String operatorStr) {
+    try {
+      switch (type) {
+        case TYPE_LONG:
+          return Long.valueOf(value);
+        case TYPE_DOUBLE:
+          return Double.valueOf(value);
+        case TYPE_BOOLEAN:
+          if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+            throw new IllegalArgumentException(String.format("Invalid boolean '%s'.", value));
+          }
+          return Boolean.valueOf(value);
+        case TYPE_TIMESTAMP:
+          return Timestamp.parseTimestamp(value);
+        default:
+          return value;
+      }
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException(String.format(
+        "Invalid value '%s' for operator '%s'. A value of type '%s' expected, timestamps must be given in " +
+          "RFC 3339 format, for example '2020-01-01T00:00:00Z'.", value, operatorStr, type), e);
     }
-    return filterInfos;
   }
 
   private static Number getNumericValue(String value) throws NumberFormatException {
@@ -105,4 +238,40 @@ public class FilterInfoParser {
 
     return number;
   }
+
+  /**
+   * Splits the string on the separator, ignoring separators that are nested in parentheses.
+   */
+  private static List<String> splitTopLevel(String value, char separator) {
+    List<String> parts = new ArrayList<>();
+    int depth = 0;
+    int start = 0;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '(') {
+        depth++;
+      } else if (c == ')') {
+        depth = Math.max(0, depth - 1);
+      } else if (c == separator && depth == 0) {
+        parts.add(value.substring(start, i).trim());
+        start = i + 1;
+      }
+    }
+    parts.add(value.substring(start).trim());
+    parts.removeIf(String::isEmpty);
+    return parts;
+  }
+
+  private static int findClosingParan(String value, int leftParanIdx) {
+    int depth = 0;
+    for (int i = leftParanIdx; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '(') {
+        depth++;
+      } else if (c == ')' && --depth == 0) {
+        return i;
+      }
+    }
+    return -1;
+  }
 }
@@ -54,12 +54,53 @@ public enum FilterOperator {
   /**
    * Operator will be used to perform "greater than or equal to" operation on numeric values.
    */
-  GREATER_THAN_OR_EQUAL_TO("GreaterThanOrEqualTo");
+  GREATER_THAN_OR_EQUAL_TO("GreaterThanOrEqualTo"),
+
+  /**
+   * Operator will be used to perform "not equal to" operation.
+   */
+  NOT_EQUAL_TO("NotEqualTo"),
+
+  /**
+   * Operator will be used to check that the field value is one of the given values.
+   */
+  IN("In", true),
+
+  /**
+   * Operator will be used to check that the field value is none of the given values.
+   */
+  NOT_IN("NotIn", true),
+
+  /**
+   * Operator will be used to check that the array field contains the given value.
+   */
+  ARRAY_CONTAINS("ArrayContains"),
+
+  /**
+   * Operator will be used to check that the array field contains any of the given values.
+   */
+  ARRAY_CONTAINS_ANY("ArrayContainsAny", true),
+
+  /**
+   * Operator will be used to combine nested filters so that any of them must match.
+   */
+  OR("Or"),
+
+  /**
+   * Operator will be used to combine nested filters so that all of them must match.
+   */
+  AND("And");
 
   private final String value;
+  private final boolean listValue;
 
   FilterOperator(String value) {
+    this(value, false);
+  }
+
+  FilterOperator(String value, boolean listValue) {
     this.value = value;
+    this.listValue = listValue;
   }
 
   /**
@@ -81,4 +122,18 @@ public enum FilterOperator {
   public String getValue() {
     return value;
   }
+
+  /**
+   * Returns whether the operator is compared against a list of values.
+   */
+  public boolean isListValue() {
+    return listValue;
+  }
+
+  /**
+   * Returns whether the operator combines nested filters instead of filtering on a field.
+   */
+  public boolean isComposite() {
+    return this == OR || this == AND;
+  }
 }
@@ -16,13 +16,21 @@
 
 package io.cdap.plugin.gcp.firestore.source.util;
 
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Filter;
 import com.google.cloud.firestore.Firestore;
 import com.google.cloud.firestore.Query;
 import io.cdap.plugin.gcp.firestore.source.FirestoreInputSplit;
 import org.apache.hadoop.mapreduce.InputSplit;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * The class that provides helper method to build the Firestore {@link Query} object.
@@ -31,58 +39,142 @@ public class FirestoreQueryBuilder {
   /**
    * Returns the Query.
    * @param db the database id
-   * @param collection the collection likes a table
+   * @param collection the collection likes a table, or the collection id when reading a collection group
+   * @param collectionGroup whether all collections with the given id are read, wherever they are nested
    * @param fields the fields of collection
-   * @param inputSplit the inputSplit is a limit
+   * @param inputSplit the split that bounds the documents to read by document name cursors
    * @param filters the filter for given field as well as value
+   * @param excludedDocuments ids of documents the server should leave out of the result, must be empty when reading
+   *                          a collection group as document ids are only unique within their collection
    * @return The instance of {@link Query} object
    * @throws IOException on issues with file reading
    * @throws InterruptedException on issues, interrupting when reading a file
    */
-  public static Query buildQuery(Firestore db, String collection, List<String> fields, InputSplit inputSplit,
-                                 List<FilterInfo> filters) throws IOException, InterruptedException {
-    int splitStart = 0;
-    int splitLength = 0;
+  public static Query buildQuery(Firestore db, String collection, boolean collectionGroup, List<String> fields,
+                                 InputSplit inputSplit, List<FilterInfo> filters,
+                                 Collection<String> excludedDocuments) throws IOException, InterruptedException {
+    String splitStartAt = null;
+    String splitEndBefore = null;
 
     if (inputSplit instanceof FirestoreInputSplit) {
       FirestoreInputSplit split = (FirestoreInputSplit) inputSplit;
-      splitStart = (int) split.getStart();
-      splitLength = (int) split.getLength();
+      splitStartAt = split.getStartAt();
+      splitEndBefore = split.getEndBefore();
     }
 
-    Query query = db.collection(collection);
+    Query query = collectionGroup ? db.collectionGroup(collection) : db.collection(collection);
 
     if (!fields.isEmpty()) {
-      query = query.select(fields.toArray(new String[0]));
+      // Pages are fetched with cursors built from the last document snapshot, which needs the values
+      // of the fields the query is filtered on.
+      Set<String> projection = new LinkedHashSet<>(fields);
+      addFilterFields(filters, projection);
+      query = query.select(projection.toArray(new String[0]));
     }
 
-    if (!filters.isEmpty()) {
-      for (FilterInfo filter : filters) {
-        switch (filter.getOperator()) {
-          case EQUAL_TO:
-          case NUMERIC_EQUAL_TO:
-            query = query.whereEqualTo(filter.getField(), filter.getValue());
-            break;
-          case LESS_THAN:
-            query = query.whereLessThan(filter.getField(), filter.getValue());
-            break;
-          case LESS_THAN_OR_EQUAL_TO:
-            query = query.whereLessThanOrEqualTo(filter.getField(), filter.getValue());
-            break;
-          case GREATER_THAN:
-            query = query.whereGreaterThan(filter.getField(), filter.getValue());
-            break;
-          case GREATER_THAN_OR_EQUAL_TO:
-            query = query.whereGreaterThanOrEqualTo(filter.getField(), filter.getValue());
-            break;
-        }
+    for (FilterInfo filter : filters) {
+      query = query.where(toFilter(filter));
+    }
+
+    if (!excludedDocuments.isEmpty()) {
+      if (collectionGroup) {
+        throw new IllegalArgumentException("Documents can't be excluded by id from a collection group query.");
       }
+      CollectionReference collectionReference = db.collection(collection);
+      List<DocumentReference> references = excludedDocuments.stream()
+        .map(collectionReference::document)
+        .collect(Collectors.toList());
+      query = query.whereNotIn(FieldPath.documentId(), references);
     }
 
-    if (splitLength > 0) {
-      query = query.offset(splitStart).limit(splitLength);
+    if (splitStartAt != null || splitEndBefore != null) {
+      query = query.orderBy(FieldPath.documentId());
+      if (splitStartAt != null) {
+        query = query.startAt(db.document(splitStartAt));
+      }
+      if (splitEndBefore != null) {
+        query = query.endBefore(db.document(splitEndBefore));
+      }
     }
 
     return query;
   }
+
+  /**
+   * Orders the query by the given fields, starting at the given values of these fields and reading at most
+   * the given number of documents.
+   *
+   * @param query the query to order
+   * @param orderBy the fields to order by, in order of precedence
+   * @param startAt the values of the order by fields to start at, empty to start at the first document
+   * @param limit the maximum number of documents to read, 0 for no limit
+   * @return The instance of {@link Query} object
+   */
+  public static Query applyOrdering(Query query, List<OrderByInfo> orderBy, List<Object> startAt, long limit) {
+    for (OrderByInfo order : orderBy) {
+      query = query.orderBy(order.getField(), order.getDirection());
+    }
+    if (!startAt.isEmpty()) {
+      query = query.startAt(startAt.toArray());
+    }
+    if (limit > 0) {
+      query = query.limit((int) Math.min(limit, Integer.MAX_VALUE));
+    }
+    return query;
+  }
+
+  /**
+   * Converts the filter into a Firestore {@link Filter}, so that it is evaluated by the server.
+   *
+   * @param filter the filter to convert
+   * @return the instance of {@link Filter} object
+   */
+  public static Filter toFilter(FilterInfo filter) {
+    String field = filter.getField();
+    Object value = filter.getValue();
+    switch (filter.getOperator()) {
+      case EQUAL_TO:
+      case NUMERIC_EQUAL_TO:
+        return Filter.equalTo(field, value);
+      case NOT_EQUAL_TO:
+        return Filter.notEqualTo(field, value);
+      case LESS_THAN:
+        return Filter.lessThan(field, value);
+      case LESS_THAN_OR_EQUAL_TO:
+        return Filter.lessThanOrEqualTo(field, value);
+      case GREATER_THAN:
+        return Filter.greaterThan(field, value);
+      case GREATER_THAN_OR_EQUAL_TO:
+        return Filter.greaterThanOrEqualTo(field, value);
+      case IN:
+        return Filter.inArray(field, value);
+      case NOT_IN:
+        return Filter.notInArray(field, value);
+      case ARRAY_CONTAINS:
+        return Filter.arrayContains(field, value);
+      case ARRAY_CONTAINS_ANY:
+        return Filter.arrayContainsAny(field, value);
+      case OR:
+        return Filter.or(toFilters(filter.getFilters()));
+      case AND:
+        return Filter.and(toFilters(filter.getFilters()));
+      default:
+        throw new IllegalArgumentException(String.format("Unsupported filter operator '%s'.",
+                                                         filter.getOperator().getValue()));
+    }
+  }
+
+  private static Filter[] toFilters(List<FilterInfo> filters) {
+    return filters.stream().map(FirestoreQueryBuilder::toFilter).toArray(Filter[]::new);
+  }
+
+  private static void addFilterFields(List<FilterInfo> filters, Set<String> fields) {
+    for (FilterInfo filter : filters) {
+      if (filter.getOperator().isComposite()) {
+        addFilterFields(filter.getFilters(), fields);
+      } else {
+        fields.add(filter.getField());
+      }
+    }
+  }
 }
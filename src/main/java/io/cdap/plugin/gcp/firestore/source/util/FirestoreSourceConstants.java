@@ -55,4 +55,215 @@ public interface FirestoreSourceConstants {
    * Configuration property name used to specify the comma-separated list of filters.
    */
   String PROPERTY_CUSTOM_QUERY = "customQuery";
+
+  /**
+   * Configuration property name used to pass the filters parsed when the pipeline run is prepared to the readers.
+   */
+  String PROPERTY_FILTER_PLAN = "filterPlan";
+
+  /**
+   * Configuration property name used to specify the fields to order the documents by.
+   */
+  String PROPERTY_ORDER_BY = "orderBy";
+
+  /**
+   * Configuration property name used to specify the values of the order by fields to start reading at.
+   */
+  String PROPERTY_START_AT = "startAt";
+
+  /**
+   * Configuration property name used to specify the maximum number of documents to read.
+   */
+  String PROPERTY_LIMIT = "limit";
+
+  /**
+   * Configuration property name used to specify the aggregations to compute.
+   */
+  String PROPERTY_AGGREGATIONS = "aggregations";
+
+  /**
+   * Configuration property name used to specify the field to group the aggregations by.
+   */
+  String PROPERTY_GROUP_BY_FIELD = "groupByField";
+
+  /**
+   * Configuration property name used to specify the values of the group by field to compute aggregations for.
+   */
+  String PROPERTY_GROUP_BY_VALUES = "groupByValues";
+
+  /**
+   * Configuration property name used to specify the timestamp field that incremental reads are driven by.
+   */
+  String PROPERTY_INCREMENTAL_FIELD = "incrementalField";
+
+  /**
+   * Configuration property name used to specify the path of the file holding the watermark of incremental reads.
+   */
+  String PROPERTY_WATERMARK_PATH = "watermarkPath";
+
+  /**
+   * Configuration property name used to specify whether all documents are read from a consistent snapshot.
+   */
+  String PROPERTY_SNAPSHOT_READ = "snapshotRead";
+
+  /**
+   * Configuration property name used to pass the time all readers read the documents at.
+   */
+  String PROPERTY_READ_TIME = "readTime";
+
+  /**
+   * Configuration property name used to pass the schema of the records output by the readers.
+   */
+  String PROPERTY_OUTPUT_SCHEMA = "outputSchema";
+
+  /**
+   * Maximum number of aggregations Firestore computes in a single aggregation query.
+   */
+  int MAX_AGGREGATIONS = 5;
+
+  /**
+   * Configuration property name used to specify the desired number of splits to read the collection with.
+   */
+  String PROPERTY_NUM_SPLITS = "numSplits";
+
+  /**
+   * Default number of splits, the whole collection is read by a single split.
+   */
+  int DEFAULT_NUM_SPLITS = 1;
+
+  /**
+   * Configuration property name used to specify the number of documents fetched from Firestore in one request.
+   */
+  String PROPERTY_PAGE_SIZE = "pageSize";
+
+  /**
+   * Default number of documents fetched from Firestore in one request.
+   */
+  int DEFAULT_PAGE_SIZE = 1000;
+
+  /**
+   * Configuration property name used to specify the number of pages fetched ahead of the page being read.
+   */
+  String PROPERTY_PREFETCH_DEPTH = "prefetchDepth";
+
+  /**
+   * Default number of pages fetched ahead of the page being read.
+   */
+  int DEFAULT_PREFETCH_DEPTH = 1;
+
+  /**
+   * Configuration property name used to specify the maximum size in megabytes of the prefetched pages.
+   */
+  String PROPERTY_PREFETCH_BUFFER_SIZE = "prefetchBufferSize";
+
+  /**
+   * Default maximum size in megabytes of the prefetched pages.
+   */
+  int DEFAULT_PREFETCH_BUFFER_SIZE = 64;
+
+  /**
+   * Configuration property name used to specify how the documents are fetched from Firestore.
+   */
+  String PROPERTY_READ_MODE = "readMode";
+
+  /**
+   * Maximum number of values Firestore accepts in a single 'not-in' filter.
+   */
+  int MAX_NOT_IN_VALUES = 10;
+
+  /**
+   * Maximum number of values Firestore accepts in a single 'in' or 'array-contains-any' filter.
+   */
+  int MAX_IN_VALUES = 30;
+
+  /**
+   * Configuration property name used to specify the field set to the type of change of a streamed document.
+   */
+  String PROPERTY_CHANGE_TYPE_FIELD = "changeTypeField";
+
+  /**
+   * Configuration property name used to specify whether the documents matching the query when the stream
+   * starts are emitted.
+   */
+  String PROPERTY_EMIT_INITIAL = "emitInitialDocuments";
+
+  /**
+   * Configuration property name used to specify whether all collections with the given id are read.
+   */
+  String PROPERTY_COLLECTION_GROUP = "collectionGroup";
+
+  /**
+   * Configuration property name used to specify the field set to the path of the parent document.
+   */
+  String PROPERTY_PARENT_PATH_FIELD = "parentPathField";
+
+  /**
+   * Configuration property name used to specify the number of subcollection levels read under each document.
+   */
+  String PROPERTY_TRAVERSAL_DEPTH = "traversalDepth";
+
+  /**
+   * Configuration property name used to specify the number of subcollections listed and read at the same time.
+   */
+  String PROPERTY_TRAVERSAL_CONCURRENCY = "traversalConcurrency";
+
+  /**
+   * Default number of subcollections listed and read at the same time.
+   */
+  int DEFAULT_TRAVERSAL_CONCURRENCY = 4;
+
+  /**
+   * Configuration property name used to specify the field set to the full path of the document.
+   */
+  String PROPERTY_DOCUMENT_PATH_FIELD = "documentPathField";
+
+  /**
+   * Suffix of a collection name that reads all collections starting with the name.
+   */
+  String COLLECTION_WILDCARD = "*";
+
+  /**
+   * Configuration property name used to specify the field set to the path of the collection of the document.
+   */
+  String PROPERTY_COLLECTION_NAME_FIELD = "collectionNameField";
+
+  /**
+   * Configuration property name used to specify the numeric or timestamp field the collection is split by.
+   */
+  String PROPERTY_SPLIT_FIELD = "splitField";
+
+  /**
+   * Configuration property name used to specify the lower bound of the values of the split field.
+   */
+  String PROPERTY_SPLIT_LOWER_BOUND = "splitLowerBound";
+
+  /**
+   * Configuration property name used to specify the upper bound of the values of the split field.
+   */
+  String PROPERTY_SPLIT_UPPER_BOUND = "splitUpperBound";
+
+  /**
+   * Configuration property name used to specify the number of documents a split should hold.
+   */
+  String PROPERTY_TARGET_DOCUMENTS_PER_SPLIT = "targetDocumentsPerSplit";
+
+  /**
+   * Configuration property name used to specify the number of ranges the unread tail of a slow split is divided into.
+   */
+  String PROPERTY_STRAGGLER_PARALLELISM = "stragglerParallelism";
+
+  /**
+   * Default number of ranges the unread tail of a slow split is divided into, the tail is not divided.
+   */
+  int DEFAULT_STRAGGLER_PARALLELISM = 1;
+
+  /**
+   * Configuration property name used to specify the number of seconds after which a split is considered slow.
+   */
+  String PROPERTY_STRAGGLER_TIMEOUT = "stragglerTimeout";
+
+  /**
+   * Default number of seconds after which a split is considered slow.
+   */
+  int DEFAULT_STRAGGLER_TIMEOUT = 300;
 }
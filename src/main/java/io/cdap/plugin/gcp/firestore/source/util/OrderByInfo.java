@@ -0,0 +1,45 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source.util;
+
+import com.google.cloud.firestore.Query;
+
+/**
+ * Class to hold information for ordering the documents by a field.
+ */
+public class OrderByInfo {
+  private final String field;
+  private final Query.Direction direction;
+
+  /**
+   * Constructor for OrderByInfo object.
+   * @param field the field to order by
+   * @param direction the direction of the ordering
+   */
+  public OrderByInfo(String field, Query.Direction direction) {
+    this.field = field;
+    this.direction = direction;
+  }
+
+  public String getField() {
+    return field;
+  }
+
+  public Query.Direction getDirection() {
+    return direction;
+  }
+}
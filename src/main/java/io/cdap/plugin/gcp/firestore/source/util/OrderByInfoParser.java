@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source.util;
+
+import com.google.cloud.firestore.Query;
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The class that provides helper method for parsing the order by string.
+ */
+public class OrderByInfoParser {
+  private static final String ASCENDING = "asc";
+  private static final String DESCENDING = "desc";
+
+  /**
+   * Returns the orderings to apply, in order of precedence.
+   * @param orderByString the order by string in field[:asc|desc][,field[:asc|desc]] format
+   * @return the list of orderings to apply, empty if no ordering is given
+   * @throws IllegalArgumentException
+   */
+  public static List<OrderByInfo> parseOrderByString(String orderByString) throws IllegalArgumentException {
+    List<OrderByInfo> orderByInfos = new ArrayList<>();
+
+    if (Strings.isNullOrEmpty(orderByString)) {
+      return orderByInfos;
+    }
+
+    for (String orderBy : Splitter.on(',').trimResults().omitEmptyStrings().split(orderByString)) {
+      String field = orderBy;
+      Query.Direction direction = Query.Direction.ASCENDING;
+
+      int colonIdx = orderBy.lastIndexOf(':');
+      if (colonIdx >= 0) {
+        field = orderBy.substring(0, colonIdx).trim();
+        String directionStr = orderBy.substring(colonIdx + 1).trim();
+        if (DESCENDING.equalsIgnoreCase(directionStr)) {
+          direction = Query.Direction.DESCENDING;
+        } else if (!ASCENDING.equalsIgnoreCase(directionStr)) {
+          throw new IllegalArgumentException(String.format(
+            "Invalid direction '%s' in '%s'. Must be one of %s, %s.", directionStr, orderBy, ASCENDING, DESCENDING));
+        }
+      }
+
+      if (field.isEmpty()) {
+        throw new IllegalArgumentException(String.format(
+          "Invalid ordering '%s'. A field must be given.", orderBy));
+      }
+      orderByInfos.add(new OrderByInfo(field, direction));
+    }
+    return orderByInfos;
+  }
+}
@@ -34,7 +34,12 @@ public enum SourceQueryMode {
   /**
    * Mode will be used as Advanced for querying documents.
    */
-  ADVANCED("Advanced");
+  ADVANCED("Advanced"),
+
+  /**
+   * Mode will be used to compute aggregations of the documents without reading them.
+   */
+  AGGREGATION("Aggregation");
 
   private final String value;
 
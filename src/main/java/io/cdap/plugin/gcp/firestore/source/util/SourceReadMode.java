@@ -0,0 +1,71 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source.util;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Indicates how the documents of a split are fetched from Firestore.
+ */
+public enum SourceReadMode {
+
+  /**
+   * Documents are fetched page by page, following pages are prefetched in the background.
+   */
+  PAGED("Paged"),
+
+  /**
+   * Documents are streamed by the server as they are produced by a single query.
+   */
+  STREAMING("Streaming"),
+
+  /**
+   * Documents are streamed by the server as they are produced by a single query and converted into records straight
+   * from their protocol buffer messages, without building document snapshots.
+   */
+  RAW("Raw");
+
+  private final String value;
+
+  SourceReadMode(String value) {
+    this.value = value;
+  }
+
+  /**
+   * Converts read mode string value into {@link SourceReadMode} enum.
+   *
+   * @param stringValue read mode string value
+   * @return source read mode in optional container
+   */
+  public static Optional<SourceReadMode> fromValue(String stringValue) {
+    return Stream.of(values())
+      .filter(keyType -> keyType.value.equalsIgnoreCase(stringValue))
+      .findAny();
+  }
+
+  public static String getSupportedModes() {
+    return Arrays.stream(SourceReadMode.values()).map(SourceReadMode::getValue)
+      .collect(Collectors.joining(", "));
+  }
+
+  public String getValue() {
+    return value;
+  }
+}
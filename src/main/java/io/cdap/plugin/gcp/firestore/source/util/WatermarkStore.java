@@ -0,0 +1,88 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source.util;
+
+import com.google.cloud.Timestamp;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import javax.annotation.Nullable;
+
+/**
+ * Stores the watermark of incremental reads in a file, on any file system supported by Hadoop.
+ * The file holds the timestamp in RFC 3339 format up to which documents were read by the last successful run.
+ */
+public class WatermarkStore {
+  private final Path path;
+
+  /**
+   * Constructor for WatermarkStore object.
+   * @param path the path of the watermark file
+   */
+  public WatermarkStore(String path) {
+    this.path = new Path(path);
+  }
+
+  /**
+   * Returns the stored watermark.
+   *
+   * @return the stored watermark, null if no watermark has been stored yet
+   * @throws IOException if the watermark file can't be read or is malformed
+   */
+  @Nullable
+  public Timestamp read() throws IOException {
+    FileSystem fs = path.getFileSystem(new Configuration());
+    if (!fs.exists(path)) {
+      return null;
+    }
+    try (FSDataInputStream in = fs.open(path);
+         BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+      String value = reader.readLine();
+      return value == null || value.trim().isEmpty() ? null : Timestamp.parseTimestamp(value.trim());
+    } catch (RuntimeException e) {
+      throw new IOException(String.format("Malformed watermark in '%s'.", path), e);
+    }
+  }
+
+  /**
+   * Replaces the stored watermark.
+   *
+   * @param watermark the new watermark
+   * @throws IOException if the watermark file can't be written
+   */
+  public void write(Timestamp watermark) throws IOException {
+    FileSystem fs = path.getFileSystem(new Configuration());
+    // written aside first, so that a failed write never leaves a truncated watermark behind
+    Path tmpPath = new Path(path.getParent(), "." + path.getName() + ".tmp");
+    try (FSDataOutputStream out = fs.create(tmpPath, true)) {
+      out.write((watermark.toString() + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+    if (fs.exists(path) && !fs.delete(path, false)) {
+      throw new IOException(String.format("Failed to replace watermark in '%s'.", path));
+    }
+    if (!fs.rename(tmpPath, path)) {
+      throw new IOException(String.format("Failed to write watermark to '%s'.", path));
+    }
+  }
+}
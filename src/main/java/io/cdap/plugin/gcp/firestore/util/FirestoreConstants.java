@@ -40,4 +40,14 @@ public interface FirestoreConstants {
    * Default name of the database to use when it is not specified.
    */
   String DEFAULT_DATABASE_NAME = "(default)";
+
+  /**
+   * Name of the record field holding the latitude of a Firestore geo point.
+   */
+  String GEO_POINT_LATITUDE = "latitude";
+
+  /**
+   * Name of the record field holding the longitude of a Firestore geo point.
+   */
+  String GEO_POINT_LONGITUDE = "longitude";
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Tests for {@link DocumentLookupFetcher} class.
+ */
+public class DocumentLookupFetcherTest {
+
+  @Test
+  public void testMissingDocumentsAreSkipped() throws Exception {
+    Firestore db = Mockito.mock(Firestore.class);
+    CollectionReference collection = Mockito.mock(CollectionReference.class);
+    Mockito.when(db.collection("users")).thenReturn(collection);
+    DocumentSnapshot alice = document(true);
+    DocumentSnapshot bob = document(false);
+    DocumentSnapshot carol = document(false);
+    Mockito.when(db.getAll(Mockito.any(DocumentReference[].class), Mockito.isNull()))
+      .thenReturn(ApiFutures.immediateFuture(Arrays.asList(alice, bob)))
+      .thenReturn(ApiFutures.immediateFuture(Collections.singletonList(carol)));
+
+    DocumentLookupFetcher fetcher = new DocumentLookupFetcher(
+      FirestoreReadExecutor.create(db), db, "users", Arrays.asList("alice", "bob", "carol"),
+      Collections.emptyList(), 2, 1);
+
+    Assert.assertEquals(Collections.singletonList(alice), fetcher.nextPage());
+    // a chunk of missing documents yields an empty page rather than the end of the documents
+    Assert.assertEquals(Collections.emptyList(), fetcher.nextPage());
+    Assert.assertNull(fetcher.nextPage());
+
+    ArgumentCaptor<String> ids = ArgumentCaptor.forClass(String.class);
+    Mockito.verify(collection, Mockito.times(3)).document(ids.capture());
+    Assert.assertEquals(Arrays.asList("alice", "bob", "carol"), ids.getAllValues());
+  }
+
+  private static DocumentSnapshot document(boolean exists) {
+    DocumentSnapshot document = Mockito.mock(DocumentSnapshot.class);
+    Mockito.when(document.exists()).thenReturn(exists);
+    return document;
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import com.google.firestore.v1.ArrayValue;
+import com.google.firestore.v1.Document;
+import com.google.firestore.v1.MapValue;
+import com.google.firestore.v1.Value;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.NullValue;
+import com.google.protobuf.Timestamp;
+import com.google.type.LatLng;
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.format.UnexpectedFormatException;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.plugin.gcp.firestore.util.FirestoreConstants;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Tests for {@link DocumentToRecordTransformer} class. The conversion plan is shared with
+ * {@link QueryDocumentSnapshotToRecordTransformer} and tested there, only the reading of messages is tested here.
+ */
+public class DocumentToRecordTransformerTest {
+  private static final String DOCUMENTS = "projects/project/databases/(default)/documents/";
+
+  @Test
+  public void testTransformValues() {
+    Schema schema = Schema.recordOf(
+      "record",
+      Schema.Field.of("key", Schema.of(Schema.Type.STRING)),
+      Schema.Field.of("count", Schema.nullableOf(Schema.of(Schema.Type.INT))),
+      Schema.Field.of("createdAt", Schema.nullableOf(Schema.of(Schema.LogicalType.TIMESTAMP_MICROS))),
+      Schema.Field.of("owner", Schema.nullableOf(Schema.of(Schema.Type.STRING))),
+      Schema.Field.of("avatar", Schema.nullableOf(Schema.of(Schema.Type.BYTES))),
+      Schema.Field.of("location", Schema.nullableOf(Schema.recordOf(
+        "location",
+        Schema.Field.of(FirestoreConstants.GEO_POINT_LATITUDE, Schema.of(Schema.Type.DOUBLE)),
+        Schema.Field.of(FirestoreConstants.GEO_POINT_LONGITUDE, Schema.of(Schema.Type.DOUBLE))))),
+      Schema.Field.of("tags", Schema.nullableOf(Schema.arrayOf(Schema.nullableOf(Schema.of(Schema.Type.STRING))))),
+      Schema.Field.of("labels", Schema.nullableOf(Schema.mapOf(Schema.of(Schema.Type.STRING),
+                                                               Schema.of(Schema.Type.BOOLEAN)))),
+      Schema.Field.of("deleted", Schema.nullableOf(Schema.of(Schema.Type.STRING))));
+    Document document = Document.newBuilder()
+      .setName(DOCUMENTS + "users/alice")
+      .putFields("count", Value.newBuilder().setIntegerValue(7L).build())
+      .putFields("createdAt", Value.newBuilder()
+        .setTimestampValue(Timestamp.newBuilder().setSeconds(2).setNanos(5000)).build())
+      .putFields("owner", Value.newBuilder().setReferenceValue(DOCUMENTS + "users/bob").build())
+      .putFields("avatar", Value.newBuilder().setBytesValue(ByteString.copyFrom(new byte[] {1, 2, 3})).build())
+      .putFields("location", Value.newBuilder()
+        .setGeoPointValue(LatLng.newBuilder().setLatitude(48.85).setLongitude(2.35)).build())
+      .putFields("tags", Value.newBuilder().setArrayValue(ArrayValue.newBuilder()
+        .addValues(Value.newBuilder().setStringValue("a"))
+        .addValues(Value.newBuilder().setNullValue(NullValue.NULL_VALUE))).build())
+      .putFields("labels", Value.newBuilder().setMapValue(MapValue.newBuilder()
+        .putFields("x", Value.newBuilder().setBooleanValue(true).build())).build())
+      .putFields("deleted", Value.newBuilder().setNullValue(NullValue.NULL_VALUE).build())
+      .build();
+    DocumentToRecordTransformer transformer = new DocumentToRecordTransformer(schema, true, "key");
+
+    StructuredRecord record = transformer.transform(document);
+
+    Assert.assertEquals("alice", record.get("key"));
+    Assert.assertEquals(Integer.valueOf(7), record.get("count"));
+    Assert.assertEquals(Long.valueOf(2000005L), record.get("createdAt"));
+    Assert.assertEquals("users/bob", record.get("owner"));
+    Assert.assertEquals(ByteBuffer.wrap(new byte[] {1, 2, 3}), record.get("avatar"));
+    StructuredRecord location = record.get("location");
+    Assert.assertEquals(48.85, location.<Double>get(FirestoreConstants.GEO_POINT_LATITUDE), 0);
+    Assert.assertEquals(2.35, location.<Double>get(FirestoreConstants.GEO_POINT_LONGITUDE), 0);
+    Assert.assertEquals(Arrays.asList("a", null), record.get("tags"));
+    Assert.assertEquals(Collections.singletonMap("x", true), record.get("labels"));
+    Assert.assertNull(record.get("deleted"));
+  }
+
+  @Test
+  public void testTransformInvalidType() {
+    Schema schema = Schema.recordOf(
+      "record",
+      Schema.Field.of("age", Schema.nullableOf(Schema.of(Schema.Type.LONG))));
+    Document document = Document.newBuilder()
+      .setName(DOCUMENTS + "users/alice")
+      .putFields("age", Value.newBuilder().setStringValue("42").build())
+      .build();
+
+    try {
+      new DocumentToRecordTransformer(schema, false, null).transform(document);
+      Assert.fail("Expected the conversion of field 'age' to fail");
+    } catch (UnexpectedFormatException e) {
+      Assert.assertEquals("Document field 'age' is expected to be of type 'integer_value', but found a "
+                            + "'string_value'.", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testGetDocumentPath() {
+    Assert.assertEquals("users/alice/orders/1",
+                        DocumentToRecordTransformer.getDocumentPath(DOCUMENTS + "users/alice/orders/1"));
+  }
+}
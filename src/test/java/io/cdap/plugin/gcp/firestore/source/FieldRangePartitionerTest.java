@@ -0,0 +1,152 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import com.google.cloud.Timestamp;
+import io.cdap.plugin.gcp.firestore.source.util.FilterInfo;
+import io.cdap.plugin.gcp.firestore.source.util.FilterOperator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Tests for {@link FieldRangePartitioner} class.
+ */
+public class FieldRangePartitionerTest {
+
+  @Test
+  public void testParseBound() {
+    Assert.assertNull(FieldRangePartitioner.parseBound(null));
+    Assert.assertEquals(10L, FieldRangePartitioner.parseBound("10"));
+    Assert.assertEquals(1.5, FieldRangePartitioner.parseBound("1.5"));
+    Assert.assertEquals(Timestamp.parseTimestamp("2024-01-01T00:00:00Z"),
+                        FieldRangePartitioner.parseBound("2024-01-01T00:00:00Z"));
+    Assert.assertEquals(7L, FieldRangePartitioner.parseBound("long(7)"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseStringBound() {
+    FieldRangePartitioner.parseBound("yesterday");
+  }
+
+  @Test
+  public void testPartitionLongs() {
+    List<List<FilterInfo>> ranges = FieldRangePartitioner.partition("size", 0L, 100L, 4);
+
+    Assert.assertEquals(4, ranges.size());
+    assertRange(ranges.get(0), null, 25L);
+    assertRange(ranges.get(1), 25L, 50L);
+    assertRange(ranges.get(2), 50L, 75L);
+    assertRange(ranges.get(3), 75L, null);
+  }
+
+  @Test
+  public void testPartitionNarrowRange() {
+    // a range narrower than the number of splits yields one split per value
+    List<List<FilterInfo>> ranges = FieldRangePartitioner.partition("size", 0L, 2L, 10);
+
+    Assert.assertEquals(2, ranges.size());
+    assertRange(ranges.get(0), null, 1L);
+    assertRange(ranges.get(1), 1L, null);
+
+    ranges = FieldRangePartitioner.partition("size", 5L, 5L, 10);
+    Assert.assertEquals(1, ranges.size());
+    Assert.assertTrue(ranges.get(0).isEmpty());
+  }
+
+  @Test
+  public void testPartitionFullLongRange() {
+    // the width of the range doesn't fit in a long
+    List<List<FilterInfo>> ranges = FieldRangePartitioner.partition("size", Long.MIN_VALUE, Long.MAX_VALUE, 4);
+
+    Assert.assertEquals(4, ranges.size());
+    assertRange(ranges.get(0), null, -4611686018427387905L);
+    assertRange(ranges.get(1), -4611686018427387905L, -1L);
+    assertRange(ranges.get(2), -1L, 4611686018427387903L);
+    assertRange(ranges.get(3), 4611686018427387903L, null);
+  }
+
+  @Test
+  public void testPartitionTimestamps() {
+    Timestamp start = Timestamp.parseTimestamp("2024-01-01T00:00:00Z");
+    Timestamp end = Timestamp.parseTimestamp("2024-01-03T00:00:00Z");
+    List<List<FilterInfo>> ranges = FieldRangePartitioner.partition("createdAt", start, end, 2);
+
+    Assert.assertEquals(2, ranges.size());
+    assertRange(ranges.get(0), null, Timestamp.parseTimestamp("2024-01-02T00:00:00Z"));
+    assertRange(ranges.get(1), Timestamp.parseTimestamp("2024-01-02T00:00:00Z"), null);
+  }
+
+  @Test
+  public void testPartitionMixedKinds() {
+    List<List<FilterInfo>> ranges = FieldRangePartitioner.partition("size", 0L, Timestamp.now(), 4);
+
+    Assert.assertEquals(1, ranges.size());
+    Assert.assertTrue(ranges.get(0).isEmpty());
+  }
+
+  @Test
+  public void testSubdivide() {
+    List<List<FilterInfo>> ranges = FieldRangePartitioner.partition("size", 0L, 100L, 4);
+
+    // the open side of the first range is bounded by the lowest value, but the divided range stays open
+    List<List<FilterInfo>> parts = FieldRangePartitioner.subdivide("size", ranges.get(0), 0L, 100L, 5);
+    Assert.assertEquals(5, parts.size());
+    assertRange(parts.get(0), null, 5L);
+    assertRange(parts.get(1), 5L, 10L);
+    assertRange(parts.get(4), 20L, 25L);
+
+    parts = FieldRangePartitioner.subdivide("size", ranges.get(1), 0L, 100L, 5);
+    Assert.assertEquals(5, parts.size());
+    assertRange(parts.get(0), 25L, 30L);
+    assertRange(parts.get(4), 45L, 50L);
+  }
+
+  @Test
+  public void testSubdivideSingleValue() {
+    List<List<FilterInfo>> ranges = FieldRangePartitioner.partition("size", 0L, 2L, 2);
+
+    List<List<FilterInfo>> parts = FieldRangePartitioner.subdivide("size", ranges.get(0), 0L, 2L, 4);
+    Assert.assertEquals(1, parts.size());
+    assertRange(parts.get(0), null, 1L);
+  }
+
+  @Test
+  public void testSpan() {
+    List<List<FilterInfo>> ranges = FieldRangePartitioner.partition("size", 0L, 100L, 4);
+
+    assertRange(FieldRangePartitioner.span(ranges.get(0), ranges.get(2)), null, 75L);
+    assertRange(FieldRangePartitioner.span(ranges.get(1), ranges.get(3)), 25L, null);
+    Assert.assertTrue(FieldRangePartitioner.span(ranges.get(0), ranges.get(3)).isEmpty());
+  }
+
+  private static void assertRange(List<FilterInfo> range, Object start, Object end) {
+    int index = 0;
+    if (start != null) {
+      Assert.assertEquals(FilterOperator.GREATER_THAN_OR_EQUAL_TO, range.get(index).getOperator());
+      Assert.assertEquals(start, range.get(index).getValue());
+      index++;
+    }
+    if (end != null) {
+      Assert.assertEquals(FilterOperator.LESS_THAN, range.get(index).getOperator());
+      Assert.assertEquals(end, range.get(index).getValue());
+      index++;
+    }
+    Assert.assertEquals(index, range.size());
+  }
+}
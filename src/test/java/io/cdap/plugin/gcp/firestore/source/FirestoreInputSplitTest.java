@@ -0,0 +1,88 @@
+/*
+ * Copyright © 2020 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Tests for {@link FirestoreInputSplit} class.
+ */
+public class FirestoreInputSplitTest {
+
+  @Test
+  public void testSerializeCursorRange() throws IOException {
+    FirestoreInputSplit split = roundTrip(new FirestoreInputSplit("users/a", "users/m"));
+
+    Assert.assertEquals("users/a", split.getStartAt());
+    Assert.assertEquals("users/m", split.getEndBefore());
+  }
+
+  @Test
+  public void testSerializeUnboundedRange() throws IOException {
+    FirestoreInputSplit split = roundTrip(new FirestoreInputSplit(null, "users/m"));
+
+    Assert.assertNull(split.getStartAt());
+    Assert.assertEquals("users/m", split.getEndBefore());
+
+    split = roundTrip(new FirestoreInputSplit());
+
+    Assert.assertNull(split.getStartAt());
+    Assert.assertNull(split.getEndBefore());
+  }
+
+  @Test
+  public void testSerializeCollection() throws IOException {
+    FirestoreInputSplit split = roundTrip(new FirestoreInputSplit("orders", "orders/a", null));
+
+    Assert.assertEquals("orders", split.getCollection());
+    Assert.assertEquals("orders/a", split.getStartAt());
+    Assert.assertNull(split.getEndBefore());
+
+    split = roundTrip(new FirestoreInputSplit("users/m", null));
+
+    Assert.assertNull(split.getCollection());
+  }
+
+  @Test
+  public void testSerializeEstimatedDocuments() throws Exception {
+    FirestoreInputSplit split = new FirestoreInputSplit("orders", "orders/a", "orders/m");
+    Assert.assertEquals(-1, roundTrip(split).getEstimatedDocuments());
+    Assert.assertEquals(0, roundTrip(split).getLength());
+
+    split.setEstimatedDocuments(4200);
+    split = roundTrip(split);
+
+    Assert.assertEquals(4200, split.getEstimatedDocuments());
+    Assert.assertEquals(4200, split.getLength());
+  }
+
+  private FirestoreInputSplit roundTrip(FirestoreInputSplit split) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    split.write(new DataOutputStream(bytes));
+
+    FirestoreInputSplit result = new FirestoreInputSplit();
+    result.readFields(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    return result;
+  }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link FirestoreRawRecordReader} class.
+ */
+public class FirestoreRawRecordReaderTest {
+
+  @Test
+  public void testGetEndpoint() {
+    Assert.assertEquals("firestore.googleapis.com:443",
+                        FirestoreRawRecordReader.getEndpoint("https://firestore.googleapis.com"));
+    Assert.assertEquals("firestore.googleapis.com:443",
+                        FirestoreRawRecordReader.getEndpoint("firestore.googleapis.com:443"));
+    Assert.assertEquals("localhost:8080", FirestoreRawRecordReader.getEndpoint("localhost:8080"));
+    Assert.assertEquals("localhost:8080", FirestoreRawRecordReader.getEndpoint("http://localhost:8080/"));
+  }
+}
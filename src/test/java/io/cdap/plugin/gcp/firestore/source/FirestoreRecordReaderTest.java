@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import com.google.cloud.firestore.Firestore;
+import io.cdap.plugin.gcp.firestore.source.util.FilterInfo;
+import io.cdap.plugin.gcp.firestore.source.util.FilterOperator;
+import io.cdap.plugin.gcp.firestore.source.util.FirestoreSourceConstants;
+import org.apache.hadoop.conf.Configuration;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Tests for {@link FirestoreRecordReader} class.
+ */
+public class FirestoreRecordReaderTest {
+
+  @Test
+  public void testCanExcludeOnServer() {
+    Assert.assertTrue(FirestoreRecordReader.canExcludeOnServer(Collections.emptyList()));
+    Assert.assertTrue(FirestoreRecordReader.canExcludeOnServer(Arrays.asList(
+      new FilterInfo("country", FilterOperator.EQUAL_TO, "FR"),
+      new FilterInfo("age", FilterOperator.NUMERIC_EQUAL_TO, 20L))));
+  }
+
+  @Test
+  public void testCannotExcludeOnServer() {
+    Assert.assertFalse(FirestoreRecordReader.canExcludeOnServer(Collections.singletonList(
+      new FilterInfo("age", FilterOperator.GREATER_THAN, 20L))));
+    Assert.assertFalse(FirestoreRecordReader.canExcludeOnServer(Collections.singletonList(
+      new FilterInfo("country", FilterOperator.NOT_IN, Arrays.asList("FR", "DE")))));
+    Assert.assertFalse(FirestoreRecordReader.canExcludeOnServer(Arrays.asList(
+      new FilterInfo("country", FilterOperator.EQUAL_TO, "FR"),
+      new FilterInfo("age", FilterOperator.NOT_EQUAL_TO, 20L))));
+  }
+
+  @Test
+  public void testGetReadExecutorWithoutReadTime() throws Exception {
+    FirestoreReadExecutor executor = FirestoreRecordReader.getReadExecutor(Mockito.mock(Firestore.class),
+                                                                           new Configuration(false));
+
+    Assert.assertTrue(executor.supportsStreaming());
+  }
+
+  @Test
+  public void testGetReadExecutorWithInvalidReadTime() throws Exception {
+    Firestore db = Mockito.mock(Firestore.class);
+    Configuration config = new Configuration(false);
+    config.set(FirestoreSourceConstants.PROPERTY_READ_TIME, "yesterday");
+
+    try {
+      FirestoreRecordReader.getReadExecutor(db, config);
+      Assert.fail("Expected the read time to be rejected");
+    } catch (IOException e) {
+      Assert.assertEquals("Invalid read time 'yesterday'.", e.getMessage());
+    }
+    Mockito.verifyZeroInteractions(db);
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import com.google.cloud.firestore.DocumentChange;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Tests for {@link FirestoreSnapshotReceiver} class.
+ */
+public class FirestoreSnapshotReceiverTest {
+  private static final Schema SCHEMA = Schema.recordOf(
+    "record",
+    Schema.Field.of("name", Schema.nullableOf(Schema.of(Schema.Type.STRING))),
+    Schema.Field.of("change", Schema.nullableOf(Schema.of(Schema.Type.STRING))));
+  private static final QueryDocumentSnapshotToRecordTransformer TRANSFORMER =
+    new QueryDocumentSnapshotToRecordTransformer(SCHEMA, false, null);
+
+  @Test
+  public void testChangeTypes() {
+    FirestoreSnapshotReceiver receiver = newReceiver("true");
+
+    receiver.onSnapshot(snapshot(change(DocumentChange.Type.ADDED, "alice"),
+                                 change(DocumentChange.Type.MODIFIED, "bob"),
+                                 change(DocumentChange.Type.REMOVED, "carol")), TRANSFORMER);
+
+    List<StructuredRecord> records = getStored(receiver, 1).get(0);
+    Assert.assertEquals(3, records.size());
+    Assert.assertEquals("alice", records.get(0).get("name"));
+    Assert.assertEquals("added", records.get(0).get("change"));
+    Assert.assertEquals("modified", records.get(1).get("change"));
+    Assert.assertEquals("removed", records.get(2).get("change"));
+  }
+
+  @Test
+  public void testInitialSnapshotSkipped() {
+    FirestoreSnapshotReceiver receiver = newReceiver("false");
+
+    receiver.onSnapshot(snapshot(change(DocumentChange.Type.ADDED, "alice")), TRANSFORMER);
+    receiver.onSnapshot(snapshot(change(DocumentChange.Type.MODIFIED, "alice")), TRANSFORMER);
+
+    List<List<StructuredRecord>> stored = getStored(receiver, 1);
+    Assert.assertEquals(1, stored.get(0).size());
+    Assert.assertEquals("modified", stored.get(0).get(0).get("change"));
+  }
+
+  @Test
+  public void testInitialSnapshotEmitted() {
+    FirestoreSnapshotReceiver receiver = newReceiver(null);
+
+    receiver.onSnapshot(snapshot(change(DocumentChange.Type.ADDED, "alice")), TRANSFORMER);
+    receiver.onSnapshot(snapshot(), TRANSFORMER);
+
+    // a snapshot without changes stores nothing
+    List<List<StructuredRecord>> stored = getStored(receiver, 1);
+    Assert.assertEquals("added", stored.get(0).get(0).get("change"));
+  }
+
+  private static FirestoreSnapshotReceiver newReceiver(String emitInitialDocuments) {
+    FirestoreSnapshotReceiver receiver = Mockito.spy(new FirestoreSnapshotReceiver(
+      FirestoreStreamingSourceConfigTest.newConfig("users", "change", emitInitialDocuments), SCHEMA));
+    Mockito.doNothing().when(receiver).store(Mockito.any(Iterator.class));
+    return receiver;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<List<StructuredRecord>> getStored(FirestoreSnapshotReceiver receiver, int times) {
+    ArgumentCaptor<Iterator> captor = ArgumentCaptor.forClass(Iterator.class);
+    Mockito.verify(receiver, Mockito.times(times)).store(captor.capture());
+    List<List<StructuredRecord>> stored = new ArrayList<>();
+    for (Iterator<StructuredRecord> records : captor.getAllValues()) {
+      List<StructuredRecord> list = new ArrayList<>();
+      records.forEachRemaining(list::add);
+      stored.add(list);
+    }
+    return stored;
+  }
+
+  private static QuerySnapshot snapshot(DocumentChange... changes) {
+    QuerySnapshot snapshot = Mockito.mock(QuerySnapshot.class);
+    Mockito.when(snapshot.getDocumentChanges()).thenReturn(Arrays.asList(changes));
+    return snapshot;
+  }
+
+  private static DocumentChange change(DocumentChange.Type type, String name) {
+    QueryDocumentSnapshot document = Mockito.mock(QueryDocumentSnapshot.class);
+    Mockito.when(document.getId()).thenReturn(name);
+    Mockito.when(document.get(FieldPath.of("name"))).thenReturn(name);
+    DocumentChange change = Mockito.mock(DocumentChange.class);
+    Mockito.when(change.getType()).thenReturn(type);
+    Mockito.when(change.getDocument()).thenReturn(document);
+    return change;
+  }
+}
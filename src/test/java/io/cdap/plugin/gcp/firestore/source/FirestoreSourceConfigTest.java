@@ -20,6 +20,7 @@ import io.cdap.cdap.etl.api.FailureCollector;
 import io.cdap.cdap.etl.api.validation.CauseAttributes;
 import io.cdap.cdap.etl.mock.validation.MockFailureCollector;
 import io.cdap.plugin.gcp.firestore.common.FirestoreConfig;
+import io.cdap.plugin.gcp.firestore.source.util.FirestoreSourceConstants;
 import io.cdap.plugin.gcp.firestore.util.FirestoreConstants;
 import org.junit.Assert;
 import org.junit.Rule;
@@ -27,6 +28,8 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.mockito.Mockito;
 
+import java.util.Arrays;
+
 /**
  * Tests for {@link FirestoreSourceConfig}.
  */
@@ -198,6 +201,45 @@ public class FirestoreSourceConfigTest {
       .getCauses().get(0).getAttribute(CauseAttributes.STAGE_CONFIG));
   }
 
+  @Test
+  public void testValidateCollectionWildcardNotAtEnd() {
+    MockFailureCollector collector = new MockFailureCollector();
+    FirestoreSourceConfig config = withFirestoreValidationMock(FirestoreSourceConfigHelper.newConfigBuilder()
+      .setCollection("orders,sales_*_eu")
+      .build(), collector);
+
+    config.validate(collector);
+    Assert.assertEquals(1, collector.getValidationFailures().size());
+    Assert.assertEquals(FirestoreConstants.PROPERTY_COLLECTION, collector.getValidationFailures().get(0)
+      .getCauses().get(0).getAttribute(CauseAttributes.STAGE_CONFIG));
+  }
+
+  @Test
+  public void testMultipleCollections() {
+    MockFailureCollector collector = new MockFailureCollector();
+    FirestoreSourceConfig config = withFirestoreValidationMock(FirestoreSourceConfigHelper.newConfigBuilder()
+      .setCollection("orders, customers,orders,sales_*")
+      .build(), collector);
+
+    config.validate(collector);
+    Assert.assertEquals(0, collector.getValidationFailures().size());
+    Assert.assertEquals(Arrays.asList("orders", "customers", "sales_*"), config.getCollections());
+    Assert.assertTrue(config.isMultiCollection());
+  }
+
+  @Test
+  public void testValidatePageSize() {
+    MockFailureCollector collector = new MockFailureCollector();
+    FirestoreSourceConfig config = withFirestoreValidationMock(FirestoreSourceConfigHelper.newConfigBuilder()
+      .build(), collector);
+    Mockito.doReturn(0).when(config).getPageSize();
+
+    config.validate(collector);
+    Assert.assertEquals(1, collector.getValidationFailures().size());
+    Assert.assertEquals(FirestoreSourceConstants.PROPERTY_PAGE_SIZE, collector.getValidationFailures().get(0)
+      .getCauses().get(0).getAttribute(CauseAttributes.STAGE_CONFIG));
+  }
+
   @Test
   public void testIsIncludeDocumentIdTrue() {
     FirestoreSourceConfig config = FirestoreSourceConfigHelper.newConfigBuilder()
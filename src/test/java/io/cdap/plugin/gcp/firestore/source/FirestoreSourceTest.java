@@ -25,9 +25,11 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -40,6 +42,9 @@ public class FirestoreSourceTest {
   @Rule
   public ExpectedException thrown = ExpectedException.none();
 
+  @Mock
+  private FirestoreSourceConfig config;
+
   @InjectMocks
   private FirestoreSource firestoreSource;
 
@@ -82,6 +87,31 @@ public class FirestoreSourceTest {
     Assert.assertNull(field);
   }
 
+  @Test
+  public void testGetSchemaNestedValues() {
+    Map<String, Object> address = ImmutableMap.of("city", "Paris", "zip", 75001L);
+    Map<String, Object> fields = new ImmutableMap.Builder<String, Object>()
+      .put("address", address)
+      .put("tags", Arrays.asList("a", "b"))
+      .put("scores", ImmutableMap.of("2024-01", 1.5))
+      .build();
+
+    QueryDocumentSnapshot entity = Mockito.mock(QueryDocumentSnapshot.class);
+    Mockito.when(entity.getData()).thenReturn(fields);
+    fields.forEach((name, value) -> Mockito.when(entity.get(name)).thenReturn(value));
+
+    Schema schema = firestoreSource.constructSchema(entity, false, "key");
+
+    checkField("address", schema, Schema.nullableOf(Schema.recordOf(
+      "address",
+      Schema.Field.of("city", Schema.nullableOf(Schema.of(Schema.Type.STRING))),
+      Schema.Field.of("zip", Schema.nullableOf(Schema.of(Schema.Type.LONG))))));
+    checkField("tags", schema, Schema.nullableOf(Schema.arrayOf(Schema.nullableOf(Schema.of(Schema.Type.STRING)))));
+    // keys that are not valid field names can only be read as a map
+    checkField("scores", schema, Schema.nullableOf(Schema.mapOf(Schema.of(Schema.Type.STRING),
+                                                                Schema.nullableOf(Schema.of(Schema.Type.DOUBLE)))));
+  }
+
   private void checkField(String name, Schema schema, Schema fieldSchema) {
     Schema.Field field = schema.getField(name);
     Assert.assertNotNull(field);
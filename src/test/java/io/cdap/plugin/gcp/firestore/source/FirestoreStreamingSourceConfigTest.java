@@ -0,0 +1,93 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.cdap.etl.api.validation.CauseAttributes;
+import io.cdap.cdap.etl.mock.validation.MockFailureCollector;
+import io.cdap.plugin.gcp.firestore.source.util.FirestoreSourceConstants;
+import io.cdap.plugin.gcp.firestore.util.FirestoreConstants;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link FirestoreStreamingSourceConfig}.
+ */
+public class FirestoreStreamingSourceConfigTest {
+  private static final Schema SCHEMA = Schema.recordOf(
+    "record",
+    Schema.Field.of("name", Schema.nullableOf(Schema.of(Schema.Type.STRING))),
+    Schema.Field.of("age", Schema.nullableOf(Schema.of(Schema.Type.LONG))),
+    Schema.Field.of("change", Schema.nullableOf(Schema.of(Schema.Type.STRING))));
+
+  @Test
+  public void testValidate() {
+    MockFailureCollector collector = new MockFailureCollector();
+    FirestoreStreamingSourceConfig config = newConfig("users", "change", null);
+
+    config.validate(collector);
+    Assert.assertEquals(0, collector.getValidationFailures().size());
+  }
+
+  @Test
+  public void testValidateCollectionMissing() {
+    MockFailureCollector collector = new MockFailureCollector();
+    FirestoreStreamingSourceConfig config = newConfig("", null, null);
+
+    config.validate(collector);
+    Assert.assertEquals(1, collector.getValidationFailures().size());
+    Assert.assertEquals(FirestoreConstants.PROPERTY_COLLECTION, collector.getValidationFailures().get(0)
+      .getCauses().get(0).getAttribute(CauseAttributes.STAGE_CONFIG));
+  }
+
+  @Test
+  public void testValidateChangeTypeFieldMissing() {
+    MockFailureCollector collector = new MockFailureCollector();
+    FirestoreStreamingSourceConfig config = newConfig("users", "type", null);
+
+    config.validate(collector);
+    Assert.assertEquals(1, collector.getValidationFailures().size());
+    Assert.assertEquals(FirestoreSourceConstants.PROPERTY_CHANGE_TYPE_FIELD, collector.getValidationFailures().get(0)
+      .getCauses().get(0).getAttribute(CauseAttributes.STAGE_CONFIG));
+  }
+
+  @Test
+  public void testValidateChangeTypeFieldNotString() {
+    MockFailureCollector collector = new MockFailureCollector();
+    FirestoreStreamingSourceConfig config = newConfig("users", "age", null);
+
+    config.validate(collector);
+    Assert.assertEquals(1, collector.getValidationFailures().size());
+    Assert.assertEquals(FirestoreSourceConstants.PROPERTY_CHANGE_TYPE_FIELD, collector.getValidationFailures().get(0)
+      .getCauses().get(0).getAttribute(CauseAttributes.STAGE_CONFIG));
+  }
+
+  @Test
+  public void testIsEmitInitialDocuments() {
+    Assert.assertTrue(newConfig("users", null, null).isEmitInitialDocuments());
+    Assert.assertTrue(newConfig("users", null, "true").isEmitInitialDocuments());
+    Assert.assertFalse(newConfig("users", null, "false").isEmitInitialDocuments());
+  }
+
+  static FirestoreStreamingSourceConfig newConfig(String collection, String changeTypeField,
+                                                  String emitInitialDocuments) {
+    return new FirestoreStreamingSourceConfig(
+      FirestoreSourceConfigHelper.TEST_REF_NAME, FirestoreSourceConfigHelper.TEST_PROJECT, "/path/to/file",
+      FirestoreSourceConfigHelper.TEST_DATABASE, collection, null, "false", null, changeTypeField,
+      emitInitialDocuments, SCHEMA.toString());
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests for {@link PagedDocumentFetcher} class.
+ */
+public class PagedDocumentFetcherTest {
+
+  @Test
+  public void testLimitSpreadOverPages() throws Exception {
+    Query query = Mockito.mock(Query.class);
+    QueryDocumentSnapshot first = document("users/1");
+    QueryDocumentSnapshot second = document("users/2");
+    QueryDocumentSnapshot third = document("users/3");
+    QueryDocumentSnapshot fourth = document("users/4");
+    QueryDocumentSnapshot fifth = document("users/5");
+    Query afterSecond = Mockito.mock(Query.class);
+    Query afterFourth = Mockito.mock(Query.class);
+    Mockito.when(query.startAfter(second)).thenReturn(afterSecond);
+    Mockito.when(query.startAfter(fourth)).thenReturn(afterFourth);
+    mockPage(query, 2, first, second);
+    mockPage(afterSecond, 2, third, fourth);
+    mockPage(afterFourth, 1, fifth);
+
+    PagedDocumentFetcher fetcher = new PagedDocumentFetcher(executor(), query, 2, 5, 1, Long.MAX_VALUE);
+
+    Assert.assertEquals(Arrays.asList(first, second), fetcher.nextPage());
+    Assert.assertEquals(Arrays.asList(third, fourth), fetcher.nextPage());
+    Assert.assertEquals(Collections.singletonList(fifth), fetcher.nextPage());
+    Assert.assertNull(fetcher.nextPage());
+    // the last page only asks for the documents left under the limit, and none follows once it is reached
+    Mockito.verify(afterFourth).limit(1);
+    Mockito.verify(query, Mockito.never()).startAfter(fifth);
+  }
+
+  @Test
+  public void testLimitOfWholePages() throws Exception {
+    Query query = Mockito.mock(Query.class);
+    QueryDocumentSnapshot first = document("users/1");
+    QueryDocumentSnapshot second = document("users/2");
+    mockPage(query, 2, first, second);
+
+    PagedDocumentFetcher fetcher = new PagedDocumentFetcher(executor(), query, 2, 2, 1, Long.MAX_VALUE);
+
+    Assert.assertEquals(Arrays.asList(first, second), fetcher.nextPage());
+    Assert.assertNull(fetcher.nextPage());
+    Mockito.verify(query, Mockito.never()).startAfter(second);
+  }
+
+  @Test
+  public void testShortPageEndsWithoutLimit() throws Exception {
+    Query query = Mockito.mock(Query.class);
+    QueryDocumentSnapshot first = document("users/1");
+    QueryDocumentSnapshot second = document("users/2");
+    QueryDocumentSnapshot third = document("users/3");
+    Query afterSecond = Mockito.mock(Query.class);
+    Mockito.when(query.startAfter(second)).thenReturn(afterSecond);
+    mockPage(query, 2, first, second);
+    mockPage(afterSecond, 2, third);
+
+    PagedDocumentFetcher fetcher = new PagedDocumentFetcher(executor(), query, 2, 0, 1, Long.MAX_VALUE);
+
+    Assert.assertEquals(Arrays.asList(first, second), fetcher.nextPage());
+    Assert.assertEquals(Collections.singletonList(third), fetcher.nextPage());
+    Assert.assertNull(fetcher.nextPage());
+    Mockito.verify(query, Mockito.never()).startAfter(third);
+  }
+
+  private static FirestoreReadExecutor executor() {
+    return FirestoreReadExecutor.create(Mockito.mock(Firestore.class));
+  }
+
+  private static void mockPage(Query query, int limit, QueryDocumentSnapshot... documents) {
+    Query page = Mockito.mock(Query.class);
+    QuerySnapshot snapshot = Mockito.mock(QuerySnapshot.class);
+    List<QueryDocumentSnapshot> list = Arrays.asList(documents);
+    Mockito.when(snapshot.getDocuments()).thenReturn(list);
+    Mockito.when(page.get()).thenReturn(ApiFutures.immediateFuture(snapshot));
+    Mockito.when(query.limit(limit)).thenReturn(page);
+  }
+
+  private static QueryDocumentSnapshot document(String path) {
+    DocumentReference reference = Mockito.mock(DocumentReference.class);
+    Mockito.when(reference.getPath()).thenReturn(path);
+    QueryDocumentSnapshot document = Mockito.mock(QueryDocumentSnapshot.class);
+    Mockito.when(document.getReference()).thenReturn(reference);
+    Mockito.when(document.getData()).thenReturn(Collections.emptyMap());
+    return document;
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.CollectionGroup;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.QueryPartition;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests for {@link PartitionBoundaries} class.
+ */
+public class PartitionBoundariesTest {
+
+  @Test
+  public void testOversample() {
+    // all cursors kept, the collection holds no more partitions
+    Assert.assertEquals(4, PartitionBoundaries.oversample(4, 3, 3, 3));
+    // enough cursors kept
+    Assert.assertEquals(4, PartitionBoundaries.oversample(4, 9, 3, 3));
+    // one cursor of 9 kept, about three times as many partitions are needed per cursor wanted
+    Assert.assertEquals(8, PartitionBoundaries.oversample(4, 9, 1, 3));
+    // no cursor kept
+    Assert.assertEquals(16, PartitionBoundaries.oversample(4, 9, 0, 3));
+    Assert.assertEquals(PartitionBoundaries.MAX_PARTITIONS, PartitionBoundaries.oversample(5000, 9, 0, 4999));
+  }
+
+  @Test
+  public void testPickEvenly() {
+    List<String> cursors = Arrays.asList("a", "b", "c", "d", "e", "f", "g", "h");
+    Assert.assertEquals(Arrays.asList("c", "e", "g"), PartitionBoundaries.pickEvenly(cursors, 3));
+    Assert.assertEquals(cursors, PartitionBoundaries.pickEvenly(cursors, 10));
+  }
+
+  @Test
+  public void testGetOversamplesDroppedCursors() throws Exception {
+    Firestore db = Mockito.mock(Firestore.class);
+    CollectionGroup group = Mockito.mock(CollectionGroup.class);
+    Mockito.when(db.collectionGroup("items")).thenReturn(group);
+    // most items belong to other users, only one cursor of the first request is kept
+    ApiFuture<List<QueryPartition>> first = ApiFutures.immediateFuture(partitions(
+      "users/a/items/1", "users/b/items/1", "users/c/items/1"));
+    Mockito.when(group.getPartitions(Mockito.anyInt())).thenReturn(ApiFutures.immediateFuture(partitions(
+      "users/a/items/1", "users/b/items/1", "users/b/items/2", "users/b/items/3", "users/b/items/4",
+      "users/b/items/5", "users/b/items/6", "users/b/items/7", "users/b/items/8", "users/c/items/1",
+      "users/c/items/2")));
+
+    List<String> boundaries = PartitionBoundaries.get(
+      db, "users/b/items", first, 3, 2, boundary -> "users/b/items".equals(boundary.getParent().getPath()));
+
+    Mockito.verify(group).getPartitions(5);
+    Assert.assertEquals(Arrays.asList("users/b/items/3", "users/b/items/6"), boundaries);
+  }
+
+  @Test
+  public void testGetKeepsCollectionGroup() throws Exception {
+    Firestore db = Mockito.mock(Firestore.class);
+    ApiFuture<List<QueryPartition>> first = ApiFutures.immediateFuture(partitions(
+      "users/a/items/1", "users/b/items/1"));
+
+    List<String> boundaries = PartitionBoundaries.get(db, "items", first, 4, 3, boundary -> true);
+
+    Mockito.verifyZeroInteractions(db);
+    Assert.assertEquals(Arrays.asList("users/a/items/1", "users/b/items/1"), boundaries);
+  }
+
+  /**
+   * Returns the partitions starting at the given documents, after a first partition without a start.
+   */
+  private static List<QueryPartition> partitions(String... paths) {
+    List<QueryPartition> partitions = new ArrayList<>();
+    QueryPartition head = Mockito.mock(QueryPartition.class);
+    Mockito.when(head.getStartAt()).thenReturn(null);
+    partitions.add(head);
+    for (String path : paths) {
+      DocumentReference reference = Mockito.mock(DocumentReference.class);
+      CollectionReference parent = Mockito.mock(CollectionReference.class);
+      Mockito.when(reference.getPath()).thenReturn(path);
+      Mockito.when(reference.getParent()).thenReturn(parent);
+      Mockito.when(parent.getPath()).thenReturn(path.substring(0, path.lastIndexOf('/')));
+      QueryPartition partition = Mockito.mock(QueryPartition.class);
+      Mockito.when(partition.getStartAt()).thenReturn(new Object[] {reference});
+      partitions.add(partition);
+    }
+    return Collections.unmodifiableList(partitions);
+  }
+}
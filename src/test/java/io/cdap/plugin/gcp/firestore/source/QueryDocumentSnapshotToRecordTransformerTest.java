@@ -0,0 +1,205 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.Blob;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.GeoPoint;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.common.collect.ImmutableMap;
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.format.UnexpectedFormatException;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.plugin.gcp.firestore.util.FirestoreConstants;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+/**
+ * Tests for {@link QueryDocumentSnapshotToRecordTransformer} class.
+ */
+public class QueryDocumentSnapshotToRecordTransformerTest {
+  private static final Schema SCHEMA = Schema.recordOf(
+    "record",
+    Schema.Field.of("key", Schema.of(Schema.Type.STRING)),
+    Schema.Field.of("name", Schema.of(Schema.Type.STRING)),
+    Schema.Field.of("age", Schema.nullableOf(Schema.of(Schema.Type.LONG))),
+    Schema.Field.of("createdAt", Schema.nullableOf(Schema.of(Schema.LogicalType.TIMESTAMP_MICROS))),
+    Schema.Field.of("parent", Schema.nullableOf(Schema.of(Schema.Type.STRING))));
+
+  @Test
+  public void testTransform() {
+    QueryDocumentSnapshot document = mockDocument("alice", "Alice", 42L, new Date(1500));
+    QueryDocumentSnapshotToRecordTransformer transformer =
+      new QueryDocumentSnapshotToRecordTransformer(SCHEMA, true, "key");
+
+    StructuredRecord record = transformer.transform(document);
+
+    Assert.assertEquals("alice", record.get("key"));
+    Assert.assertEquals("Alice", record.get("name"));
+    Assert.assertEquals(Long.valueOf(42L), record.get("age"));
+    Assert.assertEquals(Long.valueOf(1500000L), record.get("createdAt"));
+    Assert.assertNull(record.get("parent"));
+  }
+
+  @Test
+  public void testTransformMissingValues() {
+    QueryDocumentSnapshot document = mockDocument("bob", null, null, null);
+    QueryDocumentSnapshotToRecordTransformer transformer =
+      new QueryDocumentSnapshotToRecordTransformer(SCHEMA, false, "key");
+
+    StructuredRecord record = transformer.transform(document, ImmutableMap.of("parent", "users/bob"));
+
+    // missing values of non-nullable fields are set to an empty string
+    Assert.assertEquals("", record.get("key"));
+    Assert.assertEquals("", record.get("name"));
+    Assert.assertNull(record.get("age"));
+    Assert.assertEquals("users/bob", record.get("parent"));
+  }
+
+  @Test
+  public void testTransformInvalidType() {
+    QueryDocumentSnapshot document = mockDocument("carol", "Carol", null, null);
+    Mockito.when(document.get(FieldPath.of("age"))).thenReturn("forty");
+    QueryDocumentSnapshotToRecordTransformer transformer =
+      new QueryDocumentSnapshotToRecordTransformer(SCHEMA, true, "key");
+
+    try {
+      transformer.transform(document);
+      Assert.fail("Expected the conversion of field 'age' to fail");
+    } catch (UnexpectedFormatException e) {
+      Assert.assertEquals("Document field 'age' is expected to be of type 'java.lang.Long', but found a 'String'.",
+                          e.getMessage());
+    }
+  }
+
+  @Test
+  public void testTransformInt() {
+    Schema schema = Schema.recordOf(
+      "record",
+      Schema.Field.of("count", Schema.nullableOf(Schema.of(Schema.Type.INT))));
+    QueryDocumentSnapshot document = Mockito.mock(QueryDocumentSnapshot.class);
+    // Firestore returns all integers as longs
+    Mockito.when(document.get(FieldPath.of("count"))).thenReturn(7L);
+    QueryDocumentSnapshotToRecordTransformer transformer =
+      new QueryDocumentSnapshotToRecordTransformer(schema, false, "key");
+
+    Assert.assertEquals(Integer.valueOf(7), transformer.transform(document).get("count"));
+
+    Mockito.when(document.get(FieldPath.of("count"))).thenReturn(1L + Integer.MAX_VALUE);
+    try {
+      transformer.transform(document);
+      Assert.fail("Expected the conversion of field 'count' to fail");
+    } catch (UnexpectedFormatException e) {
+      Assert.assertEquals("Document field 'count' holds 2147483648, which does not fit in an int.", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testTransformNestedValues() {
+    Schema addressSchema = Schema.recordOf(
+      "address",
+      Schema.Field.of("city", Schema.nullableOf(Schema.of(Schema.Type.STRING))),
+      Schema.Field.of("zip", Schema.nullableOf(Schema.of(Schema.Type.LONG))));
+    Schema schema = Schema.recordOf(
+      "record",
+      Schema.Field.of("address", Schema.nullableOf(addressSchema)),
+      Schema.Field.of("tags", Schema.nullableOf(Schema.arrayOf(Schema.nullableOf(Schema.of(Schema.Type.STRING))))),
+      Schema.Field.of("scores", Schema.nullableOf(Schema.mapOf(Schema.of(Schema.Type.STRING),
+                                                               Schema.of(Schema.Type.DOUBLE)))));
+    QueryDocumentSnapshot document = Mockito.mock(QueryDocumentSnapshot.class);
+    Mockito.when(document.get(FieldPath.of("address"))).thenReturn(ImmutableMap.of("city", "Paris", "other", true));
+    Mockito.when(document.get(FieldPath.of("tags"))).thenReturn(Arrays.asList("a", null, "c"));
+    Mockito.when(document.get(FieldPath.of("scores"))).thenReturn(ImmutableMap.of("2024-01", 1.5));
+    QueryDocumentSnapshotToRecordTransformer transformer =
+      new QueryDocumentSnapshotToRecordTransformer(schema, false, "key");
+
+    StructuredRecord record = transformer.transform(document);
+
+    StructuredRecord address = record.get("address");
+    Assert.assertEquals("Paris", address.get("city"));
+    Assert.assertNull(address.get("zip"));
+    Assert.assertEquals(Arrays.asList("a", null, "c"), record.get("tags"));
+    Assert.assertEquals(ImmutableMap.of("2024-01", 1.5), record.get("scores"));
+  }
+
+  @Test
+  public void testTransformInvalidNestedType() {
+    Schema schema = Schema.recordOf(
+      "record",
+      Schema.Field.of("tags", Schema.nullableOf(Schema.arrayOf(Schema.of(Schema.Type.LONG)))));
+    QueryDocumentSnapshot document = Mockito.mock(QueryDocumentSnapshot.class);
+    Mockito.when(document.get(FieldPath.of("tags"))).thenReturn(Collections.singletonList("a"));
+    QueryDocumentSnapshotToRecordTransformer transformer =
+      new QueryDocumentSnapshotToRecordTransformer(schema, false, "key");
+
+    try {
+      transformer.transform(document);
+      Assert.fail("Expected the conversion of field 'tags' to fail");
+    } catch (UnexpectedFormatException e) {
+      Assert.assertEquals("Document field 'tags[]' is expected to be of type 'java.lang.Long', but found a 'String'.",
+                          e.getMessage());
+    }
+  }
+
+  @Test
+  public void testTransformFirestoreTypes() {
+    Schema schema = Schema.recordOf(
+      "record",
+      Schema.Field.of("updatedAt", Schema.nullableOf(Schema.of(Schema.LogicalType.TIMESTAMP_MICROS))),
+      Schema.Field.of("location", Schema.nullableOf(Schema.recordOf(
+        "location",
+        Schema.Field.of(FirestoreConstants.GEO_POINT_LATITUDE, Schema.of(Schema.Type.DOUBLE)),
+        Schema.Field.of(FirestoreConstants.GEO_POINT_LONGITUDE, Schema.of(Schema.Type.DOUBLE))))),
+      Schema.Field.of("owner", Schema.nullableOf(Schema.of(Schema.Type.STRING))),
+      Schema.Field.of("avatar", Schema.nullableOf(Schema.of(Schema.Type.BYTES))));
+    DocumentReference owner = Mockito.mock(DocumentReference.class);
+    Mockito.when(owner.getPath()).thenReturn("users/alice");
+    QueryDocumentSnapshot document = Mockito.mock(QueryDocumentSnapshot.class);
+    Mockito.when(document.get(FieldPath.of("updatedAt"))).thenReturn(Timestamp.ofTimeSecondsAndNanos(2, 5000));
+    Mockito.when(document.get(FieldPath.of("location"))).thenReturn(new GeoPoint(48.85, 2.35));
+    Mockito.when(document.get(FieldPath.of("owner"))).thenReturn(owner);
+    Mockito.when(document.get(FieldPath.of("avatar"))).thenReturn(Blob.fromBytes(new byte[] {1, 2, 3}));
+    QueryDocumentSnapshotToRecordTransformer transformer =
+      new QueryDocumentSnapshotToRecordTransformer(schema, false, "key");
+
+    StructuredRecord record = transformer.transform(document);
+
+    Assert.assertEquals(Long.valueOf(2000005L), record.get("updatedAt"));
+    StructuredRecord location = record.get("location");
+    Assert.assertEquals(48.85, location.<Double>get(FirestoreConstants.GEO_POINT_LATITUDE), 0);
+    Assert.assertEquals(2.35, location.<Double>get(FirestoreConstants.GEO_POINT_LONGITUDE), 0);
+    Assert.assertEquals("users/alice", record.get("owner"));
+    Assert.assertEquals(ByteBuffer.wrap(new byte[] {1, 2, 3}), record.get("avatar"));
+  }
+
+  private static QueryDocumentSnapshot mockDocument(String id, String name, Long age, Date createdAt) {
+    QueryDocumentSnapshot document = Mockito.mock(QueryDocumentSnapshot.class);
+    Mockito.when(document.getId()).thenReturn(id);
+    Mockito.when(document.get(FieldPath.of("name"))).thenReturn(name);
+    Mockito.when(document.get(FieldPath.of("age"))).thenReturn(age);
+    Mockito.when(document.get(FieldPath.of("createdAt"))).thenReturn(createdAt);
+    return document;
+  }
+}
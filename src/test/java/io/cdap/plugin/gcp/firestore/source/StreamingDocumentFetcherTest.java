@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import com.google.api.gax.rpc.ApiStreamObserver;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Tests for {@link StreamingDocumentFetcher} class.
+ */
+public class StreamingDocumentFetcherTest {
+
+  @Test
+  public void testNextPage() throws Exception {
+    Query query = Mockito.mock(Query.class);
+    StreamingDocumentFetcher fetcher = new StreamingDocumentFetcher(query, 2);
+    ApiStreamObserver<DocumentSnapshot> observer = getObserver(query);
+    QueryDocumentSnapshot first = Mockito.mock(QueryDocumentSnapshot.class);
+    QueryDocumentSnapshot second = Mockito.mock(QueryDocumentSnapshot.class);
+
+    observer.onNext(first);
+    observer.onNext(second);
+    observer.onCompleted();
+
+    Assert.assertEquals(Arrays.asList(first, second), fetcher.nextPage());
+    Assert.assertNull(fetcher.nextPage());
+  }
+
+  @Test
+  public void testNextPageFailure() throws Exception {
+    Query query = Mockito.mock(Query.class);
+    StreamingDocumentFetcher fetcher = new StreamingDocumentFetcher(query, 2);
+    getObserver(query).onError(new RuntimeException("unavailable"));
+
+    try {
+      fetcher.nextPage();
+      Assert.fail("Expected the stream failure to be reported");
+    } catch (IOException e) {
+      Assert.assertEquals("Failed to stream documents from Firestore: unavailable", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testCloseCancelsStream() throws Exception {
+    Query query = Mockito.mock(Query.class);
+    StreamingDocumentFetcher fetcher = new StreamingDocumentFetcher(query, 2);
+    ApiStreamObserver<DocumentSnapshot> observer = getObserver(query);
+
+    fetcher.close();
+
+    try {
+      observer.onNext(Mockito.mock(QueryDocumentSnapshot.class));
+      Assert.fail("Expected the delivery of a document to a closed fetcher to cancel the stream");
+    } catch (CancellationException e) {
+      // expected, the error of the cancelled stream is ignored
+      observer.onError(e);
+    }
+    Assert.assertNull(fetcher.nextPage());
+  }
+
+  @Test
+  public void testInterruptedDeliveryFails() throws Exception {
+    Query query = Mockito.mock(Query.class);
+    StreamingDocumentFetcher fetcher = new StreamingDocumentFetcher(query, 1);
+    ApiStreamObserver<DocumentSnapshot> observer = getObserver(query);
+    observer.onNext(Mockito.mock(QueryDocumentSnapshot.class));
+
+    // the queue is full, so the next delivery waits and is interrupted
+    Thread.currentThread().interrupt();
+    try {
+      observer.onNext(Mockito.mock(QueryDocumentSnapshot.class));
+      Assert.fail("Expected the interrupted delivery to fail");
+    } catch (CancellationException e) {
+      Assert.assertTrue(Thread.interrupted());
+    }
+
+    Assert.assertEquals(1, fetcher.nextPage().size());
+    try {
+      fetcher.nextPage();
+      Assert.fail("Expected the lost document to be reported");
+    } catch (IOException e) {
+      Assert.assertTrue(e.getCause() instanceof InterruptedException);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ApiStreamObserver<DocumentSnapshot> getObserver(Query query) {
+    ArgumentCaptor<ApiStreamObserver> observer = ArgumentCaptor.forClass(ApiStreamObserver.class);
+    Mockito.verify(query).stream(observer.capture());
+    return observer.getValue();
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import io.cdap.plugin.gcp.firestore.source.util.FilterInfo;
+import io.cdap.plugin.gcp.firestore.source.util.FilterOperator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Tests for {@link TailSplitter} class.
+ */
+public class TailSplitterTest {
+
+  @Test
+  public void testCompareDocumentPaths() {
+    Assert.assertTrue(TailSplitter.compareDocumentPaths("users/a", "users/b") < 0);
+    Assert.assertTrue(TailSplitter.compareDocumentPaths("users/b", "users/a") > 0);
+    Assert.assertEquals(0, TailSplitter.compareDocumentPaths("users/a", "users/a"));
+  }
+
+  @Test
+  public void testCompareNestedDocumentPaths() {
+    // names are compared segment by segment, so a shorter segment sorts first whatever follows it
+    Assert.assertTrue(TailSplitter.compareDocumentPaths("users/a/orders/z", "users/a-b/orders/a") < 0);
+    Assert.assertTrue(TailSplitter.compareDocumentPaths("users/a", "users/a/orders/x") < 0);
+  }
+
+  @Test
+  public void testCompareDocumentPathsByUtf8() {
+    // U+FFFF sorts after the surrogates of U+1F600 as UTF-16 chars, but before it as UTF-8 bytes
+    Assert.assertTrue(TailSplitter.compareDocumentPaths("users/\uFFFF", "users/\uD83D\uDE00") < 0);
+    Assert.assertTrue(TailSplitter.compareDocumentPaths("users/\uD83D\uDE00", "users/\uFFFF") > 0);
+    Assert.assertTrue(TailSplitter.compareDocumentPaths("users/\uD83D\uDE00", "users/\uD83D\uDE00a") < 0);
+    Assert.assertEquals(0, TailSplitter.compareDocumentPaths("users/\uD83D\uDE00", "users/\uD83D\uDE00"));
+  }
+
+  @Test
+  public void testCompareNumericIds() {
+    // numeric ids sort first, by their value
+    Assert.assertTrue(TailSplitter.compareDocumentPaths("users/__id5__", "users/__id10__") < 0);
+    Assert.assertTrue(TailSplitter.compareDocumentPaths("users/__id10__", "users/a") < 0);
+    Assert.assertTrue(TailSplitter.compareDocumentPaths("users/0", "users/__id10__") > 0);
+    Assert.assertTrue(TailSplitter.compareDocumentPaths("users/__idx__", "users/__id10__") > 0);
+  }
+
+  @Test
+  public void testCanDivideCursorSplit() {
+    FirestoreInputSplit split = new FirestoreInputSplit("users", "users/a", "users/m");
+
+    Assert.assertTrue(TailSplitter.canDivide(split, Collections.emptyList()));
+    Assert.assertTrue(TailSplitter.canDivide(split, Collections.singletonList(
+      new FilterInfo("country", FilterOperator.EQUAL_TO, "FR"))));
+  }
+
+  @Test
+  public void testCannotDivideWithInequalityFilter() {
+    // the query is ordered by the filtered field first, not by the document name the ranges are built on
+    FirestoreInputSplit split = new FirestoreInputSplit("users", null, null);
+
+    Assert.assertFalse(TailSplitter.canDivide(split, Collections.singletonList(
+      new FilterInfo("age", FilterOperator.GREATER_THAN, 20L))));
+    Assert.assertFalse(TailSplitter.canDivide(split, Collections.singletonList(
+      new FilterInfo(FilterOperator.OR, Arrays.asList(
+        new FilterInfo("country", FilterOperator.EQUAL_TO, "FR"),
+        new FilterInfo("age", FilterOperator.LESS_THAN_OR_EQUAL_TO, 20L))))));
+  }
+
+  @Test
+  public void testCanDivideFieldRangeSplit() {
+    FirestoreInputSplit split = new FirestoreInputSplit("users", Arrays.asList(
+      new FilterInfo("age", FilterOperator.GREATER_THAN_OR_EQUAL_TO, 20L),
+      new FilterInfo("age", FilterOperator.LESS_THAN, 40L)));
+
+    Assert.assertTrue(TailSplitter.canDivide(split, Collections.singletonList(
+      new FilterInfo("age", FilterOperator.NOT_EQUAL_TO, 30L))));
+    Assert.assertFalse(TailSplitter.canDivide(split, Collections.singletonList(
+      new FilterInfo("updatedAt", FilterOperator.GREATER_THAN, 0L))));
+  }
+}
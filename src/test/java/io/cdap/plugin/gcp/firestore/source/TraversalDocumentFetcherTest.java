@@ -0,0 +1,141 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source;
+
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests for {@link TraversalDocumentFetcher} class.
+ */
+public class TraversalDocumentFetcherTest {
+
+  @Test
+  public void testSubcollectionsAreRead() throws Exception {
+    QueryDocumentSnapshot user = document("users/a");
+    QueryDocumentSnapshot order = document("users/a/orders/1");
+    QueryDocumentSnapshot review = document("users/a/reviews/1");
+    mockSubcollections(user, collection(order), collection(review));
+    FirestoreDocumentFetcher roots = roots(Collections.singletonList(user));
+
+    try (TraversalDocumentFetcher fetcher = newFetcher(roots, 1, 2)) {
+      Assert.assertEquals(Collections.singletonList(user), fetcher.nextPage());
+      // sibling subcollections are read at the same time and take turns
+      Assert.assertEquals(Collections.singletonList(order), fetcher.nextPage());
+      Assert.assertEquals(Collections.singletonList(review), fetcher.nextPage());
+      Assert.assertNull(fetcher.nextPage());
+    }
+    Mockito.verify(user.getReference()).listCollections();
+  }
+
+  @Test
+  public void testMaxDepth() throws Exception {
+    QueryDocumentSnapshot user = document("users/a");
+    QueryDocumentSnapshot order = document("users/a/orders/1");
+    QueryDocumentSnapshot item = document("users/a/orders/1/items/1");
+    mockSubcollections(user, collection(order));
+    mockSubcollections(order, collection(item));
+    FirestoreDocumentFetcher roots = roots(Collections.singletonList(user));
+
+    try (TraversalDocumentFetcher fetcher = newFetcher(roots, 2, 1)) {
+      Assert.assertEquals(Collections.singletonList(user), fetcher.nextPage());
+      Assert.assertEquals(Collections.singletonList(order), fetcher.nextPage());
+      Assert.assertEquals(Collections.singletonList(item), fetcher.nextPage());
+      Assert.assertNull(fetcher.nextPage());
+    }
+    // the documents at the maximum depth are not listed
+    Mockito.verify(item.getReference(), Mockito.never()).listCollections();
+  }
+
+  @Test
+  public void testDepthCutOff() throws Exception {
+    QueryDocumentSnapshot user = document("users/a");
+    QueryDocumentSnapshot order = document("users/a/orders/1");
+    mockSubcollections(user, collection(order));
+    FirestoreDocumentFetcher roots = roots(Collections.singletonList(user));
+
+    try (TraversalDocumentFetcher fetcher = newFetcher(roots, 1, 1)) {
+      Assert.assertEquals(Collections.singletonList(user), fetcher.nextPage());
+      Assert.assertEquals(Collections.singletonList(order), fetcher.nextPage());
+      Assert.assertNull(fetcher.nextPage());
+    }
+    Mockito.verify(order.getReference(), Mockito.never()).listCollections();
+  }
+
+  @Test
+  public void testEmptyRoots() throws Exception {
+    FirestoreDocumentFetcher roots = roots(Collections.emptyList());
+
+    try (TraversalDocumentFetcher fetcher = newFetcher(roots, 3, 2)) {
+      Assert.assertEquals(Collections.emptyList(), fetcher.nextPage());
+      Assert.assertNull(fetcher.nextPage());
+    }
+    Mockito.verify(roots).close();
+  }
+
+  private static TraversalDocumentFetcher newFetcher(FirestoreDocumentFetcher roots, int maxDepth, int concurrency) {
+    return new TraversalDocumentFetcher(FirestoreReadExecutor.create(Mockito.mock(Firestore.class)), roots,
+                                        Collections.emptyList(), maxDepth, 2, 1, Long.MAX_VALUE, concurrency);
+  }
+
+  /**
+   * Returns a fetcher of the roots returning the given page, then no more pages.
+   */
+  private static FirestoreDocumentFetcher roots(List<QueryDocumentSnapshot> page) throws Exception {
+    FirestoreDocumentFetcher roots = Mockito.mock(FirestoreDocumentFetcher.class);
+    Mockito.doReturn(page).doReturn(null).when(roots).nextPage();
+    return roots;
+  }
+
+  private static void mockSubcollections(QueryDocumentSnapshot document, CollectionReference... collections) {
+    Mockito.when(document.getReference().listCollections()).thenReturn(Arrays.asList(collections));
+  }
+
+  /**
+   * Returns a subcollection holding a single page of the given documents.
+   */
+  private static CollectionReference collection(QueryDocumentSnapshot... documents) {
+    CollectionReference collection = Mockito.mock(CollectionReference.class);
+    CollectionReference page = Mockito.mock(CollectionReference.class);
+    QuerySnapshot snapshot = Mockito.mock(QuerySnapshot.class);
+    Mockito.when(snapshot.getDocuments()).thenReturn(Arrays.asList(documents));
+    Mockito.when(page.get()).thenReturn(ApiFutures.immediateFuture(snapshot));
+    Mockito.when(collection.limit(2)).thenReturn(page);
+    return collection;
+  }
+
+  private static QueryDocumentSnapshot document(String path) {
+    DocumentReference reference = Mockito.mock(DocumentReference.class);
+    Mockito.when(reference.getPath()).thenReturn(path);
+    Mockito.when(reference.listCollections()).thenReturn(Collections.emptyList());
+    QueryDocumentSnapshot document = Mockito.mock(QueryDocumentSnapshot.class);
+    Mockito.when(document.getReference()).thenReturn(reference);
+    Mockito.when(document.getData()).thenReturn(Collections.emptyMap());
+    return document;
+  }
+}
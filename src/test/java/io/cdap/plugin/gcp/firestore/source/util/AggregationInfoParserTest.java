@@ -0,0 +1,54 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Tests for {@link AggregationInfoParser} class.
+ */
+public class AggregationInfoParserTest {
+
+  @Test
+  public void testParseAggregations() {
+    List<AggregationInfo> aggregations =
+      AggregationInfoParser.parseAggregationString("count():orders,sum(amount):total,avg(item.price)");
+
+    Assert.assertEquals(3, aggregations.size());
+    Assert.assertEquals(AggregationFunction.COUNT, aggregations.get(0).getFunction());
+    Assert.assertNull(aggregations.get(0).getField());
+    Assert.assertEquals("orders", aggregations.get(0).getAlias());
+    Assert.assertEquals(AggregationFunction.SUM, aggregations.get(1).getFunction());
+    Assert.assertEquals("amount", aggregations.get(1).getField());
+    Assert.assertEquals("total", aggregations.get(1).getAlias());
+    Assert.assertEquals("item.price", aggregations.get(2).getField());
+    Assert.assertEquals("avg_item_price", aggregations.get(2).getAlias());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseMissingField() {
+    AggregationInfoParser.parseAggregationString("sum()");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseInvalidFunction() {
+    AggregationInfoParser.parseAggregationString("max(amount)");
+  }
+}
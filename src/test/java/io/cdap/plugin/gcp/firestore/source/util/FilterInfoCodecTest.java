@@ -0,0 +1,54 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Tests for {@link FilterInfoCodec} class.
+ */
+public class FilterInfoCodecTest {
+
+  @Test
+  public void testRoundTripKeepsValueTypes() {
+    List<FilterInfo> filters = FilterInfoCodec.decode(FilterInfoCodec.encode(
+      FilterInfoParser.parseFilterString("abc:EqualTo(name),10:GreaterThan(age),1.5:LessThan(score)")));
+
+    Assert.assertEquals(3, filters.size());
+    Assert.assertEquals("name", filters.get(0).getField());
+    Assert.assertEquals(FilterOperator.EQUAL_TO, filters.get(0).getOperator());
+    Assert.assertEquals("abc", filters.get(0).getValue());
+    Assert.assertEquals(FilterOperator.GREATER_THAN, filters.get(1).getOperator());
+    Assert.assertEquals(10L, filters.get(1).getValue());
+    Assert.assertEquals(FilterOperator.LESS_THAN, filters.get(2).getOperator());
+    Assert.assertEquals(1.5d, filters.get(2).getValue());
+  }
+
+  @Test
+  public void testDecodeEmpty() {
+    Assert.assertTrue(FilterInfoCodec.decode(null).isEmpty());
+    Assert.assertTrue(FilterInfoCodec.decode("").isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDecodeMalformed() {
+    FilterInfoCodec.decode("[{\"field\":\"age\",\"operator\":\"Unknown\"}]");
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source.util;
+
+import com.google.cloud.Timestamp;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests for {@link FilterInfoParser} class.
+ */
+public class FilterInfoParserTest {
+
+  @Test
+  public void testParseListAndTypedValues() {
+    List<FilterInfo> filters = FilterInfoParser.parseFilterString(
+      "CA|NY:In(state),boolean(true):EqualTo(active),timestamp(2020-01-01T00:00:00Z):GreaterThan(updated)");
+
+    Assert.assertEquals(3, filters.size());
+    Assert.assertEquals(FilterOperator.IN, filters.get(0).getOperator());
+    Assert.assertEquals(Arrays.asList("CA", "NY"), filters.get(0).getValue());
+    Assert.assertEquals(Boolean.TRUE, filters.get(1).getValue());
+    Assert.assertEquals("updated", filters.get(2).getField());
+    Assert.assertEquals(Timestamp.parseTimestamp("2020-01-01T00:00:00Z"), filters.get(2).getValue());
+  }
+
+  @Test
+  public void testParseCompositeFilter() {
+    List<FilterInfo> filters = FilterInfoParser.parseFilterString(
+      "Or(CA:EqualTo(state),And(10:GreaterThan(age),long(1)|long(2):ArrayContainsAny(tags))),x:NotEqualTo(name)");
+
+    Assert.assertEquals(2, filters.size());
+    FilterInfo or = filters.get(0);
+    Assert.assertEquals(FilterOperator.OR, or.getOperator());
+    Assert.assertEquals(2, or.getFilters().size());
+    FilterInfo and = or.getFilters().get(1);
+    Assert.assertEquals(FilterOperator.AND, and.getOperator());
+    Assert.assertEquals(10L, and.getFilters().get(0).getValue());
+    Assert.assertEquals(Arrays.asList(1L, 2L), and.getFilters().get(1).getValue());
+    Assert.assertEquals(FilterOperator.NOT_EQUAL_TO, filters.get(1).getOperator());
+
+    List<FilterInfo> decoded = FilterInfoCodec.decode(FilterInfoCodec.encode(filters));
+    Assert.assertEquals(Arrays.asList(1L, 2L), decoded.get(0).getFilters().get(1).getFilters().get(1).getValue());
+  }
+
+  @Test
+  public void testParseValues() {
+    Assert.assertEquals(Arrays.asList("CA", 10L, Timestamp.parseTimestamp("2020-01-01T00:00:00Z")),
+                        FilterInfoParser.parseValues("CA,long(10),timestamp(2020-01-01T00:00:00Z)"));
+    Assert.assertTrue(FilterInfoParser.parseValues("").isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseInvalidTypedValue() {
+    FilterInfoParser.parseFilterString("boolean(yes):EqualTo(active)");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseEmptyCompositeFilter() {
+    FilterInfoParser.parseFilterString("Or()");
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.plugin.gcp.firestore.source.util;
+
+import com.google.cloud.Timestamp;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Tests for {@link WatermarkStore} class.
+ */
+public class WatermarkStoreTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testReadMissingWatermark() throws Exception {
+    File file = new File(folder.getRoot(), "watermark");
+
+    Assert.assertNull(new WatermarkStore(file.getAbsolutePath()).read());
+  }
+
+  @Test
+  public void testWriteAndRead() throws Exception {
+    File file = new File(folder.getRoot(), "watermark");
+    WatermarkStore store = new WatermarkStore(file.getAbsolutePath());
+    Timestamp watermark = Timestamp.parseTimestamp("2024-01-01T00:00:00.123456Z");
+
+    store.write(watermark);
+
+    Assert.assertEquals(watermark, store.read());
+    Assert.assertEquals(watermark, new WatermarkStore(file.getAbsolutePath()).read());
+  }
+
+  @Test
+  public void testWriteReplacesWatermark() throws Exception {
+    File file = new File(folder.getRoot(), "watermark");
+    WatermarkStore store = new WatermarkStore(file.getAbsolutePath());
+    Timestamp watermark = Timestamp.parseTimestamp("2024-01-02T00:00:00Z");
+
+    store.write(Timestamp.parseTimestamp("2024-01-01T00:00:00Z"));
+    store.write(watermark);
+
+    Assert.assertEquals(watermark, store.read());
+    // the temporary file is renamed over the previous watermark
+    Assert.assertFalse(new File(folder.getRoot(), ".watermark.tmp").exists());
+  }
+
+  @Test
+  public void testReadEmptyWatermark() throws Exception {
+    File file = folder.newFile("watermark");
+
+    Assert.assertNull(new WatermarkStore(file.getAbsolutePath()).read());
+  }
+
+  @Test(expected = IOException.class)
+  public void testReadMalformedWatermark() throws Exception {
+    File file = folder.newFile("watermark");
+    Files.write(file.toPath(), "yesterday\n".getBytes(StandardCharsets.UTF_8));
+
+    new WatermarkStore(file.getAbsolutePath()).read();
+  }
+}